@@ -0,0 +1,58 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable <code>CharSequence</code> view over the bytes of a <code>ByteBuffer</code>, one byte per char (ASCII / ISO-8859-1).
+ * It reads with absolute gets, so the position of the buffer never changes.
+ */
+final class ByteSequence implements CharSequence {
+
+	private ByteBuffer buffer;
+	private int offset;
+	private int length;
+
+	ByteSequence wrap(ByteBuffer buffer, int offset, int length) {
+		this.buffer = buffer;
+		this.offset = offset;
+		this.length = length;
+		return this;
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		return (char) (buffer.get(offset + index) & 0xFF);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		StringBuilder sb = new StringBuilder(end - start);
+		for(int i = start; i < end; i++) sb.append(charAt(i));
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return subSequence(0, length).toString();
+	}
+}
@@ -0,0 +1,683 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe <code>Configuration</code> with lock-free reads.
+ * <br/><br/>
+ * Writes (<code>add</code>, <code>remove</code>, <code>overwriteDefault</code>, etc.) are serialized, applied to a private <code>MapConfiguration</code>
+ * and then published as a new <code>FrozenConfiguration</code> through a volatile field. Reads go straight to the current snapshot, so
+ * any number of threads can read at the same time without contending on a lock. Each write copies the values, so this is the right choice when
+ * writes are rare and reads come from many threads.
+ * <br/><br/>
+ * Components can subscribe to changes of specific <code>ConfigKey</code>s or whole holders with <code>addChangeListener</code>.
+ * Only <code>update</code> batches writes: all the writes made by one <code>update</code> are published together and delivered as a single
+ * coalesced <code>ConfigChangeSet</code>. Every other write is published on its own, and delivered as its own <code>ConfigChangeSet</code>,
+ * unless it is made while an earlier change set is still being delivered. Then it is coalesced with the other writes made meanwhile, so
+ * listeners always get the change sets in the order they were published. Use <code>update</code> to apply many changes at once.
+ */
+public class ConcurrentConfiguration implements Configuration, InternalConfiguration {
+	
+	private final ConfigLayout layout;
+	private MapConfiguration master; // guarded by this
+	private volatile FrozenConfiguration snapshot;
+	private final CopyOnWriteArrayList<DeprecatedListener> listeners = new CopyOnWriteArrayList<DeprecatedListener>();
+	private final CopyOnWriteArrayList<Subscription> changeListeners = new CopyOnWriteArrayList<Subscription>();
+	private final ConfigConstants constants = new ConfigConstants(this);
+	private final CopyOnWriteArrayList<Consumer<ConfigKey<?>>> changeHooks = new CopyOnWriteArrayList<Consumer<ConfigKey<?>>>();
+	private FrozenConfiguration pendingBefore, pendingAfter; // the changes not delivered yet, guarded by this
+	private Set<ConfigKey<?>> pendingKeys = new HashSet<ConfigKey<?>>(); // same
+	private boolean pendingAll; // same
+	private boolean dispatching; // same
+	
+	/**
+	 * Creates a new <code>ConcurrentConfiguration</code> with the <code>ConfigKey</code>s present in the given list of holder classes.
+	 * 
+	 * @param holders the holder classes from where to get the <code>ConfigKey</code>s
+	 */
+	public ConcurrentConfiguration(Class<?> ... holders) {
+		this(null, holders);
+	}
+	
+	/**
+	 * Creates a new <code>ConcurrentConfiguration</code> with the <code>ConfigKey</code>s present in the given list of holder classes.
+	 * You can pass a list of parameters to be configured, for example:
+	 * &nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;<code>"myInteger1=2 myString=blah myEnum=BALL myFloat3=3.12"</code>
+	 * 
+	 * @param params some initial values for some of the <code>ConfigKey</code>s of this configuration
+	 * @param holders the holder classes from where to get the <code>ConfigKey</code>s
+	 */
+	public ConcurrentConfiguration(String params, Class<?> ... holders) {
+		this.master = new MapConfiguration(params, holders);
+		this.snapshot = master.freeze();
+		this.layout = ConfigLayout.of(master.getHolders());
+	}
+	
+	/**
+	 * Creates a new <code>ConcurrentConfiguration</code> by copying everything from the given configuration.
+	 * 
+	 * @param config the configuration to copy everything from for this new <code>ConcurrentConfiguration</code>
+	 */
+	public ConcurrentConfiguration(Configuration config) {
+		this.master = new MapConfiguration(config);
+		this.snapshot = master.freeze();
+		this.layout = ConfigLayout.of(master.getHolders());
+	}
+	
+	/**
+	 * Returns the current immutable snapshot of this configuration. Later writes to this configuration are not seen by the returned snapshot.
+	 * 
+	 * @return the current snapshot
+	 */
+	public FrozenConfiguration snapshot() {
+		return snapshot;
+	}
+	
+	/**
+	 * Applies all the changes made by the given updater and publishes them at once, so readers see either none or all of them.
+	 * The updater gets a private copy of the current values, so if it throws nothing is changed.
+	 * Change listeners get all the changes in a single <code>ConfigChangeSet</code>.
+	 * Deprecated listeners are not called for the changes made by the updater.
+	 * 
+	 * @param updater the code making the changes
+	 */
+	public void update(Consumer<MapConfiguration> updater) {
+		FrozenConfiguration before, after;
+		synchronized(this) {
+			before = snapshot;
+			MapConfiguration copy = master.fork();
+			updater.accept(copy);
+			master = copy;
+			after = publish();
+			queueChanges(before, after, null);
+		}
+		if (before != after) changed(null);
+		fireChanges();
+	}
+	
+	private FrozenConfiguration publish() {
+		return snapshot = master.freeze();
+	}
+	
+	/**
+	 * Subscribes the given listener to changes of the given <code>ConfigKey</code>s. The listener is called by a thread that made a change, see <code>ConfigChangeListener</code>.
+	 * 
+	 * @param listener the listener to call
+	 * @param configKeys the <code>ConfigKey</code>s to watch
+	 */
+	public void addChangeListener(ConfigChangeListener listener, ConfigKey<?> ... configKeys) {
+		addChangeListener(listener, DIRECT, configKeys);
+	}
+	
+	/**
+	 * Subscribes the given listener to changes of the given <code>ConfigKey</code>s, with the calls made through the given executor.
+	 * Each change set is a single call, no matter how many <code>ConfigKey</code>s changed. The calls are passed to the executor in the order
+	 * the changes were published, so an executor running them in order (like a single thread) keeps it.
+	 * 
+	 * @param listener the listener to call
+	 * @param executor the executor to call the listener
+	 * @param configKeys the <code>ConfigKey</code>s to watch
+	 */
+	public void addChangeListener(ConfigChangeListener listener, Executor executor, ConfigKey<?> ... configKeys) {
+		if (configKeys.length == 0) throw new IllegalArgumentException("Must pass a config key!");
+		Set<ConfigKey<?>> set = new HashSet<ConfigKey<?>>();
+		for(ConfigKey<?> configKey : configKeys) {
+			if (!allConfigKeys().contains(configKey)) {
+				throw new IllegalStateException("ConfigKey does not belong to holder class!" +
+												" configKey=" + configKey);
+			}
+			set.add(configKey);
+		}
+		changeListeners.add(new Subscription(listener, executor, set, null));
+	}
+	
+	/**
+	 * Subscribes the given listener to changes of all the <code>ConfigKey</code>s of the given holder. The listener is called by a thread that made a change, see <code>ConfigChangeListener</code>.
+	 * 
+	 * @param listener the listener to call
+	 * @param holder the holder class whose <code>ConfigKey</code>s to watch
+	 */
+	public void addChangeListener(ConfigChangeListener listener, Class<?> holder) {
+		addChangeListener(listener, DIRECT, holder);
+	}
+	
+	/**
+	 * Subscribes the given listener to changes of all the <code>ConfigKey</code>s of the given holder, with the calls made through the given executor.
+	 * Each change set is a single call, no matter how many <code>ConfigKey</code>s changed. The calls are passed to the executor in the order
+	 * the changes were published, so an executor running them in order (like a single thread) keeps it.
+	 * 
+	 * @param listener the listener to call
+	 * @param executor the executor to call the listener
+	 * @param holder the holder class whose <code>ConfigKey</code>s to watch
+	 */
+	public void addChangeListener(ConfigChangeListener listener, Executor executor, Class<?> holder) {
+		if (!Arrays.asList(getHolders()).contains(holder)) throw new IllegalArgumentException("Not a holder of this configuration: " + holder);
+		changeListeners.add(new Subscription(listener, executor, null, holder));
+	}
+	
+	/**
+	 * Removes all the subscriptions of the given listener.
+	 * 
+	 * @param listener the listener to remove
+	 */
+	public void removeChangeListener(ConfigChangeListener listener) {
+		for(Subscription subscription : changeListeners) {
+			if (subscription.listener == listener) changeListeners.remove(subscription);
+		}
+	}
+	
+	/*
+	 * Called holding the lock of this after every write, with the config key that was written or null if many config keys may have changed.
+	 * The writes queued while a change set is being delivered are coalesced into the next one.
+	 */
+	private void queueChanges(FrozenConfiguration before, FrozenConfiguration after, ConfigKey<?> configKey) {
+		if (before == after || changeListeners.isEmpty()) return;
+		if (pendingAfter == null) pendingBefore = before;
+		pendingAfter = after;
+		if (configKey == null) {
+			pendingAll = true;
+		} else if (!pendingAll) {
+			pendingKeys.add(configKey);
+		}
+	}
+	
+	/*
+	 * Called outside of the lock after every write, so listeners can read and write this configuration. Only one thread delivers at a time,
+	 * and it keeps delivering until nothing is queued, so the change sets are delivered in the order they were published. A write made by a
+	 * listener called directly is queued and delivered by the same loop after the listener returns.
+	 */
+	private void fireChanges() {
+		while(true) {
+			FrozenConfiguration before, after;
+			Set<ConfigKey<?>> keys;
+			synchronized(this) {
+				if (dispatching || pendingAfter == null) return;
+				before = pendingBefore;
+				after = pendingAfter;
+				keys = pendingAll ? null : pendingKeys;
+				pendingBefore = pendingAfter = null;
+				pendingAll = false;
+				if (keys != null) pendingKeys = new HashSet<ConfigKey<?>>();
+				dispatching = true;
+			}
+			try {
+				fireChanges(before, after, keys);
+			} finally {
+				synchronized(this) {
+					dispatching = false;
+				}
+			}
+		}
+	}
+	
+	private void fireChanges(FrozenConfiguration before, FrozenConfiguration after, Set<ConfigKey<?>> keys) {
+		Set<ConfigKey<?>> changed = new HashSet<ConfigKey<?>>();
+		if (keys != null) {
+			for(ConfigKey<?> configKey : keys) after.collectChanges(before, configKey, changed); // a single write can only change its group
+		} else {
+			after.collectChanges(before, changed);
+		}
+		if (changed.isEmpty()) return;
+		for(Subscription subscription : changeListeners) {
+			Set<ConfigKey<?>> subscribed = null;
+			for(ConfigKey<?> changedKey : changed) {
+				if (subscription.matches(changedKey)) {
+					if (subscribed == null) subscribed = new HashSet<ConfigKey<?>>();
+					subscribed.add(changedKey);
+				}
+			}
+			if (subscribed != null) {
+				final ConfigChangeSet changes = new ConfigChangeSet(subscribed, before, after);
+				final ConfigChangeListener listener = subscription.listener;
+				subscription.executor.execute(() -> listener.configChanged(changes));
+			}
+		}
+	}
+	
+	private int enforceConfigKey(ConfigKey<?> configKey) {
+		return MapConfiguration.enforceConfigKey(layout, configKey);
+	}
+	
+	private <T> void checkDeprecated(ConfigKey<T> configKey) {
+		MapConfiguration.checkDeprecated(listeners, configKey);
+	}
+	
+	/**
+	 * Adds a given value to the given <code>ConfigKey</code> for this configuration.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> for which a value will be added to this configuration
+	 * @param value the value to be added for the given <code>ConfigKey</code>
+	 * @return a previous value that was added for the given <code>ConfigKey</code> or null if there was none
+	 */
+	public <T> T add(ConfigKey<T> configKey, T value) {
+		
+		enforceConfigKey(configKey);
+		
+		MapConfiguration.enforceValue(configKey, value);
+		
+		checkDeprecated(configKey);
+		
+		T prev;
+		FrozenConfiguration before, after;
+		synchronized(this) {
+			before = snapshot;
+			prev = master.add(configKey, value);
+			after = publish();
+			queueChanges(before, after, configKey);
+		}
+		if (before != after) changed(configKey);
+		fireChanges();
+		return prev;
+	}
+	
+	/**
+	 * Removes the value from the given <code>ConfigKey</code> for this configuration.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> for which the value will be removed
+	 * @return a previous value that was added for the given <code>ConfigKey</code> or null if there was none
+	 */
+	public <T> T remove(ConfigKey<T> configKey) {
+		
+		enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		T prev;
+		FrozenConfiguration before, after;
+		synchronized(this) {
+			before = snapshot;
+			prev = master.remove(configKey);
+			after = publish();
+			queueChanges(before, after, configKey);
+		}
+		if (before != after) changed(configKey);
+		fireChanges();
+		return prev;
+	}
+	
+	@Override
+	public <T> boolean overwriteDefault(ConfigKey<T> configKey, T defaultValue) {
+		
+		enforceConfigKey(configKey);
+		
+		MapConfiguration.enforceDefaultValue(configKey, defaultValue);
+		
+		checkDeprecated(configKey);
+		
+		boolean overwritten;
+		FrozenConfiguration before, after;
+		synchronized(this) {
+			before = snapshot;
+			overwritten = master.overwriteDefault(configKey, defaultValue);
+			after = publish();
+			queueChanges(before, after, configKey);
+		}
+		if (before != after) changed(configKey);
+		fireChanges();
+		return overwritten;
+	}
+	
+	@Override
+	public <T> boolean removeOverwrittenDefault(ConfigKey<T> configKey) {
+		
+		enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		boolean removed;
+		FrozenConfiguration before, after;
+		synchronized(this) {
+			before = snapshot;
+			removed = master.removeOverwrittenDefault(configKey);
+			after = removed ? publish() : before;
+			queueChanges(before, after, configKey);
+		}
+		if (before != after) changed(configKey);
+		fireChanges();
+		return removed;
+	}
+	
+	@Override
+	public void removeAllOverwrittenDefaults() {
+		FrozenConfiguration before, after;
+		synchronized(this) {
+			before = snapshot;
+			master.removeAllOverwrittenDefaults();
+			after = publish();
+			queueChanges(before, after, null);
+		}
+		if (before != after) changed(null);
+		fireChanges();
+	}
+	
+	private static final Executor DIRECT = Runnable::run;
+	
+	private static final class Subscription {
+		
+		final ConfigChangeListener listener;
+		final Executor executor;
+		final Set<ConfigKey<?>> configKeys; // or null for a holder
+		final Class<?> holder; // or null for config keys
+		
+		Subscription(ConfigChangeListener listener, Executor executor, Set<ConfigKey<?>> configKeys, Class<?> holder) {
+			this.listener = listener;
+			this.executor = executor;
+			this.configKeys = configKeys;
+			this.holder = holder;
+		}
+		
+		boolean matches(ConfigKey<?> configKey) {
+			return configKeys != null ? configKeys.contains(configKey) : configKey.getHolder() == holder;
+		}
+	}
+	
+	@Override
+	public List<ConfigKey<?>> allConfigKeys() {
+		return snapshot.allConfigKeys();
+	}
+	
+	@Override
+	public void addListener(DeprecatedListener listener) {
+		listeners.addIfAbsent(listener);
+	}
+	
+	@Override
+	public void removeListener(DeprecatedListener listener) {
+		listeners.remove(listener);
+	}
+	
+	@Override
+	public Set<ConfigKey<?>> keysWithOverwrittenDefault() {
+		return snapshot.keysWithOverwrittenDefault();
+	}
+	
+	@Override
+	public <T> T getOverwrittenDefault(ConfigKey<T> configKey) {
+		T value = snapshot.getOverwrittenDefault(configKey);
+		checkDeprecated(configKey);
+		return value;
+	}
+	
+	@Override
+	public <T> boolean hasOverwrittenDefault(ConfigKey<T> configKey) {
+		boolean has = snapshot.hasOverwrittenDefault(configKey);
+		checkDeprecated(configKey);
+		return has;
+	}
+	
+	@Override
+	public Class<?>[] getHolders() {
+		return snapshot.getHolders();
+	}
+	
+	@Override
+	public <T> T get(ConfigKey<T> configKey) {
+		T value = snapshot.get(configKey);
+		checkDeprecated(configKey);
+		return value;
+	}
+	
+	private long resolveBits(ConfigKey<?> configKey) {
+		long bits = snapshot.peekBits(configKey);
+		checkDeprecated(configKey);
+		return bits;
+	}
+	
+	@Override
+	public boolean getBoolean(ConfigKey<Boolean> configKey) {
+		return resolveBits(configKey) != 0;
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey) {
+		return (char) resolveBits(configKey);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey) {
+		return (byte) resolveBits(configKey);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey) {
+		return (short) resolveBits(configKey);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey) {
+		return (int) resolveBits(configKey);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey) {
+		return resolveBits(configKey);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey) {
+		return (float) Double.longBitsToDouble(resolveBits(configKey));
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey) {
+		return Double.longBitsToDouble(resolveBits(configKey));
+	}
+	
+	/**
+	 * Adds a qualified value to the given <code>ConfigKey</code>. See <code>MapConfiguration.addQualified</code>.
+	 * A change of a qualified value is reported to the change listeners of every member of its group.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> for which a qualified value will be added
+	 * @param qualifier the qualifier
+	 * @param value the value for the given qualifier
+	 * @return a previous value that was added for the given qualifier or null if there was none
+	 */
+	public <T> T addQualified(ConfigKey<T> configKey, long qualifier, T value) {
+		
+		enforceConfigKey(configKey);
+		
+		MapConfiguration.enforceValue(configKey, value);
+		
+		checkDeprecated(configKey);
+		
+		T prev;
+		FrozenConfiguration before, after;
+		synchronized(this) {
+			before = snapshot;
+			prev = master.addQualified(configKey, qualifier, value);
+			after = publish();
+			queueChanges(before, after, configKey);
+		}
+		if (before != after) changed(configKey);
+		fireChanges();
+		return prev;
+	}
+	
+	/**
+	 * Removes the qualified value of the given <code>ConfigKey</code> for the given qualifier. See <code>MapConfiguration.removeQualified</code>.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> for which the qualified value will be removed
+	 * @param qualifier the qualifier
+	 * @return a previous value that was added for the given qualifier or null if there was none
+	 */
+	public <T> T removeQualified(ConfigKey<T> configKey, long qualifier) {
+		
+		enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		T prev;
+		FrozenConfiguration before, after;
+		synchronized(this) {
+			before = snapshot;
+			prev = master.removeQualified(configKey, qualifier);
+			after = prev != null ? publish() : before;
+			queueChanges(before, after, configKey);
+		}
+		if (before != after) changed(configKey);
+		fireChanges();
+		return prev;
+	}
+	
+	@Override
+	public <T> T get(ConfigKey<T> configKey, long qualifier) {
+		T value = snapshot.get(configKey, qualifier);
+		checkDeprecated(configKey);
+		return value;
+	}
+	
+	private long resolveBits(ConfigKey<?> configKey, long qualifier) {
+		long bits = snapshot.peekBits(configKey, qualifier);
+		checkDeprecated(configKey);
+		return bits;
+	}
+	
+	@Override
+	public boolean getBoolean(ConfigKey<Boolean> configKey, long qualifier) {
+		return resolveBits(configKey, qualifier) != 0;
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey, long qualifier) {
+		return (char) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey, long qualifier) {
+		return (byte) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey, long qualifier) {
+		return (short) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey, long qualifier) {
+		return (int) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey, long qualifier) {
+		return resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey, long qualifier) {
+		return (float) Double.longBitsToDouble(resolveBits(configKey, qualifier));
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey, long qualifier) {
+		return Double.longBitsToDouble(resolveBits(configKey, qualifier));
+	}
+	
+	@Override
+	public boolean has(ConfigKey<?> configKey) {
+		boolean has = snapshot.has(configKey);
+		checkDeprecated(configKey);
+		return has;
+	}
+	
+	@Override
+	public int size() {
+		return snapshot.size();
+	}
+	
+	@Override
+	public long epoch() {
+		return snapshot.epoch();
+	}
+	
+	@Override
+	public long epoch(Class<?> holder) {
+		return snapshot.epoch(holder);
+	}
+	
+	// for InternalReads, no listeners
+	@Override
+	public Object peek(ConfigKey<?> configKey) {
+		return snapshot.peek(configKey);
+	}
+	
+	@Override
+	public Object peekOrElse(ConfigKey<?> configKey, Object notFound) {
+		return snapshot.peekOrElse(configKey, notFound);
+	}
+	
+	@Override
+	public boolean peekHas(ConfigKey<?> configKey) {
+		return snapshot.peekHas(configKey);
+	}
+	
+	@Override
+	public boolean peekHasDefault(ConfigKey<?> configKey) {
+		return snapshot.peekHasDefault(configKey);
+	}
+	
+	@Override
+	public Object peekDefault(ConfigKey<?> configKey) {
+		return snapshot.peekDefault(configKey);
+	}
+	
+	@Override
+	public boolean peekHasQualified(ConfigKey<?> configKey, long qualifier) {
+		return snapshot.peekHasQualified(configKey, qualifier);
+	}
+	
+	@Override
+	public Object peekQualified(ConfigKey<?> configKey, long qualifier) {
+		return snapshot.peekQualified(configKey, qualifier);
+	}
+	
+	@Override
+	public <T> ConfigConstant<T> constant(ConfigKey<T> configKey) {
+		return constants.of(configKey);
+	}
+	
+	// for LayeredConfiguration, called with the config key that was changed or null if many config keys may have changed
+	@Override
+	public void addChangeHook(Consumer<ConfigKey<?>> hook) {
+		changeHooks.add(hook);
+	}
+	
+	@Override
+	public void removeChangeHook(Consumer<ConfigKey<?>> hook) {
+		changeHooks.remove(hook);
+	}
+	
+	private void changed(ConfigKey<?> configKey) {
+		constants.refresh(configKey);
+		for(Consumer<ConfigKey<?>> changeHook : changeHooks) changeHook.accept(configKey); // a snapshot, hooks can be removed meanwhile
+	}
+	
+	@Override
+	public Set<ConfigKey<?>> keys() {
+		return snapshot.keys();
+	}
+}
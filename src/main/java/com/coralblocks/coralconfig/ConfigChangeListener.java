@@ -0,0 +1,36 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+/**
+ * A <code>ConfigChangeListener</code> is told when the values of the <code>ConfigKey</code>s it subscribed to change in a <code>ConcurrentConfiguration</code>.
+ * All the changes published together (by a single <code>update</code>, a reload or a single write) arrive as one <code>ConfigChangeSet</code>.
+ * Only <code>update</code> publishes many writes together.
+ * <br/><br/>
+ * Change sets are delivered one at a time, in the order they were published, so a listener never gets an older snapshot after a newer one.
+ * Writes made while a change set is being delivered, by other threads or by a listener, are coalesced into the next change set, which only
+ * has the <code>ConfigKey</code>s whose values differ between its before and after snapshots. A listener called directly (without an executor)
+ * can be called by another writing thread than the one that made the change.
+ */
+public interface ConfigChangeListener {
+	
+	/**
+	 * The effective values of some of the subscribed <code>ConfigKey</code>s changed.
+	 * 
+	 * @param changes the subscribed <code>ConfigKey</code>s that changed, with the configuration before and after the change
+	 */
+	public void configChanged(ConfigChangeSet changes);
+}
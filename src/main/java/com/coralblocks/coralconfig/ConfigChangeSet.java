@@ -0,0 +1,79 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A coalesced set of changes delivered to a <code>ConfigChangeListener</code>. A <code>ConfigKey</code> is in the set when its effective value
+ * (configured value, overwritten default or default) or one of the qualified values of its group is different after the change, no matter
+ * how many writes led to it.
+ */
+public final class ConfigChangeSet {
+	
+	private final Set<ConfigKey<?>> changedKeys;
+	private final FrozenConfiguration previous;
+	private final FrozenConfiguration current;
+	
+	ConfigChangeSet(Set<ConfigKey<?>> changedKeys, FrozenConfiguration previous, FrozenConfiguration current) {
+		this.changedKeys = Collections.unmodifiableSet(changedKeys);
+		this.previous = previous;
+		this.current = current;
+	}
+	
+	/**
+	 * Returns the <code>ConfigKey</code>s whose effective or qualified values changed.
+	 * 
+	 * @return the changed <code>ConfigKey</code>s
+	 */
+	public Set<ConfigKey<?>> changedKeys() {
+		return changedKeys;
+	}
+	
+	/**
+	 * Returns whether the effective value of the given <code>ConfigKey</code> changed.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to check
+	 * @return true if its value changed
+	 */
+	public boolean contains(ConfigKey<?> configKey) {
+		return changedKeys.contains(configKey);
+	}
+	
+	/**
+	 * Returns the configuration as it was before the change.
+	 * 
+	 * @return the configuration before the change
+	 */
+	public FrozenConfiguration previous() {
+		return previous;
+	}
+	
+	/**
+	 * Returns the configuration right after the change. Later changes are not seen by it.
+	 * 
+	 * @return the configuration after the change
+	 */
+	public FrozenConfiguration current() {
+		return current;
+	}
+	
+	@Override
+	public String toString() {
+		return "ConfigChangeSet" + changedKeys;
+	}
+}
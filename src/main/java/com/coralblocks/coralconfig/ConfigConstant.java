@@ -0,0 +1,246 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.util.Objects;
+
+/**
+ * The value of a <code>ConfigKey</code> in a configuration, exposed through a <code>MethodHandle</code> bound to a <code>MutableCallSite</code>.
+ * Create one with <code>ConfigKey.asConstant(Configuration)</code>.
+ * <br/><br/>
+ * The call site always targets a constant handle with the current value, and is re-targeted only when the value changes in the configuration.
+ * When the handle returned by <code>handle()</code> is kept in a <code>static final</code> field, the JIT can inline the value as a true
+ * constant (and fold the branches that depend on it), then deoptimize the compiled code when the value changes.
+ * <br/><br/>
+ * <code>MapConfiguration</code>, <code>ConcurrentConfiguration</code> and <code>LayeredConfiguration</code> keep one constant per <code>ConfigKey</code> and update it after every
+ * change to a member of its group (its primary, aliases and deprecated keys). The constant of a <code>FrozenConfiguration</code> never changes. If the <code>ConfigKey</code> has no value (required with no value or null),
+ * the call site targets a handle that reads the configuration, so the usual exception is thrown.
+ * 
+ * @param <T> the type of the <code>ConfigKey</code>
+ */
+public final class ConfigConstant<T> {
+	
+	private static final MethodHandle GET;
+	
+	static {
+		try {
+			GET = MethodHandles.publicLookup().findVirtual(Configuration.class, "get", MethodType.methodType(Object.class, ConfigKey.class));
+		} catch(ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	private static final Object UNRESOLVED = new Object(); // no value, reading it throws
+	private static final Object NOT_SET = new Object();
+	
+	private final Configuration config;
+	private final ConfigKey<T> configKey;
+	private final Class<?> type; // primitive for primitive wrappers
+	private final MutableCallSite callSite;
+	private final MethodHandle invoker;
+	private final MethodHandle objectInvoker;
+	private Object value = NOT_SET; // guarded by this
+	
+	ConfigConstant(Configuration config, ConfigKey<T> configKey) {
+		this.config = config;
+		this.configKey = configKey;
+		this.type = MethodType.methodType(configKey.getType()).unwrap().returnType();
+		this.callSite = new MutableCallSite(MethodType.methodType(type));
+		this.invoker = callSite.dynamicInvoker();
+		this.objectInvoker = invoker.asType(MethodType.methodType(Object.class));
+		refresh();
+	}
+	
+	static <T> ConfigConstant<T> of(ConfigKey<T> configKey, Configuration config) {
+		if (!config.allConfigKeys().contains(configKey)) {
+			throw new IllegalStateException("ConfigKey does not belong to holder class!" +
+											" configKey=" + configKey);
+		}
+		if (config instanceof InternalConfiguration) return ((InternalConfiguration) config).constant(configKey);
+		throw new IllegalArgumentException("Configuration does not support constants: " + config.getClass().getName());
+	}
+	
+	/*
+	 * Re-reads the value from the configuration and re-targets the call site if it changed. It is synchronized and always reads the
+	 * latest value, so concurrent refreshes can never leave an older value behind.
+	 */
+	synchronized void refresh() {
+		Object newValue = InternalReads.getOrElse(config, configKey, UNRESOLVED); // a refresh is not a read of a deprecated key
+		if (value != NOT_SET && Objects.equals(value, newValue)) return; // no need to deoptimize
+		value = newValue;
+		MethodHandle target;
+		if (newValue == UNRESOLVED || (newValue == null && type.isPrimitive())) {
+			target = MethodHandles.insertArguments(GET, 0, config, configKey).asType(MethodType.methodType(type));
+		} else {
+			target = MethodHandles.constant(type, newValue);
+		}
+		callSite.setTarget(target);
+		MutableCallSite.syncAll(new MutableCallSite[] { callSite });
+	}
+	
+	/**
+	 * Returns the <code>ConfigKey</code> of this constant.
+	 * 
+	 * @return the <code>ConfigKey</code>
+	 */
+	public ConfigKey<T> getConfigKey() {
+		return configKey;
+	}
+	
+	/**
+	 * Returns the handle to the current value, with no arguments and returning the primitive type for the primitive wrappers (for example
+	 * <code>()boolean</code> for a Boolean <code>ConfigKey</code>) or the type of the <code>ConfigKey</code> for Strings and Enums.
+	 * Keep it in a <code>static final</code> field and call it with <code>invokeExact</code> so the JIT can treat the value as a constant.
+	 * 
+	 * @return the handle to the current value
+	 */
+	public MethodHandle handle() {
+		return invoker;
+	}
+	
+	private static RuntimeException rethrow(Throwable t) {
+		if (t instanceof RuntimeException) return (RuntimeException) t;
+		if (t instanceof Error) throw (Error) t;
+		return new RuntimeException(t);
+	}
+	
+	/**
+	 * Returns the current value.
+	 * 
+	 * @return the current value
+	 */
+	@SuppressWarnings("unchecked")
+	public T get() {
+		try {
+			return (T) (Object) objectInvoker.invokeExact();
+		} catch(Throwable t) {
+			throw rethrow(t);
+		}
+	}
+	
+	/**
+	 * Returns the current value of a Boolean <code>ConfigKey</code>, without boxing.
+	 * 
+	 * @return the current value
+	 */
+	public boolean getBoolean() {
+		try {
+			return (boolean) invoker.invokeExact();
+		} catch(Throwable t) {
+			throw rethrow(t);
+		}
+	}
+	
+	/**
+	 * Returns the current value of a Character <code>ConfigKey</code>, without boxing.
+	 * 
+	 * @return the current value
+	 */
+	public char getChar() {
+		try {
+			return (char) invoker.invokeExact();
+		} catch(Throwable t) {
+			throw rethrow(t);
+		}
+	}
+	
+	/**
+	 * Returns the current value of a Byte <code>ConfigKey</code>, without boxing.
+	 * 
+	 * @return the current value
+	 */
+	public byte getByte() {
+		try {
+			return (byte) invoker.invokeExact();
+		} catch(Throwable t) {
+			throw rethrow(t);
+		}
+	}
+	
+	/**
+	 * Returns the current value of a Short <code>ConfigKey</code>, without boxing.
+	 * 
+	 * @return the current value
+	 */
+	public short getShort() {
+		try {
+			return (short) invoker.invokeExact();
+		} catch(Throwable t) {
+			throw rethrow(t);
+		}
+	}
+	
+	/**
+	 * Returns the current value of an Integer <code>ConfigKey</code>, without boxing.
+	 * 
+	 * @return the current value
+	 */
+	public int getInt() {
+		try {
+			return (int) invoker.invokeExact();
+		} catch(Throwable t) {
+			throw rethrow(t);
+		}
+	}
+	
+	/**
+	 * Returns the current value of a Long <code>ConfigKey</code>, without boxing.
+	 * 
+	 * @return the current value
+	 */
+	public long getLong() {
+		try {
+			return (long) invoker.invokeExact();
+		} catch(Throwable t) {
+			throw rethrow(t);
+		}
+	}
+	
+	/**
+	 * Returns the current value of a Float <code>ConfigKey</code>, without boxing.
+	 * 
+	 * @return the current value
+	 */
+	public float getFloat() {
+		try {
+			return (float) invoker.invokeExact();
+		} catch(Throwable t) {
+			throw rethrow(t);
+		}
+	}
+	
+	/**
+	 * Returns the current value of a Double <code>ConfigKey</code>, without boxing.
+	 * 
+	 * @return the current value
+	 */
+	public double getDouble() {
+		try {
+			return (double) invoker.invokeExact();
+		} catch(Throwable t) {
+			throw rethrow(t);
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "ConfigConstant[" + configKey + "]";
+	}
+}
@@ -0,0 +1,61 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The <code>ConfigConstant</code>s of a mutable configuration, one per <code>ConfigKey</code>, refreshed by the configuration after its changes.
+ */
+final class ConfigConstants {
+	
+	private final Configuration config;
+	private final ConcurrentHashMap<ConfigKey<?>, ConfigConstant<?>> constants = new ConcurrentHashMap<ConfigKey<?>, ConfigConstant<?>>();
+	
+	ConfigConstants(Configuration config) {
+		this.config = config;
+	}
+	
+	boolean isEmpty() {
+		return constants.isEmpty();
+	}
+	
+	@SuppressWarnings("unchecked")
+	<T> ConfigConstant<T> of(ConfigKey<T> configKey) {
+		return (ConfigConstant<T>) constants.computeIfAbsent(configKey, k -> new ConfigConstant<T>(config, configKey));
+	}
+	
+	/**
+	 * Refreshes the constants of the group of the given <code>ConfigKey</code> (its primary, aliases and deprecated keys), the only ones
+	 * whose values can change when it is written. Refreshes all of them when the given <code>ConfigKey</code> is null.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> that was changed or null if many config keys may have changed
+	 */
+	void refresh(ConfigKey<?> configKey) {
+		if (constants.isEmpty()) return;
+		if (configKey == null) {
+			for(ConfigConstant<?> constant : constants.values()) constant.refresh();
+			return;
+		}
+		ConfigContainer container = configKey.container;
+		ConfigKey<?> primary = configKey.getPrimary() != null ? configKey.getPrimary() : configKey;
+		int[] members = primary.lookup; // only the scanned members, not the intermediate keys of the fluent API
+		for(int i = 0; i < members.length; i++) {
+			ConfigConstant<?> constant = constants.get(container.get(members[i]));
+			if (constant != null) constant.refresh();
+		}
+	}
+}
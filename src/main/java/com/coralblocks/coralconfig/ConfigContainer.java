@@ -20,27 +20,50 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.coralblocks.coralconfig.ConfigKey.Kind;
 
 final class ConfigContainer {
 
-    private static final Map<Class<?>, ConfigContainer> ALL = new HashMap<>();
+    private static final Object LOCK = new Object();
+    private static int nextId = 0; // guarded by LOCK
+    
+    /*
+     * Lock-free after the first scan of a holder. The containers hang off their holder classes, so they do not keep them
+     * (and their class loaders) from being unloaded.
+     */
+    private static final ClassValue<ConfigContainer> ALL = new ClassValue<ConfigContainer>() {
+    	
+    	@Override
+    	protected ConfigContainer computeValue(Class<?> holder) {
+    		synchronized(LOCK) { // scanning stamps the config keys, so only one scan at a time
+    			// ClassValue can compute the same class twice in a race, so reuse the container that already stamped the keys
+    			ConfigContainer existing = findScanned(holder);
+    			return existing != null ? existing : new ConfigContainer(holder);
+    		}
+    	}
+    };
 
     private final Class<?> holder;
+    private final int id; // unique among all containers, used for the membership check of ConfigLayout
     private final Set<ConfigKey<?>> configKeys;
+    private final ConfigKey<?>[] configKeysByOrdinal;
     private final Map<String, ConfigKey<?>> configKeysByParamName;
+    private final Map<String, ConfigKey<?>> configKeysByLowerCaseName; // the first key of each name, ignoring case
     private final String toString;
+    private final Map<List<Class<?>>, ConfigLayout> layouts = new ConcurrentHashMap<List<Class<?>>, ConfigLayout>(); // layouts whose innermost holder is this one
 
     private ConfigContainer(Class<?> holder) {
     	
         this.holder = holder;
+        this.id = nextId++;
         
         List<ConfigKey<?>> collected = new ArrayList<>();
         
@@ -74,6 +97,7 @@ final class ConfigContainer {
         
         Map<String, ConfigKey<?>> map = new LinkedHashMap<String, ConfigKey<?>>();
         Set<ConfigKey<?>> set = new LinkedHashSet<ConfigKey<?>>();
+        List<ConfigKey<?>> ordered = new ArrayList<ConfigKey<?>>();
         
         for(ConfigKey<?> configKey : collected) {
         	
@@ -84,18 +108,118 @@ final class ConfigContainer {
                 throw new IllegalStateException("Duplicate config key name: " + paramName + " in holder " + this.holder.getName());
             }
             
-            set.add(configKey);
+            if (set.add(configKey)) {
+            	configKey.ordinal = ordered.size(); // stable index of this key inside its holder
+            	configKey.containerId = id;
+            	ordered.add(configKey);
+            }
         }
         
         if (set.isEmpty()) throw new IllegalStateException("No config keys found in holder " + this.holder.getName());
         
         this.configKeys = Collections.synchronizedSet(Collections.unmodifiableSet(set));
         this.configKeysByParamName = Collections.synchronizedMap(Collections.unmodifiableMap(map));
+        this.configKeysByOrdinal = ordered.toArray(new ConfigKey<?>[ordered.size()]);
+        
+        Map<String, ConfigKey<?>> lowerCase = new HashMap<String, ConfigKey<?>>();
+        for(ConfigKey<?> configKey : ordered) {
+        	lowerCase.putIfAbsent(toLowerCase(configKey.getParamName()), configKey);
+        }
+        this.configKeysByLowerCaseName = Collections.unmodifiableMap(lowerCase);
         
         this.toString = "ConfigContainer[" + holder.getName() + ", size=" + configKeys.size() + "]";
         
         enforcePrimarySameHolder(configKeys);
         adjustLists(configKeys);
+        resolveGroups();
+        resolveDefaults();
+        
+        for(ConfigKey<?> configKey : configKeysByOrdinal) configKey.container = this; // only once the scan has succeeded
+    }
+    
+    private boolean isMember(ConfigKey<?> configKey) {
+    	int ordinal = configKey.ordinal;
+    	return ordinal >= 0 && ordinal < configKeysByOrdinal.length && configKeysByOrdinal[ordinal] == configKey;
+    }
+    
+    /*
+     * A primary key resolves through itself, then its aliases and then its deprecated keys (in declaration order).
+     * An alias or deprecated key resolves through itself, then its primary and then the rest of the group.
+     * Only keys that belong to this holder take part, the intermediate keys created by the fluent API do not.
+     */
+    private void resolveGroups() {
+    	
+    	for(ConfigKey<?> configKey : configKeysByOrdinal) {
+    		if (configKey.getKind() != Kind.PRIMARY) continue;
+    		List<Integer> group = new ArrayList<Integer>();
+    		group.add(configKey.ordinal);
+    		for(ConfigKey<?> ck : configKey.getAliases()) {
+    			if (isMember(ck)) group.add(ck.ordinal);
+    		}
+    		for(ConfigKey<?> ck : configKey.getDeprecated()) {
+    			if (isMember(ck)) group.add(ck.ordinal);
+    		}
+    		configKey.lookup = toArray(group);
+    	}
+    	
+    	for(ConfigKey<?> configKey : configKeysByOrdinal) {
+    		if (configKey.getKind() == Kind.PRIMARY) continue;
+    		List<Integer> lookup = new ArrayList<Integer>();
+    		lookup.add(configKey.ordinal);
+    		for(int ordinal : configKey.getPrimary().lookup) {
+    			if (ordinal != configKey.ordinal) lookup.add(ordinal);
+    		}
+    		configKey.lookup = toArray(lookup);
+    	}
+    }
+    
+    /*
+     * A key with its own default returns it. Otherwise an alias or deprecated key falls back to the default of its primary,
+     * and a primary falls back to the default of its aliases and deprecated keys, as long as they all agree on a single value.
+     */
+    private void resolveDefaults() {
+    	
+    	for(ConfigKey<?> configKey : configKeysByOrdinal) {
+    		
+    		if (!configKey.isRequired()) {
+    			configKey.willReturnDefault = true;
+    			configKey.effectiveDefault = configKey.getDefaultValue();
+    			configKey.numberOfDefaults = 1;
+    			
+    		} else if (configKey.getKind() != Kind.PRIMARY) {
+    			ConfigKey<?> primaryKey = configKey.getPrimary();
+    			if (!primaryKey.isRequired()) {
+    				configKey.willReturnDefault = true;
+    				configKey.effectiveDefault = MapConfiguration.coerceNumber(primaryKey.getDefaultValue(), configKey.getType());
+    				configKey.numberOfDefaults = 1;
+    			}
+    			
+    		} else { // PRIMARY KEY
+    			
+    			Set<Object> collect = new LinkedHashSet<Object>();
+    			
+    			for(ConfigKey<?> ck : configKey.getAliases()) {
+    				if (!ck.isRequired()) collect.add(ck.getDefaultValue());
+    			}
+    			
+    			for(ConfigKey<?> ck : configKey.getDeprecated()) {
+    				if (!ck.isRequired()) collect.add(ck.getDefaultValue());
+    			}
+    			
+    			configKey.numberOfDefaults = collect.size();
+    			
+    			if (collect.size() == 1) {
+    				configKey.willReturnDefault = true;
+    				configKey.effectiveDefault = MapConfiguration.coerceNumber(collect.iterator().next(), configKey.getType());
+    			}
+    		}
+    	}
+    }
+    
+    private static int[] toArray(List<Integer> list) {
+    	int[] array = new int[list.size()];
+    	for(int i = 0; i < array.length; i++) array[i] = list.get(i);
+    	return array;
     }
     
     private static void adjustLists(Set<ConfigKey<?>> configKeys) {
@@ -117,40 +241,52 @@ final class ConfigContainer {
     	}
     }
 
-    public synchronized static ConfigContainer of(Class<?> holder) {
-    	ConfigContainer configContainer = ALL.get(holder);
-    	if (configContainer == null) {
-    		configContainer = new ConfigContainer(holder);
-    		ALL.put(holder, configContainer);
+    public static ConfigContainer of(Class<?> holder) {
+    	return ALL.get(holder);
+    }
+    
+    private static ConfigContainer findScanned(Class<?> holder) {
+    	for(Field f : holder.getDeclaredFields()) {
+    		if (!Modifier.isStatic(f.getModifiers()) || !ConfigKey.class.isAssignableFrom(f.getType())) continue;
+    		try {
+    			if (!f.canAccess(null)) f.setAccessible(true);
+    			ConfigKey<?> configKey = (ConfigKey<?>) f.get(null);
+    			if (configKey != null && configKey.container != null && configKey.container.holder == holder) return configKey.container;
+    		} catch (IllegalAccessException e) {
+    			throw new RuntimeException("Cannot access field: " + f, e);
+    		}
     	}
-    	return configContainer;
+    	return null;
     }
     
+    /*
+     * A single pass over all the keys with one hash map, so it is linear in the total number of keys.
+     * Keys differing only by case are allowed inside the same container, but not across containers.
+     */
     public static void enforceNoDuplicates(ConfigContainer ... configContainers) {
     	if (configContainers.length <= 1) {
     		throw new IllegalArgumentException("configContainers must be an array of 2 or more elements! length=" + configContainers.length);
     	}
-	    for(int i = 0; i < configContainers.length; i++) {
-	        for(int j = i + 1; j < configContainers.length; j++) {
-	        	ConfigContainer cc1 = configContainers[i];
-	        	ConfigContainer cc2 = configContainers[j];
-	        	enforceNoDuplicates(cc1, cc2);
-	        }
-    	}
-    }
-    
-    static void enforceNoDuplicates(ConfigContainer cc1, ConfigContainer cc2) {
-    	Iterator<ConfigKey<?>> iter = cc1.configKeys.iterator();
-    	while(iter.hasNext()) {
-    		ConfigKey<?> configKey = iter.next();
-    		ConfigKey<?> duplicate = cc2.getIgnoreCase(configKey.getParamName());
-    		if (duplicate != null) {
-    			throw new IllegalStateException("Found two keys with the same name! " +
-    									"configKey1=" + configKey + " configKey2=" + duplicate);
+    	Map<String, ConfigKey<?>> seen = new HashMap<String, ConfigKey<?>>();
+    	for(ConfigContainer cc : configContainers) {
+    		for(Map.Entry<String, ConfigKey<?>> entry : cc.configKeysByLowerCaseName.entrySet()) {
+    			ConfigKey<?> configKey = seen.putIfAbsent(entry.getKey(), entry.getValue());
+    			if (configKey != null) {
+    				throw new IllegalStateException("Found two keys with the same name! " +
+    									"configKey1=" + configKey + " configKey2=" + entry.getValue());
+    			}
     		}
     	}
     }
 
+    int getId() {
+    	return id;
+    }
+    
+    Map<List<Class<?>>, ConfigLayout> layouts() {
+    	return layouts;
+    }
+    
     public int size() {
     	return configKeys.size();
     }
@@ -159,19 +295,20 @@ final class ConfigContainer {
     	return configKeys.contains(configKey);
     }
 
+    public ConfigKey<?> get(int ordinal) {
+    	return configKeysByOrdinal[ordinal];
+    }
+
     public ConfigKey<?> get(String paramName) {
         return configKeysByParamName.get(paramName);
     }
     
-    private ConfigKey<?> getIgnoreCase(String paramName) {
-    	Iterator<ConfigKey<?>> iter = configKeys.iterator();
-    	while(iter.hasNext()) {
-    		ConfigKey<?> configKey = iter.next();
-    		if (configKey.getParamName().equalsIgnoreCase(paramName)) {
-    			return configKey;
-    		}
-    	}
-    	return null;
+    ConfigKey<?> getIgnoreCase(String paramName) {
+    	return configKeysByLowerCaseName.get(toLowerCase(paramName));
+    }
+    
+    private static String toLowerCase(String paramName) {
+    	return paramName.toLowerCase(Locale.ROOT);
     }
     
     public Set<ConfigKey<?>> configKeys() {
@@ -0,0 +1,267 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Loads a <code>MapConfiguration</code> from a file of <code>key=value</code> lines, in a single pass over the memory-mapped file.
+ * <br/><br/>
+ * The format is a subset of the <code>java.util.Properties</code> format, read as ISO-8859-1 like <code>Properties.load(InputStream)</code>:
+ * <ul>
+ * <li>Lines starting with <code>#</code> or <code>!</code> are comments and blank lines are ignored.</li>
+ * <li>The key is separated from the value by <code>=</code>, <code>:</code> or whitespace. Whitespace around the separator and at the end of the value is ignored.</li>
+ * <li>A line ending with a backslash continues on the next line, without the leading whitespace of the next line.</li>
+ * <li>A backslash escapes the next char in a value (<code>\n</code>, <code>\t</code>, <code>\r</code> and <code>&#92;uXXXX</code> are also understood).</li>
+ * </ul>
+ * Names are resolved and primitive values are parsed straight from the mapped bytes. Keys that do not belong to the configuration
+ * do not stop the load: they are all collected and reported together at the end.
+ */
+public final class ConfigFileLoader {
+	
+	private final ConfigIngester ingester;
+	private final StringBuilder unescaped = new StringBuilder();
+	private CharSequence chars;
+	private int pos;
+	private int end;
+	private int line;
+	private int valueStart;
+	private int valueEnd;
+	
+	private ConfigFileLoader(MapConfiguration config) {
+		this.ingester = config.ingester();
+	}
+	
+	/**
+	 * Creates a new <code>MapConfiguration</code> for the given holders and loads the given file into it.
+	 * 
+	 * @param file the file to load
+	 * @param holders the holder classes from where to get the <code>ConfigKey</code>s
+	 * @return the new configuration
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalStateException with all the unknown keys if the file has keys that do not belong to the configuration
+	 */
+	public static MapConfiguration load(Path file, Class<?> ... holders) throws IOException {
+		MapConfiguration config = new MapConfiguration(holders);
+		List<String> unknownKeys = new ArrayList<String>();
+		load(file, config, unknownKeys);
+		if (!unknownKeys.isEmpty()) {
+			throw new IllegalStateException("Config keys in file do not belong to this configuration: " + unknownKeys + " file=" + file);
+		}
+		return config;
+	}
+	
+	/**
+	 * Loads the given file into the given configuration. Keys that do not belong to the configuration are added to the given collection.
+	 * 
+	 * @param file the file to load
+	 * @param config the configuration to load the file into
+	 * @param unknownKeys where to add the keys that do not belong to the configuration
+	 * @return the number of values loaded
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a value cannot be parsed (the message has the line number)
+	 */
+	public static int load(Path file, MapConfiguration config, Collection<String> unknownKeys) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) throw new IOException("File is too large to be mapped: " + file + " size=" + size);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return new ConfigFileLoader(config).load(new ByteSequence().wrap(buffer, 0, (int) size), unknownKeys);
+		}
+	}
+	
+	/**
+	 * Loads the given chars, in the same format as a file, into the given configuration.
+	 * 
+	 * @param chars the chars to load
+	 * @param config the configuration to load the chars into
+	 * @param unknownKeys where to add the keys that do not belong to the configuration
+	 * @return the number of values loaded
+	 * @throws IllegalArgumentException if a value cannot be parsed (the message has the line number)
+	 */
+	public static int load(CharSequence chars, MapConfiguration config, Collection<String> unknownKeys) {
+		return new ConfigFileLoader(config).load(chars, unknownKeys);
+	}
+	
+	private int load(CharSequence chars, Collection<String> unknownKeys) {
+		
+		this.chars = chars;
+		this.pos = 0;
+		this.end = chars.length();
+		this.line = 1;
+		
+		int count = 0;
+		
+		while(pos < end) {
+			
+			skipBlanks();
+			
+			if (pos == end) break;
+			
+			char c = chars.charAt(pos);
+			
+			if (c == '\n' || c == '\r') {
+				skipLineTerminator();
+				continue;
+			}
+			
+			if (c == '#' || c == '!') {
+				while(pos < end && chars.charAt(pos) != '\n' && chars.charAt(pos) != '\r') pos++;
+				continue;
+			}
+			
+			int keyLine = line;
+			int keyStart = pos;
+			while(pos < end) {
+				c = chars.charAt(pos);
+				if (c == '=' || c == ':' || isBlank(c) || c == '\n' || c == '\r') break;
+				pos++;
+			}
+			int keyEnd = pos;
+			
+			skipBlanks();
+			if (pos < end && (chars.charAt(pos) == '=' || chars.charAt(pos) == ':')) {
+				pos++;
+				skipBlanks();
+			}
+			
+			ConfigKey<?> configKey = ingester.keyOf(chars, keyStart, keyEnd);
+			
+			if (configKey == null) {
+				unknownKeys.add(chars.subSequence(keyStart, keyEnd).toString());
+				skipValue();
+				continue;
+			}
+			
+			CharSequence value = scanValue();
+			
+			try {
+				ingester.apply(configKey, value, valueStart, valueEnd);
+			} catch(RuntimeException e) {
+				throw new IllegalArgumentException("Invalid value at line " + keyLine + ": " + configKey + "=" + value.subSequence(valueStart, valueEnd), e);
+			}
+			
+			count++;
+		}
+		
+		this.chars = null;
+		
+		return count;
+	}
+	
+	// the value is either a range of the chars or, if it has escapes or continuation lines, the whole buffer
+	private CharSequence scanValue() {
+		int start = pos;
+		int lastNonBlank = pos;
+		while(pos < end) {
+			char c = chars.charAt(pos);
+			if (c == '\n' || c == '\r') break;
+			if (c == '\\') return unescape(start);
+			pos++;
+			if (!isBlank(c)) lastNonBlank = pos;
+		}
+		valueStart = start;
+		valueEnd = lastNonBlank;
+		return chars;
+	}
+	
+	// the slow path, only taken by values with escapes or continuation lines
+	private CharSequence unescape(int start) {
+		StringBuilder sb = unescaped;
+		sb.setLength(0);
+		sb.append(chars, start, pos);
+		int lastNonBlank = sb.length();
+		while(pos < end) {
+			char c = chars.charAt(pos);
+			if (c == '\n' || c == '\r') break;
+			pos++;
+			if (c == '\\') {
+				if (pos == end) break; // a backslash at the very end is dropped
+				c = chars.charAt(pos);
+				if (c == '\n' || c == '\r') { // continuation line
+					skipLineTerminator();
+					skipBlanks();
+					continue;
+				}
+				pos++;
+				switch(c) {
+					case 'n': c = '\n'; break;
+					case 't': c = '\t'; break;
+					case 'r': c = '\r'; break;
+					case 'u': c = unicode(); break;
+					default: break; // the char itself
+				}
+				sb.append(c);
+				lastNonBlank = sb.length(); // an escaped char is never trimmed
+				continue;
+			}
+			sb.append(c);
+			if (!isBlank(c)) lastNonBlank = sb.length();
+		}
+		valueStart = 0;
+		valueEnd = lastNonBlank;
+		return sb;
+	}
+	
+	private char unicode() {
+		if (end - pos < 4) throw new IllegalArgumentException("Malformed \\uXXXX escape at line " + line);
+		int value = 0;
+		for(int i = 0; i < 4; i++) {
+			int digit = Character.digit(chars.charAt(pos++), 16);
+			if (digit < 0) throw new IllegalArgumentException("Malformed \\uXXXX escape at line " + line);
+			value = (value << 4) | digit;
+		}
+		return (char) value;
+	}
+	
+	private void skipValue() {
+		while(pos < end) {
+			char c = chars.charAt(pos);
+			if (c == '\n' || c == '\r') break;
+			pos++;
+			if (c == '\\' && pos < end) {
+				c = chars.charAt(pos);
+				if (c == '\n' || c == '\r') {
+					skipLineTerminator();
+					skipBlanks();
+				} else {
+					pos++;
+				}
+			}
+		}
+	}
+	
+	private void skipLineTerminator() {
+		if (chars.charAt(pos) == '\r' && pos + 1 < end && chars.charAt(pos + 1) == '\n') pos++;
+		pos++;
+		line++;
+	}
+	
+	private void skipBlanks() {
+		while(pos < end && isBlank(chars.charAt(pos))) pos++;
+	}
+	
+	private static boolean isBlank(char c) {
+		return c == ' ' || c == '\t' || c == '\f';
+	}
+}
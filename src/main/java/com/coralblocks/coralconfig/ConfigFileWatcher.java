@@ -0,0 +1,262 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches config files and hot-reloads them into a running <code>ConcurrentConfiguration</code>.
+ * <br/><br/>
+ * Files ending with <code>.json</code> are read with <code>ConfigJsonReader</code> and any other file with <code>ConfigFileLoader</code>.
+ * Bursts of writes to the watched files are debounced, then only the files that changed are parsed again and the values of all files are
+ * published with <code>ConcurrentConfiguration.update</code>, so readers see either the old or the new values, never a mix. A steady stream
+ * of writes is still reloaded after ten debounce periods. When two files have the same key the file that comes later in the list wins.
+ * A key removed from a file is removed from the configuration.
+ * <br/><br/>
+ * The files must load when the watcher is created, otherwise the constructor throws. After that, a file that cannot be read or parsed keeps its
+ * previous values, the error goes to the error handler and the file is parsed again on its next change. A file that changes while it is parsed
+ * (still being written) is not applied either, and waits for its next change. Keys that do not belong to the configuration are reported
+ * to the error handler, and the rest of the file is still applied.
+ */
+public class ConfigFileWatcher implements Closeable {
+	
+	private final ConcurrentConfiguration config;
+	private final List<Path> files;
+	private static final int MAX_DEBOUNCES = 10; // the longest wait, in debounce periods, so a steady stream of writes cannot delay a reload forever
+	
+	private final long debounceMillis;
+	private final Map<Path, Map<ConfigKey<?>, Object>> valuesByFile = new HashMap<Path, Map<ConfigKey<?>, Object>>(); // guarded by this
+	private Set<ConfigKey<?>> published = new HashSet<ConfigKey<?>>(); // guarded by this
+	private final WatchService watchService;
+	private final Map<WatchKey, Path> directories = new HashMap<WatchKey, Path>();
+	private final Consumer<Exception> errorHandler;
+	private Thread thread;
+	
+	/**
+	 * Creates a new <code>ConfigFileWatcher</code> and loads the given files into the given configuration right away.
+	 * Call <code>start()</code> to start watching them.
+	 * 
+	 * @param config the configuration to load the files into
+	 * @param errorHandler where the errors of reloading files go, including keys that do not belong to the configuration
+	 * @param debounceMillis how long to wait for the writes to the files to settle before reloading them
+	 * @param files the files to watch, later files win over earlier ones
+	 * @throws IOException if the files cannot be watched or read
+	 * @throws IllegalArgumentException if a file cannot be parsed
+	 */
+	public ConfigFileWatcher(ConcurrentConfiguration config, Consumer<Exception> errorHandler, long debounceMillis, Path ... files) throws IOException {
+		if (files.length == 0) throw new IllegalArgumentException("Must pass a file!");
+		if (errorHandler == null) throw new NullPointerException("The error handler can never be null!");
+		this.config = config;
+		this.errorHandler = errorHandler;
+		this.debounceMillis = debounceMillis;
+		this.files = new ArrayList<Path>(files.length);
+		for(Path file : files) this.files.add(file.toAbsolutePath().normalize());
+		this.watchService = FileSystems.getDefault().newWatchService();
+		try {
+			Set<Path> registered = new HashSet<Path>();
+			for(Path file : this.files) {
+				Path directory = file.getParent();
+				if (registered.add(directory)) {
+					WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+					directories.put(key, directory);
+				}
+			}
+			load();
+		} catch(IOException | RuntimeException e) {
+			watchService.close();
+			throw e;
+		}
+	}
+	
+	// the first load, which throws instead of keeping the previous values
+	private synchronized void load() throws IOException {
+		for(Path file : files) {
+			Map<ConfigKey<?>, Object> values = parse(file);
+			if (values == null) throw new IOException("Config file changed while it was loaded: " + file);
+			valuesByFile.put(file, values);
+		}
+		publish();
+	}
+	
+	/**
+	 * Starts watching the files in a daemon thread.
+	 */
+	public synchronized void start() {
+		if (thread != null) throw new IllegalStateException("Already started!");
+		thread = new Thread(this::watch, "ConfigFileWatcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
+	/**
+	 * Stops watching the files.
+	 */
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+	}
+	
+	/**
+	 * Parses all the files again and publishes their values, whether they changed or not.
+	 */
+	public void reload() {
+		reload(new LinkedHashSet<Path>(files));
+	}
+	
+	private void watch() {
+		try {
+			long debounce = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+			while(true) {
+				Set<Path> changed = new LinkedHashSet<Path>();
+				if (!collect(watchService.take(), changed)) continue; // another file of the directory
+				// debounce: keep collecting until the watched files are quiet for a while, but not longer than MAX_DEBOUNCES periods
+				long now = System.nanoTime();
+				long quiet = now + debounce;
+				long deadline = now + debounce * MAX_DEBOUNCES;
+				long wait;
+				while((wait = Math.min(quiet, deadline) - System.nanoTime()) > 0) {
+					WatchKey key = watchService.poll(wait, TimeUnit.NANOSECONDS);
+					if (key == null) break;
+					if (collect(key, changed)) quiet = System.nanoTime() + debounce;
+				}
+				if (!changed.isEmpty()) {
+					try {
+						reload(changed);
+					} catch(Throwable t) { // nothing can stop the watch
+						report(new IllegalStateException("Cannot reload config files: " + changed, t));
+					}
+				}
+			}
+		} catch(ClosedWatchServiceException | InterruptedException e) {
+			// closed, we are done
+		}
+	}
+	
+	private void report(Exception e) {
+		try {
+			errorHandler.accept(e);
+		} catch(Throwable t) { // a failing handler must not stop the watch either
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+		}
+	}
+	
+	// returns true if a watched file changed or events were lost
+	private boolean collect(WatchKey key, Set<Path> changed) {
+		Path directory = directories.get(key);
+		boolean watched = false;
+		for(WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				changed.addAll(files); // events were lost
+				watched = true;
+				continue;
+			}
+			Path file = directory.resolve((Path) event.context());
+			if (files.contains(file)) {
+				changed.add(file);
+				watched = true;
+			}
+		}
+		key.reset();
+		return watched;
+	}
+	
+	private synchronized void reload(Set<Path> changed) {
+		
+		for(Path file : changed) {
+			try {
+				Map<ConfigKey<?>, Object> values = parse(file);
+				if (values != null) valuesByFile.put(file, values); // else still being written, wait for its next change
+			} catch(Throwable t) { // a file truncated while mapped can even throw an InternalError
+				report(new IllegalStateException("Cannot reload config file: " + file, t)); // keeps the previous values
+			}
+		}
+		
+		try {
+			publish();
+		} catch(RuntimeException e) {
+			report(e); // nothing was changed
+		}
+	}
+	
+	private void publish() {
+		
+		final Map<ConfigKey<?>, Object> merged = new LinkedHashMap<ConfigKey<?>, Object>();
+		for(Path file : files) { // later files win
+			Map<ConfigKey<?>, Object> values = valuesByFile.get(file);
+			if (values != null) merged.putAll(values);
+		}
+		
+		final Set<ConfigKey<?>> removed = new HashSet<ConfigKey<?>>(published);
+		removed.removeAll(merged.keySet());
+		
+		config.update(master -> {
+			for(ConfigKey<?> configKey : removed) master.remove(configKey);
+			for(Map.Entry<ConfigKey<?>, Object> entry : merged.entrySet()) addCaptured(master, entry.getKey(), entry.getValue());
+		});
+		published = merged.keySet();
+	}
+	
+	// for generics to work, we need a new method to capture the T from the ConfigKey
+	private static <T> void addCaptured(MapConfiguration config, ConfigKey<T> configKey, Object value) {
+		config.add(configKey, configKey.getType().cast(value));
+	}
+	
+	// for generics to work, we need a new method to capture the T from the ConfigKey
+	private static <T> void putCaptured(Map<ConfigKey<?>, Object> values, MapConfiguration config, ConfigKey<T> configKey) {
+		values.put(configKey, config.get(configKey));
+	}
+	
+	// returns null when the file changed while it was parsed, so its values could be from a partial write
+	private Map<ConfigKey<?>, Object> parse(Path file) throws IOException {
+		BasicFileAttributes before = Files.readAttributes(file, BasicFileAttributes.class);
+		MapConfiguration scratch = new MapConfiguration(config.getHolders());
+		List<String> unknownKeys = new ArrayList<String>();
+		if (file.getFileName().toString().endsWith(".json")) {
+			ConfigJsonReader.read(file, scratch, unknownKeys);
+		} else {
+			ConfigFileLoader.load(file, scratch, unknownKeys);
+		}
+		BasicFileAttributes after = Files.readAttributes(file, BasicFileAttributes.class);
+		if (before.size() != after.size() || !before.lastModifiedTime().equals(after.lastModifiedTime())) return null;
+		if (!unknownKeys.isEmpty()) {
+			report(new IllegalStateException("Config keys in file do not belong to this configuration: " + unknownKeys + " file=" + file));
+		}
+		Map<ConfigKey<?>, Object> values = new LinkedHashMap<ConfigKey<?>, Object>();
+		for(ConfigKey<?> configKey : scratch.keys()) putCaptured(values, scratch, configKey);
+		return values;
+	}
+}
@@ -0,0 +1,104 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Applies <code>key=value</code> pairs to a <code>MapConfiguration</code> straight from a <code>CharSequence</code> or a <code>ByteBuffer</code>,
+ * with the same syntax as the params of the <code>MapConfiguration</code> constructor.
+ * <br/><br/>
+ * Names are resolved and numbers, booleans, chars and enums are parsed in place, without creating <code>String</code>s, so updates to primitive
+ * <code>ConfigKey</code>s produce no garbage. String values of course still create a <code>String</code>.
+ * <br/><br/>
+ * An instance is not thread-safe, so create one per thread with <code>MapConfiguration.ingester()</code> and reuse it.
+ * If a pair is invalid an exception is thrown and the pairs before it remain applied.
+ */
+public final class ConfigIngester {
+	
+	private final MapConfiguration config;
+	private final ConfigLayout layout;
+	private final ParamsScanner scanner;
+	private final ValueParser parser = new ValueParser();
+	private final ByteSequence bytes = new ByteSequence();
+	
+	ConfigIngester(MapConfiguration config, ConfigLayout layout) {
+		this.config = config;
+		this.layout = layout;
+		this.scanner = new ParamsScanner(layout);
+	}
+	
+	/**
+	 * Applies all the pairs in the given chars.
+	 * 
+	 * @param chars the chars holding the pairs, for example <code>"myInteger1=2 myString=blah"</code>
+	 * @return the number of pairs applied
+	 */
+	public int ingest(CharSequence chars) {
+		return ingest(chars, 0, chars.length());
+	}
+	
+	/**
+	 * Applies all the pairs in the given range of chars.
+	 * 
+	 * @param chars the chars holding the pairs
+	 * @param start the index of the first char (inclusive)
+	 * @param end the index of the last char (exclusive)
+	 * @return the number of pairs applied
+	 */
+	public int ingest(CharSequence chars, int start, int end) {
+		scanner.reset(chars, start, end);
+		int count = 0;
+		while(scanner.next()) {
+			apply(scanner.configKey(), scanner.valueChars(), scanner.valueStart(), scanner.valueEnd());
+			count++;
+		}
+		return count;
+	}
+	
+	/**
+	 * Applies all the pairs in the given buffer, from its position to its limit, one byte per char (ASCII / ISO-8859-1).
+	 * The position of the buffer is not changed.
+	 * 
+	 * @param buffer the buffer holding the pairs
+	 * @return the number of pairs applied
+	 */
+	public int ingest(ByteBuffer buffer) {
+		ByteSequence chars = bytes.wrap(buffer, buffer.position(), buffer.remaining());
+		try {
+			return ingest(chars, 0, chars.length());
+		} finally {
+			bytes.wrap(null, 0, 0); // do not hold on to the buffer
+		}
+	}
+	
+	// the config key with the given name in this configuration or null
+	ConfigKey<?> keyOf(CharSequence chars, int start, int end) {
+		return layout.getByName(chars, start, end);
+	}
+	
+	void apply(ConfigKey<?> configKey, CharSequence chars, int start, int end) {
+		int slot = layout.slotOf(configKey);
+		byte type = layout.typeAt(slot);
+		if (type != ConfigValues.REFERENCE) {
+			config.addBits(configKey, slot, parser.parseBits(type, chars, start, end));
+		} else if (configKey.getType() == String.class) {
+			config.addReference(configKey, slot, chars.subSequence(start, end).toString());
+		} else {
+			config.addReference(configKey, slot, configKey.enumLookup.parse(chars, start, end));
+		}
+	}
+}
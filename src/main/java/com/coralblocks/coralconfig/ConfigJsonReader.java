@@ -0,0 +1,408 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads a JSON object into a <code>MapConfiguration</code> in a single streaming pass, with no third-party dependencies and no DOM.
+ * <br/><br/>
+ * Each member of the object is a <code>ConfigKey</code> by param name. Members can also be grouped in nested objects named after the simple
+ * name of their holder class, for example <code>{ "Client": { "heartbeatInterval": 5 }, "maxRetries": 3 }</code>.
+ * JSON numbers, booleans and strings are parsed straight into the type of the <code>ConfigKey</code>, without intermediate
+ * <code>String</code> or <code>Double</code> objects for primitive keys. The JSON type must match the type of the <code>ConfigKey</code>:
+ * a number for numeric keys, <code>true</code> or <code>false</code> for boolean keys and a string for char, String and Enum keys.
+ * A <code>null</code> value leaves the key unset.
+ * Keys that do not belong to the configuration are skipped, collected and reported together at the end.
+ */
+public final class ConfigJsonReader {
+	
+	private final ConfigIngester ingester;
+	private final Class<?>[] holders;
+	private final StringBuilder keyBuffer = new StringBuilder();
+	private final StringBuilder valueBuffer = new StringBuilder();
+	private final boolean utf8; // the chars are raw UTF-8 bytes
+	private CharSequence chars;
+	private int pos;
+	private int end;
+	private int start; // of the last string or literal scanned
+	private int stop; // of the last string or literal scanned
+	
+	private ConfigJsonReader(MapConfiguration config, boolean utf8) {
+		this.ingester = config.ingester();
+		this.holders = config.getHolders();
+		this.utf8 = utf8;
+	}
+	
+	/**
+	 * Creates a new <code>MapConfiguration</code> for the given holders and reads the given JSON into it.
+	 * 
+	 * @param json the JSON object
+	 * @param holders the holder classes from where to get the <code>ConfigKey</code>s
+	 * @return the new configuration
+	 * @throws IllegalArgumentException if the JSON is malformed or a value cannot be parsed
+	 * @throws IllegalStateException with all the unknown keys if the JSON has keys that do not belong to the configuration
+	 */
+	public static MapConfiguration read(CharSequence json, Class<?> ... holders) {
+		MapConfiguration config = new MapConfiguration(holders);
+		List<String> unknownKeys = new ArrayList<String>();
+		read(json, config, unknownKeys);
+		enforceNoUnknownKeys(unknownKeys);
+		return config;
+	}
+	
+	/**
+	 * Creates a new <code>MapConfiguration</code> for the given holders and reads the given UTF-8 JSON file into it.
+	 * 
+	 * @param file the JSON file
+	 * @param holders the holder classes from where to get the <code>ConfigKey</code>s
+	 * @return the new configuration
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the JSON is malformed or a value cannot be parsed
+	 * @throws IllegalStateException with all the unknown keys if the JSON has keys that do not belong to the configuration
+	 */
+	public static MapConfiguration read(Path file, Class<?> ... holders) throws IOException {
+		MapConfiguration config = new MapConfiguration(holders);
+		List<String> unknownKeys = new ArrayList<String>();
+		read(file, config, unknownKeys);
+		enforceNoUnknownKeys(unknownKeys);
+		return config;
+	}
+	
+	/**
+	 * Reads the given JSON into the given configuration. Keys that do not belong to the configuration are added to the given collection.
+	 * 
+	 * @param json the JSON object
+	 * @param config the configuration to read the JSON into
+	 * @param unknownKeys where to add the keys that do not belong to the configuration
+	 * @return the number of values read
+	 * @throws IllegalArgumentException if the JSON is malformed or a value cannot be parsed
+	 */
+	public static int read(CharSequence json, MapConfiguration config, Collection<String> unknownKeys) {
+		return new ConfigJsonReader(config, false).read(json, unknownKeys);
+	}
+	
+	/**
+	 * Reads the given UTF-8 JSON file, memory-mapped, into the given configuration. Keys that do not belong to the configuration are added to the given collection.
+	 * 
+	 * @param file the JSON file
+	 * @param config the configuration to read the JSON into
+	 * @param unknownKeys where to add the keys that do not belong to the configuration
+	 * @return the number of values read
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the JSON is malformed or a value cannot be parsed
+	 */
+	public static int read(Path file, MapConfiguration config, Collection<String> unknownKeys) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) throw new IOException("File is too large to be mapped: " + file + " size=" + size);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			return new ConfigJsonReader(config, true).read(new ByteSequence().wrap(buffer, 0, (int) size), unknownKeys);
+		}
+	}
+	
+	private static void enforceNoUnknownKeys(List<String> unknownKeys) {
+		if (!unknownKeys.isEmpty()) {
+			throw new IllegalStateException("Config keys in JSON do not belong to this configuration: " + unknownKeys);
+		}
+	}
+	
+	private int read(CharSequence json, Collection<String> unknownKeys) {
+		this.chars = json;
+		this.pos = 0;
+		this.end = json.length();
+		try {
+			skipWhitespace();
+			if (utf8 && pos + 3 <= end && chars.charAt(pos) == 0xEF && chars.charAt(pos + 1) == 0xBB && chars.charAt(pos + 2) == 0xBF) pos += 3; // BOM
+			int count = readObject(null, unknownKeys);
+			skipWhitespace();
+			if (pos != end) throw invalid("Unexpected content after the JSON object");
+			return count;
+		} finally {
+			this.chars = null;
+		}
+	}
+	
+	private int readObject(Class<?> holder, Collection<String> unknownKeys) {
+		
+		expect('{');
+		skipWhitespace();
+		
+		int count = 0;
+		
+		if (peek() == '}') {
+			pos++;
+			return count;
+		}
+		
+		while(true) {
+			
+			CharSequence key = readString(keyBuffer);
+			int keyStart = start, keyEnd = stop;
+			
+			skipWhitespace();
+			expect(':');
+			skipWhitespace();
+			
+			char c = peek();
+			
+			if (c == '{') {
+				Class<?> nested = holder == null ? holderOf(key, keyStart, keyEnd) : null;
+				if (nested != null) {
+					count += readObject(nested, unknownKeys);
+				} else {
+					unknownKeys.add(name(holder, key, keyStart, keyEnd));
+					skipValue();
+				}
+			} else {
+				
+				ConfigKey<?> configKey = ingester.keyOf(key, keyStart, keyEnd);
+				
+				if (configKey == null || (holder != null && configKey.holder != holder)) {
+					unknownKeys.add(name(holder, key, keyStart, keyEnd));
+					skipValue();
+				} else if (c == '[') {
+					throw invalid("Arrays are not supported: " + configKey);
+				} else {
+					int valueStart = pos;
+					CharSequence value = c == '"' ? readString(valueBuffer) : readLiteral();
+					boolean isString = c == '"';
+					if (isString || !isLiteral(value, "null")) {
+						enforceJsonType(configKey, value, isString, valueStart);
+						try {
+							ingester.apply(configKey, value, start, stop);
+						} catch(RuntimeException e) {
+							throw new IllegalArgumentException("Invalid value at position " + valueStart + ": " + configKey + "=" + value.subSequence(start, stop), e);
+						}
+						count++;
+					}
+				}
+			}
+			
+			skipWhitespace();
+			c = next();
+			if (c == '}') return count;
+			if (c != ',') throw invalid("Expected ',' or '}'");
+			skipWhitespace();
+		}
+	}
+	
+	private void enforceJsonType(ConfigKey<?> configKey, CharSequence value, boolean isString, int valueStart) {
+		String expected;
+		switch(ConfigValues.typeOf(configKey.getType())) {
+			case ConfigValues.BOOLEAN:
+				if (!isString && (isLiteral(value, "true") || isLiteral(value, "false"))) return;
+				expected = "true or false";
+				break;
+			case ConfigValues.CHAR:
+			case ConfigValues.REFERENCE:
+				if (isString) return;
+				expected = "a string";
+				break;
+			default:
+				if (!isString && (value.charAt(start) == '-' || Character.isDigit(value.charAt(start)))) return;
+				expected = "a number";
+				break;
+		}
+		String found = isString ? "a string" : value.subSequence(start, stop).toString();
+		throw new IllegalArgumentException("Invalid JSON at position " + valueStart + ": Expected " + expected + " for " + configKey + " but found " + found);
+	}
+	
+	// whether the last literal scanned is the given one
+	private boolean isLiteral(CharSequence value, String literal) {
+		if (stop - start != literal.length()) return false;
+		for(int i = 0; i < literal.length(); i++) {
+			if (value.charAt(start + i) != literal.charAt(i)) return false;
+		}
+		return true;
+	}
+	
+	private Class<?> holderOf(CharSequence key, int keyStart, int keyEnd) {
+		for(Class<?> holder : holders) {
+			String name = holder.getSimpleName();
+			if (name.length() != keyEnd - keyStart) continue;
+			int i = 0;
+			while(i < name.length() && name.charAt(i) == key.charAt(keyStart + i)) i++;
+			if (i == name.length()) return holder;
+		}
+		return null;
+	}
+	
+	private static String name(Class<?> holder, CharSequence key, int keyStart, int keyEnd) {
+		String name = key.subSequence(keyStart, keyEnd).toString();
+		return holder == null ? name : holder.getSimpleName() + "." + name;
+	}
+	
+	// a number, true, false or null, as a range of the chars
+	private CharSequence readLiteral() {
+		int begin = pos;
+		while(pos < end) {
+			char c = chars.charAt(pos);
+			if (c == ',' || c == '}' || c == ']' || isWhitespace(c)) break;
+			pos++;
+		}
+		if (begin == pos) throw invalid("Expected a value");
+		start = begin;
+		stop = pos;
+		return chars;
+	}
+	
+	// a string, as a range of the chars or, if it has escapes or non-ASCII UTF-8 bytes, as the given buffer
+	private CharSequence readString(StringBuilder buffer) {
+		expect('"');
+		int begin = pos;
+		while(pos < end) {
+			char c = chars.charAt(pos);
+			if (c == '"') {
+				start = begin;
+				stop = pos++;
+				return chars;
+			}
+			if (c == '\\' || (utf8 && c >= 0x80)) return readEscapedString(begin, buffer);
+			pos++;
+		}
+		throw invalid("Unterminated string");
+	}
+	
+	// the slow path
+	private CharSequence readEscapedString(int begin, StringBuilder sb) {
+		sb.setLength(0);
+		sb.append(chars, begin, pos);
+		while(pos < end) {
+			char c = chars.charAt(pos++);
+			if (c == '"') {
+				start = 0;
+				stop = sb.length();
+				return sb;
+			}
+			if (c == '\\') {
+				if (pos == end) break;
+				c = chars.charAt(pos++);
+				switch(c) {
+					case '"': case '\\': case '/': break;
+					case 'b': c = '\b'; break;
+					case 'f': c = '\f'; break;
+					case 'n': c = '\n'; break;
+					case 'r': c = '\r'; break;
+					case 't': c = '\t'; break;
+					case 'u': c = unicode(); break;
+					default: throw invalid("Invalid escape: \\" + c);
+				}
+				sb.append(c);
+			} else if (utf8 && c >= 0x80) {
+				appendUtf8(sb, c);
+			} else {
+				sb.append(c);
+			}
+		}
+		throw invalid("Unterminated string");
+	}
+	
+	private char unicode() {
+		if (end - pos < 4) throw invalid("Malformed \\uXXXX escape");
+		int value = 0;
+		for(int i = 0; i < 4; i++) {
+			int digit = Character.digit(chars.charAt(pos++), 16);
+			if (digit < 0) throw invalid("Malformed \\uXXXX escape");
+			value = (value << 4) | digit;
+		}
+		return (char) value;
+	}
+	
+	// decodes the rest of a multi-byte UTF-8 sequence starting with the given byte
+	private void appendUtf8(StringBuilder sb, char first) {
+		int extra, codePoint;
+		if ((first & 0xE0) == 0xC0) {
+			extra = 1; codePoint = first & 0x1F;
+		} else if ((first & 0xF0) == 0xE0) {
+			extra = 2; codePoint = first & 0x0F;
+		} else if ((first & 0xF8) == 0xF0) {
+			extra = 3; codePoint = first & 0x07;
+		} else {
+			throw invalid("Malformed UTF-8");
+		}
+		if (end - pos < extra) throw invalid("Malformed UTF-8");
+		for(int i = 0; i < extra; i++) {
+			char c = chars.charAt(pos++);
+			if ((c & 0xC0) != 0x80) throw invalid("Malformed UTF-8");
+			codePoint = (codePoint << 6) | (c & 0x3F);
+		}
+		sb.appendCodePoint(codePoint);
+	}
+	
+	private void skipValue() {
+		char c = peek();
+		if (c == '"') {
+			readString(valueBuffer);
+		} else if (c == '{' || c == '[') {
+			char open = c;
+			int depth = 0;
+			while(pos < end) {
+				c = chars.charAt(pos);
+				if (c == '"') {
+					readString(valueBuffer);
+					continue;
+				}
+				pos++;
+				if (c == '{' || c == '[') {
+					depth++;
+				} else if (c == '}' || c == ']') {
+					if (--depth == 0) return;
+				}
+			}
+			throw invalid("Unterminated " + (open == '{' ? "object" : "array"));
+		} else {
+			readLiteral();
+		}
+	}
+	
+	private char peek() {
+		if (pos == end) throw invalid("Unexpected end of JSON");
+		return chars.charAt(pos);
+	}
+	
+	private char next() {
+		char c = peek();
+		pos++;
+		return c;
+	}
+	
+	private void expect(char expected) {
+		if (next() != expected) {
+			pos--;
+			throw invalid("Expected '" + expected + "'");
+		}
+	}
+	
+	private void skipWhitespace() {
+		while(pos < end && isWhitespace(chars.charAt(pos))) pos++;
+	}
+	
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+	}
+	
+	private IllegalArgumentException invalid(String message) {
+		return new IllegalArgumentException("Invalid JSON at position " + pos + ": " + message);
+	}
+}
@@ -31,20 +31,35 @@ public final class ConfigKey<T> {
 	
 	private String paramName;
 	private final Class<T> type;
+	final EnumLookup<?> enumLookup; // only for enums, built once per enum type
 	private final Kind kind;
 	private final ConfigKey<?> primary;
 	List<ConfigKey<?>> aliases = new ArrayList<ConfigKey<?>>();
 	List<ConfigKey<?>> deprecated = new ArrayList<ConfigKey<?>>();
 	private String fieldName;
 	Class<?> holder;
+	int ordinal = -1; // assigned by ConfigContainer when it scans the holder
+	int containerId = -1; // id of the ConfigContainer that scanned the holder, assigned by ConfigContainer
+	ConfigContainer container; // the ConfigContainer that scanned the holder, assigned by ConfigContainer
+	int[] lookup; // ordinals of the group members in resolution order, assigned by ConfigContainer
+	boolean willReturnDefault; // assigned by ConfigContainer
+	Object effectiveDefault; // assigned by ConfigContainer, already coerced to the type of this key
+	int numberOfDefaults; // assigned by ConfigContainer, more than one means the default is ambiguous
 	private final T defaultValue;
 	private final boolean isRequired;
 	private String description;
 	
+    // only called for enum types, and the Class of an enum type E is always a Class<E> with E extends Enum<E>
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> EnumLookup<E> enumLookup(Class<?> type) {
+        return EnumLookup.of((Class<E>) type.asSubclass(Enum.class));
+    }
+    
 	private ConfigKey(Class<T> type, Kind kind, boolean isRequired, T defaultValue, ConfigKey<?> primary) {
 		enforceType(type);
 		enforceRelationship(type, kind, primary);
         this.type = type;
+        this.enumLookup = type.isEnum() ? enumLookup(type) : null;
         this.kind = kind;
         this.isRequired = isRequired;
         this.defaultValue = defaultValue;
@@ -111,7 +126,9 @@ public final class ConfigKey<T> {
 				" type=" + c.getName());
 	}
 	
+	@SuppressWarnings("unchecked")
 	T parseValue(String value) {
+		if (enumLookup != null && value != null) return (T) enumLookup.parse(value); // no toUpperCase, no exception on the way
 		return parseValue(type, value);
 	}
 	
@@ -520,6 +537,17 @@ public final class ConfigKey<T> {
         return sb.toString();
     }
     
+    /**
+     * Returns a <code>ConfigConstant</code> with the value of this <code>ConfigKey</code> in the given configuration, which follows the changes
+     * made to the configuration. Mutable configurations return the same <code>ConfigConstant</code> for the same <code>ConfigKey</code>.
+     * 
+     * @param config the configuration with the value
+     * @return the <code>ConfigConstant</code> for this <code>ConfigKey</code> in the given configuration
+     */
+    public ConfigConstant<T> asConstant(Configuration config) {
+    	return ConfigConstant.of(this, config);
+    }
+    
     /**
      * Returns all the aliases (in the right order) that this primary key has.
      * 
@@ -0,0 +1,232 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The combined layout of the <code>ConfigContainer</code>s of a configuration. Each <code>ConfigKey</code> of the configuration
+ * is mapped to a dense slot (from zero to <code>size() - 1</code>) which is the offset of its container plus its ordinal inside the container.
+ */
+final class ConfigLayout {
+
+	private final Class<?>[] holders;
+	private final ConfigContainer[] configContainers;
+	private final int[] offsets;
+	private final int[] containerIds; // open addressing table (linear probing) of the container ids of this layout, -1 for free entries
+	private final int[] holderIndexesById; // index in getHolders() of the container at the same position of containerIds
+	private final ConfigKey<?>[] configKeysBySlot;
+	private final List<ConfigKey<?>> allConfigKeys;
+	private final NameIndex configKeysByName;
+	private final byte[] types; // see ConfigValues.typeOf
+	private final int[] indexes; // index inside the primitive or the reference arrays of ConfigValues
+	private final int primitiveCount;
+	private final int referenceCount;
+
+	/**
+	 * Returns the layout of the given holders, in the given order. A layout is computed (and validated) only once per ordered list of holders,
+	 * then cached in the container of the innermost holder, the one whose class loader has the class loaders of all the other holders as
+	 * ancestors. A layout references all its holders, so caching it anywhere else would keep a holder of a child class loader from being
+	 * unloaded. When there is no innermost holder (holders from sibling class loaders) the layout is not cached.
+	 *
+	 * @param holders the holder classes from where to get the <code>ConfigKey</code>s
+	 * @return the layout of the given holders
+	 */
+	static ConfigLayout of(Class<?> ... holders) {
+		if (holders == null || holders.length == 0) throw new IllegalArgumentException("Must pass a holder!");
+		Class<?> innermost = innermost(holders);
+		if (innermost == null) return new ConfigLayout(holders);
+		List<Class<?>> key = Arrays.asList(holders.clone());
+		Map<List<Class<?>>, ConfigLayout> layouts = ConfigContainer.of(innermost).layouts();
+		ConfigLayout layout = layouts.get(key);
+		if (layout == null) {
+			layout = new ConfigLayout(holders);
+			ConfigLayout existing = layouts.putIfAbsent(key, layout);
+			if (existing != null) layout = existing;
+		}
+		return layout;
+	}
+
+	private static Class<?> innermost(Class<?>[] holders) {
+		Class<?> innermost = holders[0];
+		for(int i = 1; i < holders.length; i++) {
+			if (isAncestor(holders[i].getClassLoader(), innermost.getClassLoader())) continue;
+			if (!isAncestor(innermost.getClassLoader(), holders[i].getClassLoader())) return null; // siblings
+			innermost = holders[i];
+		}
+		return innermost;
+	}
+
+	// whether the first class loader is the second one or one of its parents (null is the bootstrap class loader)
+	private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+		if (ancestor == null) return true;
+		for(ClassLoader cl = loader; cl != null; cl = cl.getParent()) {
+			if (cl == ancestor) return true;
+		}
+		return false;
+	}
+
+	ConfigLayout(Class<?> ... holders) {
+
+		if (holders == null || holders.length == 0) throw new IllegalArgumentException("Must pass a holder!");
+
+		this.holders = holders.clone();
+
+		this.configContainers = new ConfigContainer[holders.length];
+		for(int i = 0; i < holders.length; i++) {
+			this.configContainers[i] = ConfigContainer.of(holders[i]);
+		}
+
+		if (configContainers.length > 1) ConfigContainer.enforceNoDuplicates(configContainers); // important!
+
+		this.offsets = new int[configContainers.length];
+		int size = 0;
+		for(int i = 0; i < configContainers.length; i++) {
+			offsets[i] = size;
+			size += configContainers[i].size();
+		}
+
+		// sized by the number of holders of this layout, not by the ids, which keep growing with every container ever created
+		int capacity = Integer.highestOneBit(configContainers.length) << 2; // load factor at most 0.5
+		this.containerIds = new int[capacity];
+		this.holderIndexesById = new int[capacity];
+		Arrays.fill(containerIds, -1);
+		for(int i = 0; i < configContainers.length; i++) {
+			int index = configContainers[i].getId() & (capacity - 1);
+			while(containerIds[index] != -1) index = (index + 1) & (capacity - 1);
+			containerIds[index] = configContainers[i].getId();
+			holderIndexesById[index] = i;
+		}
+
+		this.configKeysBySlot = new ConfigKey<?>[size];
+		List<ConfigKey<?>> list = new ArrayList<ConfigKey<?>>(size);
+		for(int i = 0; i < configContainers.length; i++) {
+			ConfigContainer cc = configContainers[i];
+			for(int ordinal = 0; ordinal < cc.size(); ordinal++) {
+				ConfigKey<?> configKey = cc.get(ordinal);
+				configKeysBySlot[offsets[i] + ordinal] = configKey;
+				list.add(configKey);
+			}
+		}
+		this.allConfigKeys = Collections.unmodifiableList(list);
+		this.configKeysByName = new NameIndex(list);
+		
+		this.types = new byte[size];
+		this.indexes = new int[size];
+		int primitives = 0, references = 0;
+		for(int slot = 0; slot < size; slot++) {
+			byte type = ConfigValues.typeOf(configKeysBySlot[slot].getType());
+			types[slot] = type;
+			indexes[slot] = type == ConfigValues.REFERENCE ? references++ : primitives++;
+		}
+		this.primitiveCount = primitives;
+		this.referenceCount = references;
+	}
+
+	int size() {
+		return configKeysBySlot.length;
+	}
+
+	int holderCount() {
+		return holders.length;
+	}
+
+	Class<?>[] getHolders() {
+		return holders.clone(); // layouts are shared
+	}
+
+	List<ConfigKey<?>> allConfigKeys() {
+		return allConfigKeys;
+	}
+
+	ConfigKey<?> keyAt(int slot) {
+		return configKeysBySlot[slot];
+	}
+
+	byte typeAt(int slot) {
+		return types[slot];
+	}
+
+	int indexAt(int slot) {
+		return indexes[slot];
+	}
+
+	int primitiveCount() {
+		return primitiveCount;
+	}
+
+	int referenceCount() {
+		return referenceCount;
+	}
+
+	/**
+	 * Returns the slot of the given <code>ConfigKey</code> in this layout. This takes constant time, no matter how many holders the layout has.
+	 *
+	 * @param configKey the <code>ConfigKey</code> to look for
+	 * @return the slot or -1 if the <code>ConfigKey</code> does not belong to any of the holders of this layout
+	 */
+	int slotOf(ConfigKey<?> configKey) {
+		int holderIndex = holderIndexOf(configKey.containerId);
+		return holderIndex < 0 ? -1 : offsets[holderIndex] + configKey.ordinal;
+	}
+
+	private int holderIndexOf(int containerId) {
+		if (containerId < 0) return -1; // keys never scanned by a container have a negative id
+		int mask = containerIds.length - 1;
+		int index = containerId & mask; // ids are sequential, so they spread well
+		while(true) {
+			int id = containerIds[index];
+			if (id == containerId) return holderIndexesById[index];
+			if (id == -1) return -1;
+			index = (index + 1) & mask;
+		}
+	}
+
+	/**
+	 * Returns the index (in <code>getHolders()</code>) of the holder of the given slot.
+	 *
+	 * @param slot a slot of this layout
+	 * @return the index of its holder
+	 */
+	int holderIndexAt(int slot) {
+		return holderIndexOf(configKeysBySlot[slot].containerId);
+	}
+
+	/**
+	 * Returns the index of the given holder in <code>getHolders()</code>.
+	 *
+	 * @param holder the holder class to look for
+	 * @return the index or -1 if the holder is not part of this layout
+	 */
+	int indexOfHolder(Class<?> holder) {
+		for(int i = 0; i < holders.length; i++) {
+			if (holders[i] == holder) return i;
+		}
+		return -1;
+	}
+
+	ConfigKey<?> getByName(String name) {
+		return configKeysByName.get(name);
+	}
+
+	ConfigKey<?> getByName(CharSequence chars, int start, int end) {
+		return configKeysByName.get(chars, start, end);
+	}
+}
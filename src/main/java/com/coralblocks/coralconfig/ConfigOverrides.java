@@ -0,0 +1,106 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+/**
+ * An immutable set of values to apply on top of a <code>MapConfiguration</code> for the current thread only, through
+ * <code>MapConfiguration.withOverrides(ConfigOverrides)</code>. Build it once, for example in a <code>static final</code> field, and
+ * reuse it, so that opening a scope does not allocate:
+ * <pre>
+ * ConfigOverrides overrides = ConfigOverrides.of(TIMEOUT, 5).and(MAX_SIZE, 200L);
+ * 
+ * try (ConfigScope scope = config.withOverrides(overrides)) {
+ *     config.getInt(TIMEOUT); // 5 in this thread, unchanged in the others
+ * }
+ * </pre>
+ * An override is resolved like a value added with <code>MapConfiguration.add</code>, so an override of a primary key is also seen by its
+ * aliases and deprecated keys.
+ */
+public final class ConfigOverrides {
+	
+	final ConfigKey<?>[] keys;
+	final Object[] values;
+	
+	private ConfigOverrides(ConfigKey<?>[] keys, Object[] values) {
+		this.keys = keys;
+		this.values = values;
+	}
+	
+	/**
+	 * Creates a new <code>ConfigOverrides</code> with a single value.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> to override
+	 * @param value the value for the given <code>ConfigKey</code>
+	 * @return the new <code>ConfigOverrides</code>
+	 */
+	public static <T> ConfigOverrides of(ConfigKey<T> configKey, T value) {
+		return new ConfigOverrides(new ConfigKey<?>[0], new Object[0]).and(configKey, value);
+	}
+	
+	/**
+	 * Returns a new <code>ConfigOverrides</code> with the values of this one plus the given value, which replaces any value of this one for
+	 * the same <code>ConfigKey</code>.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> to override
+	 * @param value the value for the given <code>ConfigKey</code>
+	 * @return the new <code>ConfigOverrides</code>
+	 */
+	public <T> ConfigOverrides and(ConfigKey<T> configKey, T value) {
+		
+		if (configKey == null) {
+			throw new NullPointerException("The config key can never be null!");
+		}
+		
+		if (value == null) {
+			throw new RuntimeException("Null values are not allowed!" +
+									   " configKey=" + configKey);
+		}
+		
+		int index = indexOf(configKey);
+		
+		if (index >= 0) {
+			Object[] newValues = values.clone();
+			newValues[index] = value;
+			return new ConfigOverrides(keys, newValues);
+		}
+		
+		ConfigKey<?>[] newKeys = new ConfigKey<?>[keys.length + 1];
+		Object[] newValues = new Object[values.length + 1];
+		System.arraycopy(keys, 0, newKeys, 0, keys.length);
+		System.arraycopy(values, 0, newValues, 0, values.length);
+		newKeys[keys.length] = configKey;
+		newValues[values.length] = value;
+		return new ConfigOverrides(newKeys, newValues);
+	}
+	
+	int indexOf(ConfigKey<?> configKey) {
+		for(int i = 0; i < keys.length; i++) { // a handful of keys, a linear scan beats hashing
+			if (keys[i] == configKey) return i;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns the number of <code>ConfigKey</code>s overridden by this <code>ConfigOverrides</code>.
+	 * 
+	 * @return the number of overridden <code>ConfigKey</code>s
+	 */
+	public int size() {
+		return keys.length;
+	}
+}
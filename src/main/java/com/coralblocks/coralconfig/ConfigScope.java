@@ -0,0 +1,55 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+/**
+ * A scope opened by a thread on a <code>MapConfiguration</code> with <code>MapConfiguration.withOverrides(ConfigOverrides)</code>, whose
+ * overrides apply to the reads of that thread until it is closed. Scopes must be closed in the reverse order they were opened, by the thread
+ * that opened them, so use them in try-with-resources blocks. Closing a scope that is not the innermost one of its thread, closing it twice
+ * or closing it from another thread throws an <code>IllegalStateException</code>.
+ * <br/><br/>
+ * Inner overrides win over outer ones. Nothing is allocated after the scopes of a thread reach their deepest level, as a closed scope is
+ * reused by the next scope its thread opens at the same depth. So a scope must not be used after it is closed.
+ */
+public final class ConfigScope implements AutoCloseable {
+	
+	private final ConfigScopeStack stack;
+	private final int depth;
+	
+	ConfigScope(ConfigScopeStack stack, int depth) {
+		this.stack = stack;
+		this.depth = depth;
+	}
+	
+	/**
+	 * Returns the depth of this scope in its thread, 1 for the outermost one.
+	 * 
+	 * @return the depth of this scope
+	 */
+	public int depth() {
+		return depth;
+	}
+	
+	/**
+	 * Closes this scope, removing its overrides.
+	 * 
+	 * @throws IllegalStateException if this is not the innermost open scope of the current thread
+	 */
+	@Override
+	public void close() {
+		stack.pop(this);
+	}
+}
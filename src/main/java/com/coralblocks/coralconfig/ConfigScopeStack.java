@@ -0,0 +1,132 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The <code>ConfigScope</code>s that one thread has open on a <code>MapConfiguration</code>, innermost last. Only its owner thread pushes,
+ * pops and reads it, so it needs no locking.
+ * <br/><br/>
+ * While at least one scope is open, the stack is linked in the bucket of its owner (thread id modulo the number of buckets), so a read finds
+ * it by walking the few stacks of that bucket, without a <code>ThreadLocal</code> lookup. When the last scope is closed the stack is unlinked,
+ * so a thread without open scopes only reads an empty bucket, or the stacks of the other threads of its bucket that have scopes open right now.
+ */
+final class ConfigScopeStack {
+	
+	static final int BUCKETS = 64; // a power of two
+	
+	private final Thread owner;
+	private final ConfigLayout layout;
+	private final AtomicReferenceArray<ConfigScopeStack> buckets; // shared by all the stacks of a configuration, also its lock for linking
+	private final int bucket;
+	private volatile ConfigScopeStack next; // the next stack of the bucket, only written when holding the lock of the buckets
+	private ConfigOverrides[] overrides = new ConfigOverrides[4];
+	private ConfigScope[] scopes = new ConfigScope[4]; // one per depth, reused by the scopes opened later at the same depth
+	private int depth;
+	
+	ConfigScopeStack(ConfigLayout layout, AtomicReferenceArray<ConfigScopeStack> buckets) {
+		this.owner = Thread.currentThread();
+		this.layout = layout;
+		this.buckets = buckets;
+		this.bucket = bucketOf(owner);
+	}
+	
+	static int bucketOf(Thread thread) {
+		return (int) thread.getId() & (BUCKETS - 1);
+	}
+	
+	/**
+	 * Returns the stack of the given thread, if it has a scope open.
+	 * 
+	 * @param buckets the buckets of a configuration
+	 * @param thread the thread
+	 * @return the stack of the thread or null if it has no scope open
+	 */
+	static ConfigScopeStack of(AtomicReferenceArray<ConfigScopeStack> buckets, Thread thread) {
+		for(ConfigScopeStack stack = buckets.get(bucketOf(thread)); stack != null; stack = stack.next) {
+			if (stack.owner == thread) return stack;
+		}
+		return null;
+	}
+	
+	ConfigScope push(ConfigOverrides overrides) {
+		if (depth == this.overrides.length) {
+			this.overrides = Arrays.copyOf(this.overrides, depth * 2);
+			scopes = Arrays.copyOf(scopes, depth * 2);
+		}
+		ConfigScope scope = scopes[depth];
+		if (scope == null) scope = scopes[depth] = new ConfigScope(this, depth + 1);
+		this.overrides[depth++] = overrides;
+		if (depth == 1) link();
+		return scope;
+	}
+	
+	void pop(ConfigScope scope) {
+		if (Thread.currentThread() != owner) {
+			throw new IllegalStateException("A scope can only be closed by the thread that opened it!" +
+											" owner=" + owner.getName() + " thread=" + Thread.currentThread().getName());
+		}
+		if (scope.depth() != depth || scopes[depth - 1] != scope) {
+			throw new IllegalStateException(scope.depth() > depth ? "The scope is already closed!" :
+											"The scope is not the innermost one! depth=" + scope.depth() + " open=" + depth);
+		}
+		overrides[--depth] = null;
+		if (depth == 0) unlink();
+	}
+	
+	/*
+	 * Returns the overridden value for the given config key, in the type of the member of the group it was given for, or NONE if there is
+	 * none. The scopes are visited from the innermost to the outermost, so an inner override of any member of the group wins over an outer one.
+	 * Inside a scope, the members of the group are visited in resolution order, like ConfigValues does for added values.
+	 */
+	Object valueOf(ConfigKey<?> configKey, int slot) {
+		int group = slot - configKey.ordinal;
+		int[] lookup = configKey.lookup;
+		for(int j = depth - 1; j >= 0; j--) {
+			ConfigOverrides o = overrides[j];
+			for(int i = 0; i < lookup.length; i++) {
+				int index = o.indexOf(layout.keyAt(group + lookup[i]));
+				if (index >= 0) return o.values[index];
+			}
+		}
+		return ConfigValues.NONE;
+	}
+	
+	private void link() {
+		synchronized(buckets) {
+			next = buckets.get(bucket);
+			buckets.set(bucket, this);
+		}
+	}
+	
+	/*
+	 * The next field of this stack is left as it is, so a thread of the same bucket walking past this stack right now still reaches the rest
+	 * of the bucket, where its own stack is.
+	 */
+	private void unlink() {
+		synchronized(buckets) {
+			ConfigScopeStack stack = buckets.get(bucket);
+			if (stack == this) {
+				buckets.set(bucket, next);
+				return;
+			}
+			while(stack.next != this) stack = stack.next;
+			stack.next = next;
+		}
+	}
+}
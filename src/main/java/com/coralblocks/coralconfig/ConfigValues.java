@@ -0,0 +1,897 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The value store behind <code>MapConfiguration</code>, indexed by the slots of a <code>ConfigLayout</code>.
+ * <br/><br/>
+ * Numbers, booleans and chars are kept unboxed in <code>long</code> arrays (floating point values as the raw bits of a double).
+ * Strings and Enums are kept in <code>Object</code> arrays. The effective value of each primitive slot is also kept boxed, and the box is only
+ * replaced when the value changes, so <code>resolve</code> does not allocate. Bitsets mark which slots are present, so a present slot can also hold
+ * a null value (overwritten defaults can be null for Strings and Enums). All the arrays are chunked copy-on-write arrays
+ * (<code>CowLongs</code> and <code>CowObjects</code>), so a copy takes constant time and a write only copies the chunk it touches.
+ * <br/><br/>
+ * A primary <code>ConfigKey</code> and its aliases and deprecated keys form a group. Every write to a member of a group re-resolves the
+ * effective value of all the members of the group (configured value, then overwritten default, then default), already converted to the
+ * type of each member. So resolving a value through any member is a single lookup, with no coercion on the read path.
+ * <br/><br/>
+ * Writes take a write lock. Reads are optimistic and only fall back to a read lock when they race with a write.
+ * A frozen copy can never be written, so its reads do not touch the lock at all.
+ * <br/><br/>
+ * Every write that changes something bumps the epoch, and stamps the holder of the changed slot with the new epoch.
+ * <br/><br/>
+ * Qualified values (for example one value per instrument id) are kept per group, in a <code>QualifierMap</code> indexed by the slot of the primary,
+ * in the type of the primary. A qualified read takes the same optimistic path as a plain read, plus one probe in the map.
+ */
+final class ConfigValues {
+
+	/**
+	 * Returned by <code>put</code> and <code>remove</code> when the slot was not present.
+	 */
+	static final Object NONE = new Object();
+
+	static final byte REFERENCE = 0; // String and Enum
+	static final byte BOOLEAN = 1;
+	static final byte CHAR = 2;
+	static final byte BYTE = 3;
+	static final byte SHORT = 4;
+	static final byte INT = 5;
+	static final byte LONG = 6;
+	static final byte FLOAT = 7;
+	static final byte DOUBLE = 8;
+
+	private static final byte HAS_VALUE = 1; // a member of the group has a configured value
+	private static final byte AVAILABLE = 2; // the slot resolves to a value (configured, overwritten default or default)
+	private static final byte IS_NULL = 4; // the slot resolves to null
+
+	private final ConfigLayout layout;
+	private final Slots values;
+	private Slots overwrittenDefaults; // only created when the first default is overwritten
+	private final CowLongs effectivePrimitives;
+	private final CowObjects effectiveReferences;
+	private final CowObjects effectiveBoxed; // the effective primitives, boxed in the type of their config keys
+	private final CowLongs flags; // one byte of flags per slot
+	private final StampedLock lock = new StampedLock();
+	private final boolean frozen;
+	private volatile long epoch; // only written under the write lock
+	private final AtomicLongArray holderEpochs; // indexed like the holders of the layout
+	private QualifierMap[] qualified; // indexed by the slot of the primary of each group, null until the first qualified value
+	private boolean[] qualifiedOwned; // maps this instance can write in place, null when shared with a copy
+
+	ConfigValues(ConfigLayout layout) {
+		this.layout = layout;
+		this.values = new Slots(layout);
+		this.effectivePrimitives = new CowLongs(layout.primitiveCount());
+		this.effectiveReferences = new CowObjects(layout.referenceCount());
+		this.effectiveBoxed = new CowObjects(layout.primitiveCount());
+		this.flags = new CowLongs(layout.size());
+		this.frozen = false;
+		this.holderEpochs = new AtomicLongArray(layout.holderCount());
+		refreshAll();
+	}
+
+	/**
+	 * Creates a frozen copy of the given <code>ConfigValues</code>. See <code>ConfigValues(ConfigValues, boolean)</code>.
+	 *
+	 * @param source the <code>ConfigValues</code> to copy
+	 */
+	ConfigValues(ConfigValues source) {
+		this(source, true);
+	}
+
+	/**
+	 * Creates a copy of the given <code>ConfigValues</code> in constant time, sharing all the arrays (see <code>CowLongs</code>) until one of
+	 * the sides writes to them. The copy is taken under the write lock, because the source must also start to copy before writing.
+	 *
+	 * @param source the <code>ConfigValues</code> to copy
+	 * @param frozen true for a copy that can never be written
+	 */
+	ConfigValues(ConfigValues source, boolean frozen) {
+		this.layout = source.layout;
+		this.frozen = frozen;
+		long stamp = source.lock.writeLock();
+		try {
+			this.values = source.values.fork();
+			this.overwrittenDefaults = source.overwrittenDefaults != null ? source.overwrittenDefaults.fork() : null;
+			this.effectivePrimitives = source.effectivePrimitives.fork();
+			this.effectiveReferences = source.effectiveReferences.fork();
+			this.effectiveBoxed = source.effectiveBoxed.fork();
+			this.flags = source.flags.fork();
+			this.epoch = source.epoch;
+			this.holderEpochs = new AtomicLongArray(layout.holderCount());
+			for(int i = 0; i < layout.holderCount(); i++) holderEpochs.set(i, source.holderEpochs.get(i));
+			this.qualified = source.qualified; // copied on write, like the other arrays
+			source.qualifiedOwned = null;
+		} finally {
+			source.lock.unlockWrite(stamp);
+		}
+	}
+
+	private void enforceNotFrozen() {
+		if (frozen) throw new UnsupportedOperationException("These values are frozen and cannot be changed!");
+	}
+
+	static byte typeOf(Class<?> type) {
+		if (type == Boolean.class) return BOOLEAN;
+		if (type == Character.class) return CHAR;
+		if (type == Byte.class) return BYTE;
+		if (type == Short.class) return SHORT;
+		if (type == Integer.class) return INT;
+		if (type == Long.class) return LONG;
+		if (type == Float.class) return FLOAT;
+		if (type == Double.class) return DOUBLE;
+		return REFERENCE;
+	}
+
+	static long toBits(Object value, byte type) {
+		switch(type) {
+			case BOOLEAN: return ((Boolean) value).booleanValue() ? 1 : 0;
+			case CHAR: return ((Character) value).charValue();
+			case FLOAT:
+			case DOUBLE: return Double.doubleToRawLongBits(((Number) value).doubleValue());
+			default: return ((Number) value).longValue();
+		}
+	}
+
+	private static Object box(long bits, byte type) {
+		switch(type) {
+			case BOOLEAN: return Boolean.valueOf(bits != 0);
+			case CHAR: return Character.valueOf((char) bits);
+			case BYTE: return Byte.valueOf((byte) bits);
+			case SHORT: return Short.valueOf((short) bits);
+			case INT: return Integer.valueOf((int) bits);
+			case LONG: return Long.valueOf(bits);
+			case FLOAT: return Float.valueOf((float) Double.longBitsToDouble(bits));
+			case DOUBLE: return Double.valueOf(Double.longBitsToDouble(bits));
+			default: throw new IllegalStateException("Not a primitive type: " + type);
+		}
+	}
+
+	// Different types only happen for numbers, through deprecated keys
+	private static long convert(long bits, byte from, byte to) {
+		if (from == to) return bits;
+		if (from == FLOAT || from == DOUBLE) {
+			double d = Double.longBitsToDouble(bits);
+			switch(to) {
+				case BYTE: return (byte) d;
+				case SHORT: return (short) d;
+				case INT: return (int) d;
+				case LONG: return (long) d;
+				case FLOAT: return Double.doubleToRawLongBits((float) d);
+				default: return bits;
+			}
+		} else {
+			switch(to) {
+				case BYTE: return (byte) bits;
+				case SHORT: return (short) bits;
+				case INT: return (int) bits;
+				case FLOAT: return Double.doubleToRawLongBits((float) bits);
+				case DOUBLE: return Double.doubleToRawLongBits((double) bits);
+				default: return bits;
+			}
+		}
+	}
+
+	int size() {
+		return values.size;
+	}
+
+	long epoch() {
+		return epoch;
+	}
+
+	long epoch(int holderIndex) {
+		return holderEpochs.get(holderIndex);
+	}
+
+	/**
+	 * Makes the epochs continue from the epochs of the given configuration, which must have the same holders. This is used by copies,
+	 * so that a copy never looks older than its source. An <code>UNTRACKED_EPOCH</code> is skipped, keeping the epoch of the copy.
+	 *
+	 * @param config the configuration to continue from
+	 */
+	void continueEpochs(Configuration config) {
+		enforceNotFrozen();
+		long stamp = lock.writeLock();
+		try {
+			Class<?>[] holders = layout.getHolders();
+			for(int i = 0; i < holders.length; i++) {
+				long e = config.epoch(holders[i]);
+				if (e != Configuration.UNTRACKED_EPOCH) holderEpochs.set(i, e);
+			}
+			long e = config.epoch();
+			if (e != Configuration.UNTRACKED_EPOCH) epoch = e;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	private void bump(int slot) {
+		long e = epoch + 1;
+		holderEpochs.set(layout.holderIndexAt(slot), e);
+		epoch = e;
+	}
+
+	private void bumpAll() {
+		long e = epoch + 1;
+		for(int i = 0; i < holderEpochs.length(); i++) holderEpochs.set(i, e);
+		epoch = e;
+	}
+
+	/**
+	 * Returns whether any member of the group of the given slot has a configured value.
+	 *
+	 * @param slot the slot of the <code>ConfigKey</code>
+	 * @return true if the group has a configured value
+	 */
+	boolean hasValue(int slot) {
+		return (flags.get(slot) & HAS_VALUE) != 0;
+	}
+
+	Object put(int slot, Object value) {
+		enforceNotFrozen();
+		long stamp = lock.writeLock();
+		try {
+			Object prev = values.put(slot, value);
+			refreshGroup(slot);
+			bump(slot);
+			return prev;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Puts the value of a primitive slot as raw bits (see <code>resolveBits</code>), without boxing and without returning the previous value.
+	 *
+	 * @param slot the slot of a primitive <code>ConfigKey</code>
+	 * @param bits the raw bits of the value, in the type of the slot
+	 */
+	void putBits(int slot, long bits) {
+		enforceNotFrozen();
+		long stamp = lock.writeLock();
+		try {
+			values.putBits(slot, bits);
+			refreshGroup(slot);
+			bump(slot);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	Object remove(int slot) {
+		enforceNotFrozen();
+		long stamp = lock.writeLock();
+		try {
+			Object prev = values.remove(slot);
+			if (prev != NONE) {
+				refreshGroup(slot);
+				bump(slot);
+			}
+			return prev;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	boolean hasDefault(int slot) {
+		if (frozen) return overwrittenDefaults != null && overwrittenDefaults.has(slot);
+		long stamp = lock.readLock();
+		try {
+			return overwrittenDefaults != null && overwrittenDefaults.has(slot);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	Object getDefault(int slot) {
+		if (frozen) return overwrittenDefaults != null && overwrittenDefaults.has(slot) ? overwrittenDefaults.get(slot) : null;
+		long stamp = lock.readLock();
+		try {
+			if (overwrittenDefaults == null || !overwrittenDefaults.has(slot)) return null;
+			return overwrittenDefaults.get(slot);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Overwrites the default of the given slot.
+	 *
+	 * @param slot the slot of the <code>ConfigKey</code>
+	 * @param value the new default value, which can be null for Strings and Enums
+	 * @return true if the slot already had an overwritten default
+	 */
+	boolean putDefault(int slot, Object value) {
+		enforceNotFrozen();
+		long stamp = lock.writeLock();
+		try {
+			if (overwrittenDefaults == null) overwrittenDefaults = new Slots(layout);
+			Object prev = overwrittenDefaults.put(slot, value);
+			refreshGroup(slot);
+			bump(slot);
+			return prev != NONE;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	boolean removeDefault(int slot) {
+		enforceNotFrozen();
+		long stamp = lock.writeLock();
+		try {
+			if (overwrittenDefaults == null || overwrittenDefaults.remove(slot) == NONE) return false;
+			refreshGroup(slot);
+			bump(slot);
+			return true;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	void clearDefaults() {
+		enforceNotFrozen();
+		long stamp = lock.writeLock();
+		try {
+			if (overwrittenDefaults == null || overwrittenDefaults.size == 0) return;
+			overwrittenDefaults.clear();
+			refreshAll();
+			bumpAll();
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Returns the effective value of the given slot, boxed in the type of its <code>ConfigKey</code>. The box is cached, so this does not allocate.
+	 *
+	 * @param slot the slot of the <code>ConfigKey</code>
+	 * @return the effective value, which can be null
+	 * @throws RuntimeException if the <code>ConfigKey</code> is required and has no value
+	 */
+	Object resolve(int slot) {
+		Object value = resolveOrElse(slot, NONE);
+		if (value == NONE) throw notFound(slot);
+		return value;
+	}
+
+	/**
+	 * Returns the effective value of the given slot like <code>resolve</code>, or the given object when it has no value, without throwing.
+	 *
+	 * @param slot the slot of the <code>ConfigKey</code>
+	 * @param notFound what to return when the <code>ConfigKey</code> is required and has no value
+	 * @return the effective value, which can be null, or <code>notFound</code>
+	 */
+	Object resolveOrElse(int slot, Object notFound) {
+		byte type = layout.typeAt(slot);
+		int index = layout.indexAt(slot);
+		if (frozen) {
+			byte f = (byte) flags.get(slot);
+			if ((f & AVAILABLE) == 0) return notFound;
+			if ((f & IS_NULL) != 0) return null;
+			return type == REFERENCE ? effectiveReferences.get(index) : effectiveBoxed.get(index);
+		}
+		long stamp = lock.tryOptimisticRead();
+		byte f = (byte) flags.get(slot);
+		Object value = type == REFERENCE ? effectiveReferences.get(index) : effectiveBoxed.get(index);
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				f = (byte) flags.get(slot);
+				value = type == REFERENCE ? effectiveReferences.get(index) : effectiveBoxed.get(index);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		if ((f & AVAILABLE) == 0) return notFound;
+		if ((f & IS_NULL) != 0) return null;
+		return value;
+	}
+
+	/**
+	 * Returns the effective value of the given primitive slot as raw bits. Integral types, booleans and chars are returned as a long
+	 * and floating point types as the raw bits of a double.
+	 *
+	 * @param slot the slot of the <code>ConfigKey</code>
+	 * @return the raw bits of the effective value
+	 * @throws RuntimeException if the <code>ConfigKey</code> is required and has no value
+	 */
+	long resolveBits(int slot) {
+		int index = layout.indexAt(slot);
+		if (frozen) {
+			byte f = (byte) flags.get(slot);
+			if ((f & (AVAILABLE | IS_NULL)) != AVAILABLE) throw notFound(slot);
+			return effectivePrimitives.get(index);
+		}
+		long stamp = lock.tryOptimisticRead();
+		byte f = (byte) flags.get(slot);
+		long bits = effectivePrimitives.get(index);
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				f = (byte) flags.get(slot);
+				bits = effectivePrimitives.get(index);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		if ((f & (AVAILABLE | IS_NULL)) != AVAILABLE) throw notFound(slot);
+		return bits;
+	}
+
+	private int primarySlot(int slot) {
+		ConfigKey<?> configKey = layout.keyAt(slot);
+		ConfigKey<?> primary = configKey.getPrimary();
+		return primary == null ? slot : slot - configKey.ordinal + primary.ordinal; // all members of a group live in the same holder
+	}
+
+	private QualifierMap mapOf(int primarySlot) {
+		QualifierMap[] maps = qualified;
+		return maps != null ? maps[primarySlot] : null;
+	}
+
+	private QualifierMap writableMap(int primarySlot) {
+		if (qualified == null) {
+			qualified = new QualifierMap[layout.size()];
+			qualifiedOwned = new boolean[layout.size()];
+		} else if (qualifiedOwned == null) {
+			qualified = qualified.clone();
+			qualifiedOwned = new boolean[layout.size()];
+		}
+		QualifierMap map = qualified[primarySlot];
+		if (map == null) {
+			map = new QualifierMap(layout.typeAt(primarySlot) == REFERENCE);
+		} else if (!qualifiedOwned[primarySlot]) {
+			map = map.copy();
+		}
+		qualified[primarySlot] = map;
+		qualifiedOwned[primarySlot] = true;
+		return map;
+	}
+
+	// the qualified value at the given index, boxed in the type of the given slot
+	private Object qualifiedValue(QualifierMap map, int index, int primarySlot, int slot) {
+		byte type = layout.typeAt(slot);
+		if (type == REFERENCE) return map.refAt(index);
+		return box(convert(map.bitsAt(index), layout.typeAt(primarySlot), type), type);
+	}
+
+	/**
+	 * Puts a qualified value for the group of the given slot, converted to the type of the primary.
+	 *
+	 * @param slot the slot of the <code>ConfigKey</code>
+	 * @param qualifier the qualifier
+	 * @param value the value, in the type of the <code>ConfigKey</code>
+	 * @return the previous qualified value, in the type of the <code>ConfigKey</code>, or <code>NONE</code>
+	 */
+	Object putQualified(int slot, long qualifier, Object value) {
+		enforceNotFrozen();
+		long stamp = lock.writeLock();
+		try {
+			int primarySlot = primarySlot(slot);
+			QualifierMap map = writableMap(primarySlot);
+			int index = map.indexOf(qualifier);
+			Object prev = index >= 0 ? qualifiedValue(map, index, primarySlot, slot) : NONE;
+			byte type = layout.typeAt(slot);
+			if (type == REFERENCE) {
+				qualified[primarySlot] = map.put(qualifier, 0, value);
+			} else {
+				long bits = convert(toBits(value, type), type, layout.typeAt(primarySlot));
+				qualified[primarySlot] = map.put(qualifier, bits, null);
+			}
+			bump(slot);
+			return prev;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	Object removeQualified(int slot, long qualifier) {
+		enforceNotFrozen();
+		long stamp = lock.writeLock();
+		try {
+			int primarySlot = primarySlot(slot);
+			QualifierMap map = mapOf(primarySlot);
+			int index = map != null ? map.indexOf(qualifier) : -1;
+			if (index < 0) return NONE;
+			Object prev = qualifiedValue(map, index, primarySlot, slot);
+			writableMap(primarySlot).remove(qualifier);
+			bump(slot);
+			return prev;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Returns the qualified value of the given slot, or the effective value (see <code>resolve</code>) if there is none for the qualifier.
+	 *
+	 * @param slot the slot of the <code>ConfigKey</code>
+	 * @param qualifier the qualifier
+	 * @return the qualified or the effective value, boxed in the type of its <code>ConfigKey</code>
+	 */
+	Object resolve(int slot, long qualifier) {
+		byte type = layout.typeAt(slot);
+		int primarySlot = primarySlot(slot);
+		if (type != REFERENCE) {
+			if (!hasQualified(primarySlot, qualifier)) return resolve(slot); // the cached box, no allocation
+			return box(resolveBits(slot, qualifier), type);
+		}
+		if (frozen) {
+			QualifierMap map = mapOf(primarySlot);
+			int index = map != null ? map.indexOf(qualifier) : -1;
+			return index >= 0 ? map.refAt(index) : resolve(slot);
+		}
+		long stamp = lock.tryOptimisticRead();
+		QualifierMap map = mapOf(primarySlot);
+		int index = map != null ? map.indexOf(qualifier) : -1;
+		Object ref = index >= 0 ? map.refAt(index) : null;
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				map = mapOf(primarySlot);
+				index = map != null ? map.indexOf(qualifier) : -1;
+				ref = index >= 0 ? map.refAt(index) : null;
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return index >= 0 ? ref : resolve(slot);
+	}
+
+	/**
+	 * Returns true if the group of the given slot has a qualified value for the given qualifier.
+	 *
+	 * @param slot the slot of the <code>ConfigKey</code>
+	 * @param qualifier the qualifier
+	 * @return true if there is a qualified value for the qualifier
+	 */
+	boolean hasQualifiedValue(int slot, long qualifier) {
+		return hasQualified(primarySlot(slot), qualifier);
+	}
+
+	// whether the group has a value for the qualifier, probed under the same optimistic read as the values
+	private boolean hasQualified(int primarySlot, long qualifier) {
+		if (frozen) {
+			QualifierMap map = mapOf(primarySlot);
+			return map != null && map.indexOf(qualifier) >= 0;
+		}
+		long stamp = lock.tryOptimisticRead();
+		QualifierMap map = mapOf(primarySlot);
+		boolean found = map != null && map.indexOf(qualifier) >= 0;
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				map = mapOf(primarySlot);
+				found = map != null && map.indexOf(qualifier) >= 0;
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns the qualified value of the given primitive slot as raw bits, or the effective value (see <code>resolveBits</code>) if there
+	 * is none for the qualifier. Neither the qualifier nor the value is boxed.
+	 *
+	 * @param slot the slot of the <code>ConfigKey</code>
+	 * @param qualifier the qualifier
+	 * @return the raw bits of the qualified or the effective value
+	 */
+	long resolveBits(int slot, long qualifier) {
+		int primarySlot = primarySlot(slot);
+		if (frozen) {
+			QualifierMap map = mapOf(primarySlot);
+			int index = map != null ? map.indexOf(qualifier) : -1;
+			return index >= 0 ? convert(map.bitsAt(index), layout.typeAt(primarySlot), layout.typeAt(slot)) : resolveBits(slot);
+		}
+		long stamp = lock.tryOptimisticRead();
+		QualifierMap map = mapOf(primarySlot);
+		int index = map != null ? map.indexOf(qualifier) : -1;
+		long bits = index >= 0 ? map.bitsAt(index) : 0;
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				map = mapOf(primarySlot);
+				index = map != null ? map.indexOf(qualifier) : -1;
+				bits = index >= 0 ? map.bitsAt(index) : 0;
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return index >= 0 ? convert(bits, layout.typeAt(primarySlot), layout.typeAt(slot)) : resolveBits(slot);
+	}
+
+	private RuntimeException notFound(int slot) {
+		ConfigKey<?> configKey = layout.keyAt(slot);
+		if ((flags.get(slot) & IS_NULL) != 0) {
+			return new NullPointerException("The value is null!" +
+					" configKey=" + configKey);
+		}
+		if (configKey.numberOfDefaults > 1) {
+			return new RuntimeException("More than one default value found!" +
+					" configKey=" + configKey + " numberOfDefaults=" + configKey.numberOfDefaults);
+		}
+		return new RuntimeException("Expected config key not found!" +
+				" configKey=" + configKey);
+	}
+
+	void collectKeys(Set<ConfigKey<?>> set) {
+		if (frozen) {
+			values.collectKeys(set);
+			return;
+		}
+		long stamp = lock.readLock();
+		try {
+			values.collectKeys(set);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	void collectKeysWithDefault(Set<ConfigKey<?>> set) {
+		if (frozen) {
+			if (overwrittenDefaults != null) overwrittenDefaults.collectKeys(set);
+			return;
+		}
+		long stamp = lock.readLock();
+		try {
+			if (overwrittenDefaults != null) overwrittenDefaults.collectKeys(set);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Collects the <code>ConfigKey</code>s whose effective values, or qualified values, are different in the given frozen values, which must have
+	 * the same layout.
+	 *
+	 * @param previous the values to compare with
+	 * @param set where to add the changed <code>ConfigKey</code>s
+	 */
+	void collectChanges(ConfigValues previous, Set<ConfigKey<?>> set) {
+		if (!frozen || !previous.frozen) throw new IllegalStateException("Can only compare frozen values!");
+		for(int slot = 0; slot < flags.length(); slot++) collectChange(previous, slot, set);
+	}
+
+	/**
+	 * Like <code>collectChanges(ConfigValues, Set)</code> but only for the group of the given slot, the only one a write to it can change.
+	 *
+	 * @param previous the values to compare with
+	 * @param slot the slot of the <code>ConfigKey</code> that was written
+	 * @param set where to add the changed <code>ConfigKey</code>s
+	 */
+	void collectChanges(ConfigValues previous, int slot, Set<ConfigKey<?>> set) {
+		if (!frozen || !previous.frozen) throw new IllegalStateException("Can only compare frozen values!");
+		ConfigKey<?> configKey = layout.keyAt(slot);
+		ConfigKey<?> primary = configKey.getPrimary() != null ? configKey.getPrimary() : configKey;
+		int base = slot - configKey.ordinal; // all members of a group live in the same holder
+		int[] members = primary.lookup;
+		for(int i = 0; i < members.length; i++) collectChange(previous, base + members[i], set);
+	}
+
+	// a slot changed if its effective value or any of its qualified values changed
+	private void collectChange(ConfigValues previous, int slot, Set<ConfigKey<?>> set) {
+		int f = (int) flags.get(slot) & (AVAILABLE | IS_NULL); // where the value comes from does not matter
+		if (f != (previous.flags.get(slot) & (AVAILABLE | IS_NULL))) {
+			set.add(layout.keyAt(slot));
+			return;
+		}
+		if (f == AVAILABLE) {
+			int index = layout.indexAt(slot);
+			boolean same = layout.typeAt(slot) == REFERENCE ? 
+					effectiveReferences.get(index).equals(previous.effectiveReferences.get(index)) : effectivePrimitives.get(index) == previous.effectivePrimitives.get(index);
+			if (!same) {
+				set.add(layout.keyAt(slot));
+				return;
+			}
+		}
+		int primarySlot = primarySlot(slot);
+		if (!QualifierMap.same(mapOf(primarySlot), previous.mapOf(primarySlot))) set.add(layout.keyAt(slot));
+	}
+
+	private void refreshAll() {
+		for(int slot = 0; slot < flags.length(); slot++) refresh(slot);
+	}
+
+	private void refreshGroup(int slot) {
+		ConfigKey<?> configKey = layout.keyAt(slot);
+		ConfigKey<?> primary = configKey.getPrimary() != null ? configKey.getPrimary() : configKey;
+		int base = slot - configKey.ordinal; // all members of a group live in the same holder
+		int[] members = primary.lookup;
+		for(int i = 0; i < members.length; i++) {
+			refresh(base + members[i]);
+		}
+	}
+
+	private void refresh(int slot) {
+
+		ConfigKey<?> configKey = layout.keyAt(slot);
+		int base = slot - configKey.ordinal;
+		int[] lookup = configKey.lookup;
+
+		for(int i = 0; i < lookup.length; i++) {
+			int s = base + lookup[i];
+			if (values.has(s)) { // configured values are never null
+				setEffective(slot, values, s);
+				flags.set(slot, HAS_VALUE | AVAILABLE);
+				return;
+			}
+		}
+
+		if (!configKey.willReturnDefault) {
+			setEffectiveNull(slot);
+			flags.set(slot, 0);
+			return;
+		}
+
+		if (overwrittenDefaults != null) {
+			boolean hasNull = false;
+			for(int i = 0; i < lookup.length; i++) {
+				int s = base + lookup[i];
+				if (overwrittenDefaults.has(s)) {
+					if (!overwrittenDefaults.isNull(s)) {
+						setEffective(slot, overwrittenDefaults, s);
+						flags.set(slot, AVAILABLE);
+						return;
+					}
+					hasNull = true;
+				}
+			}
+			if (hasNull) { // Defaults can contain NULL !!!
+				setEffectiveNull(slot);
+				flags.set(slot, AVAILABLE | IS_NULL);
+				return;
+			}
+		}
+
+		Object defaultValue = configKey.effectiveDefault; // already coerced to the type of this config key
+		if (defaultValue == null) {
+			setEffectiveNull(slot);
+			flags.set(slot, AVAILABLE | IS_NULL);
+		} else {
+			byte type = layout.typeAt(slot);
+			if (type == REFERENCE) {
+				effectiveReferences.set(layout.indexAt(slot), defaultValue);
+			} else {
+				setEffectiveBits(slot, type, toBits(defaultValue, type));
+			}
+			flags.set(slot, AVAILABLE);
+		}
+	}
+
+	private void setEffective(int slot, Slots from, int fromSlot) {
+		byte type = layout.typeAt(slot);
+		if (type == REFERENCE) {
+			effectiveReferences.set(layout.indexAt(slot), from.references.get(layout.indexAt(fromSlot)));
+		} else {
+			long bits = from.primitives.get(layout.indexAt(fromSlot));
+			setEffectiveBits(slot, type, convert(bits, layout.typeAt(fromSlot), type));
+		}
+	}
+
+	// keeps the current box when the value did not change, so the same object is returned until it does
+	private void setEffectiveBits(int slot, byte type, long bits) {
+		int index = layout.indexAt(slot);
+		if (effectiveBoxed.get(index) == null || effectivePrimitives.get(index) != bits) {
+			effectiveBoxed.set(index, box(bits, type));
+			effectivePrimitives.set(index, bits);
+		}
+	}
+
+	private void setEffectiveNull(int slot) {
+		if (layout.typeAt(slot) == REFERENCE) effectiveReferences.set(layout.indexAt(slot), null);
+	}
+
+	/*
+	 * The raw values, as they were written, each one in the type of its own config key.
+	 */
+	private static final class Slots {
+
+		private final ConfigLayout layout;
+		private final CowLongs primitives;
+		private CowObjects references;
+		private CowLongs present; // bitset of the present slots
+		private int size;
+
+		Slots(ConfigLayout layout) {
+			this.layout = layout;
+			this.primitives = new CowLongs(layout.primitiveCount());
+			this.references = new CowObjects(layout.referenceCount());
+			this.present = new CowLongs((layout.size() + 63) >>> 6);
+		}
+
+		private Slots(Slots source) {
+			this.layout = source.layout;
+			this.primitives = source.primitives.fork();
+			this.references = source.references.fork();
+			this.present = source.present.fork();
+			this.size = source.size;
+		}
+
+		Slots fork() {
+			return new Slots(this);
+		}
+
+		boolean has(int slot) {
+			return (present.get(slot >>> 6) & (1L << slot)) != 0;
+		}
+
+		boolean isNull(int slot) {
+			return layout.typeAt(slot) == REFERENCE && references.get(layout.indexAt(slot)) == null;
+		}
+
+		Object get(int slot) {
+			byte type = layout.typeAt(slot);
+			int index = layout.indexAt(slot);
+			return type == REFERENCE ? references.get(index) : box(primitives.get(index), type);
+		}
+
+		Object put(int slot, Object value) {
+			Object prev = has(slot) ? get(slot) : NONE;
+			byte type = layout.typeAt(slot);
+			int index = layout.indexAt(slot);
+			if (type == REFERENCE) {
+				references.set(index, value);
+			} else {
+				primitives.set(index, toBits(value, type));
+			}
+			if (prev == NONE) {
+				present.set(slot >>> 6, present.get(slot >>> 6) | 1L << slot);
+				size++;
+			}
+			return prev;
+		}
+
+		void putBits(int slot, long bits) {
+			primitives.set(layout.indexAt(slot), bits);
+			if (!has(slot)) {
+				present.set(slot >>> 6, present.get(slot >>> 6) | 1L << slot);
+				size++;
+			}
+		}
+
+		Object remove(int slot) {
+			if (!has(slot)) return NONE;
+			Object prev = get(slot);
+			if (layout.typeAt(slot) == REFERENCE) references.set(layout.indexAt(slot), null);
+			present.set(slot >>> 6, present.get(slot >>> 6) & ~(1L << slot));
+			size--;
+			return prev;
+		}
+
+		void clear() {
+			references = new CowObjects(references.length());
+			present = new CowLongs(present.length());
+			size = 0;
+		}
+
+		void collectKeys(Set<ConfigKey<?>> set) {
+			for(int i = 0; i < present.length(); i++) {
+				long word = present.get(i);
+				while(word != 0) {
+					set.add(layout.keyAt((i << 6) + Long.numberOfTrailingZeros(word)));
+					word &= word - 1;
+				}
+			}
+		}
+	}
+}
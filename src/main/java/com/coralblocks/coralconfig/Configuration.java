@@ -23,6 +23,12 @@ import java.util.Set;
  */
 public interface Configuration {
 	
+	/**
+	 * The epoch returned by a configuration that does not track its changes. It means "unknown, always read again", so code that caches
+	 * values must not compare it with an epoch seen before. Real epochs are never negative.
+	 */
+	public static final long UNTRACKED_EPOCH = -1;
+	
 	/**
 	 * Adds a <code>DeprecatedListener</code> to receive callbacks.
 	 * 
@@ -52,6 +58,31 @@ public interface Configuration {
 	 */
 	public List<ConfigKey<?>> allConfigKeys();
 
+	/**
+	 * Returns the epoch of this configuration, which increases every time the configuration changes. Code that caches values can read
+	 * the epoch once and only read the values again when it is different from the epoch seen before.
+	 * <br/><br/>
+	 * The default implementation does not track changes, so it returns <code>UNTRACKED_EPOCH</code>.
+	 * 
+	 * @return the current epoch of this configuration
+	 */
+	default public long epoch() {
+		return UNTRACKED_EPOCH;
+	}
+	
+	/**
+	 * Returns the epoch of the given holder, which increases every time a <code>ConfigKey</code> of the given holder changes.
+	 * It is the value of the configuration epoch at the time of the last change to the holder.
+	 * <br/><br/>
+	 * The default implementation does not track changes, so it returns <code>UNTRACKED_EPOCH</code>, like <code>epoch()</code>.
+	 * 
+	 * @param holder one of the holder classes of this configuration
+	 * @return the current epoch of the given holder
+	 */
+	default public long epoch(Class<?> holder) {
+		return UNTRACKED_EPOCH;
+	}
+	
 	/**
 	 * Returns the number of configured values that this configuration has. It can be zero if nothing was added to this configuration.
 	 * 
@@ -71,6 +102,196 @@ public interface Configuration {
 	 */
 	public <T> T get(ConfigKey<T> configKey);
 	
+	/**
+	 * Gets the value configured in this configuration for the given Boolean <code>ConfigKey</code> as a primitive <code>boolean</code>.
+	 * It follows the same rules of <code>get(ConfigKey)</code>, but implementations should not box or allocate.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @return the value for the given <code>ConfigKey</code>
+	 */
+	default public boolean getBoolean(ConfigKey<Boolean> configKey) {
+		return get(configKey);
+	}
+	
+	/**
+	 * Gets the value configured in this configuration for the given Character <code>ConfigKey</code> as a primitive <code>char</code>.
+	 * It follows the same rules of <code>get(ConfigKey)</code>, but implementations should not box or allocate.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @return the value for the given <code>ConfigKey</code>
+	 */
+	default public char getChar(ConfigKey<Character> configKey) {
+		return get(configKey);
+	}
+	
+	/**
+	 * Gets the value configured in this configuration for the given Byte <code>ConfigKey</code> as a primitive <code>byte</code>.
+	 * It follows the same rules of <code>get(ConfigKey)</code>, but implementations should not box or allocate.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @return the value for the given <code>ConfigKey</code>
+	 */
+	default public byte getByte(ConfigKey<Byte> configKey) {
+		return get(configKey);
+	}
+	
+	/**
+	 * Gets the value configured in this configuration for the given Short <code>ConfigKey</code> as a primitive <code>short</code>.
+	 * It follows the same rules of <code>get(ConfigKey)</code>, but implementations should not box or allocate.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @return the value for the given <code>ConfigKey</code>
+	 */
+	default public short getShort(ConfigKey<Short> configKey) {
+		return get(configKey);
+	}
+	
+	/**
+	 * Gets the value configured in this configuration for the given Integer <code>ConfigKey</code> as a primitive <code>int</code>.
+	 * It follows the same rules of <code>get(ConfigKey)</code>, but implementations should not box or allocate.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @return the value for the given <code>ConfigKey</code>
+	 */
+	default public int getInt(ConfigKey<Integer> configKey) {
+		return get(configKey);
+	}
+	
+	/**
+	 * Gets the value configured in this configuration for the given Long <code>ConfigKey</code> as a primitive <code>long</code>.
+	 * It follows the same rules of <code>get(ConfigKey)</code>, but implementations should not box or allocate.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @return the value for the given <code>ConfigKey</code>
+	 */
+	default public long getLong(ConfigKey<Long> configKey) {
+		return get(configKey);
+	}
+	
+	/**
+	 * Gets the value configured in this configuration for the given Float <code>ConfigKey</code> as a primitive <code>float</code>.
+	 * It follows the same rules of <code>get(ConfigKey)</code>, but implementations should not box or allocate.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @return the value for the given <code>ConfigKey</code>
+	 */
+	default public float getFloat(ConfigKey<Float> configKey) {
+		return get(configKey);
+	}
+	
+	/**
+	 * Gets the value configured in this configuration for the given Double <code>ConfigKey</code> as a primitive <code>double</code>.
+	 * It follows the same rules of <code>get(ConfigKey)</code>, but implementations should not box or allocate.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @return the value for the given <code>ConfigKey</code>
+	 */
+	default public double getDouble(ConfigKey<Double> configKey) {
+		return get(configKey);
+	}
+	
+	/**
+	 * Gets the value of the given <code>ConfigKey</code> for the given qualifier (for example an instrument id), falling back to
+	 * <code>get(ConfigKey)</code> when there is no qualified value for it. Implementations that do not support qualified values,
+	 * like the default one, always fall back. The primitive variants below follow the same rules and should not box or allocate.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value for the given <code>ConfigKey</code>
+	 */
+	default public <T> T get(ConfigKey<T> configKey, long qualifier) {
+		return get(configKey);
+	}
+	
+	/**
+	 * Gets the value of a Boolean <code>ConfigKey</code> for the given qualifier as a primitive <code>boolean</code>. See <code>get(ConfigKey, long)</code>.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value for the given <code>ConfigKey</code>
+	 */
+	default public boolean getBoolean(ConfigKey<Boolean> configKey, long qualifier) {
+		return getBoolean(configKey);
+	}
+	
+	/**
+	 * Gets the value of a Character <code>ConfigKey</code> for the given qualifier as a primitive <code>char</code>. See <code>get(ConfigKey, long)</code>.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value for the given <code>ConfigKey</code>
+	 */
+	default public char getChar(ConfigKey<Character> configKey, long qualifier) {
+		return getChar(configKey);
+	}
+	
+	/**
+	 * Gets the value of a Byte <code>ConfigKey</code> for the given qualifier as a primitive <code>byte</code>. See <code>get(ConfigKey, long)</code>.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value for the given <code>ConfigKey</code>
+	 */
+	default public byte getByte(ConfigKey<Byte> configKey, long qualifier) {
+		return getByte(configKey);
+	}
+	
+	/**
+	 * Gets the value of a Short <code>ConfigKey</code> for the given qualifier as a primitive <code>short</code>. See <code>get(ConfigKey, long)</code>.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value for the given <code>ConfigKey</code>
+	 */
+	default public short getShort(ConfigKey<Short> configKey, long qualifier) {
+		return getShort(configKey);
+	}
+	
+	/**
+	 * Gets the value of a Integer <code>ConfigKey</code> for the given qualifier as a primitive <code>int</code>. See <code>get(ConfigKey, long)</code>.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value for the given <code>ConfigKey</code>
+	 */
+	default public int getInt(ConfigKey<Integer> configKey, long qualifier) {
+		return getInt(configKey);
+	}
+	
+	/**
+	 * Gets the value of a Long <code>ConfigKey</code> for the given qualifier as a primitive <code>long</code>. See <code>get(ConfigKey, long)</code>.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value for the given <code>ConfigKey</code>
+	 */
+	default public long getLong(ConfigKey<Long> configKey, long qualifier) {
+		return getLong(configKey);
+	}
+	
+	/**
+	 * Gets the value of a Float <code>ConfigKey</code> for the given qualifier as a primitive <code>float</code>. See <code>get(ConfigKey, long)</code>.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value for the given <code>ConfigKey</code>
+	 */
+	default public float getFloat(ConfigKey<Float> configKey, long qualifier) {
+		return getFloat(configKey);
+	}
+	
+	/**
+	 * Gets the value of a Double <code>ConfigKey</code> for the given qualifier as a primitive <code>double</code>. See <code>get(ConfigKey, long)</code>.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to get a value for
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value for the given <code>ConfigKey</code>
+	 */
+	default public double getDouble(ConfigKey<Double> configKey, long qualifier) {
+		return getDouble(configKey);
+	}
+	
 	/**
 	 * Returns true if the given <code>ConfigKey</code> has a value associated/configured in this configuration.
 	 * 
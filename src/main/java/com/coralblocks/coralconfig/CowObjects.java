@@ -0,0 +1,75 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+/**
+ * The <code>Object</code> version of <code>CowLongs</code>: a fixed-length array split in chunks of 64 elements, which can be forked in constant time.
+ * It is not thread-safe: writes and forks must be guarded by the owner.
+ */
+final class CowObjects {
+	
+	private static final int SHIFT = 6;
+	private static final int MASK = (1 << SHIFT) - 1;
+	
+	private final int length;
+	private Object[][] chunks;
+	private boolean[] owned; // chunks this instance can write in place, null when the table of chunks is shared
+	
+	CowObjects(int length) {
+		this.length = length;
+		this.chunks = new Object[(length + MASK) >>> SHIFT][];
+		this.owned = new boolean[chunks.length];
+		for(int i = 0; i < chunks.length; i++) {
+			chunks[i] = new Object[Math.min(MASK + 1, length - (i << SHIFT))];
+			owned[i] = true;
+		}
+	}
+	
+	private CowObjects(CowObjects source) {
+		this.length = source.length;
+		this.chunks = source.chunks;
+		this.owned = null;
+		source.owned = null; // from now on the source must copy before writing too
+	}
+	
+	CowObjects fork() {
+		return new CowObjects(this);
+	}
+	
+	int length() {
+		return length;
+	}
+	
+	Object get(int index) {
+		return chunks[index >>> SHIFT][index & MASK];
+	}
+	
+	void set(int index, Object value) {
+		writable(index >>> SHIFT)[index & MASK] = value;
+	}
+	
+	private Object[] writable(int chunk) {
+		if (owned == null) {
+			chunks = chunks.clone();
+			owned = new boolean[chunks.length];
+		}
+		if (!owned[chunk]) {
+			chunks[chunk] = chunks[chunk].clone();
+			owned[chunk] = true;
+		}
+		return chunks[chunk];
+	}
+}
@@ -0,0 +1,154 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.lang.reflect.Array;
+
+/**
+ * A case-insensitive lookup table from names to the constants of an enum, built once per enum type.
+ * <br/><br/>
+ * Names are matched straight from a <code>CharSequence</code> (or a range of it), with no <code>String</code> created and no exception
+ * thrown on a miss when using <code>tryParse</code>.
+ *
+ * @param <E> the enum type
+ */
+public final class EnumLookup<E extends Enum<E>> {
+	
+	private static final ClassValue<EnumLookup<?>> ALL = new ClassValue<EnumLookup<?>>() {
+		
+		@Override
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		protected EnumLookup<?> computeValue(Class<?> type) {
+			return new EnumLookup(type.asSubclass(Enum.class));
+		}
+	};
+	
+	private final Class<E> type;
+	private final E[] constants;
+	private final int[] hashes;
+	private final int mask;
+	
+	private EnumLookup(Class<E> type) {
+		E[] values = type.getEnumConstants();
+		int capacity = Integer.highestOneBit(Math.max(2, values.length * 2) - 1) << 1; // load factor of at most 0.5
+		this.type = type;
+		this.constants = newArray(type, capacity);
+		this.hashes = new int[capacity];
+		this.mask = capacity - 1;
+		for(E e : values) {
+			String name = e.name();
+			int hash = hash(name, 0, name.length());
+			if (find(name, 0, name.length(), hash) != null) continue; // same name ignoring case, the first constant wins
+			int index = hash & mask;
+			while(constants[index] != null) index = (index + 1) & mask;
+			constants[index] = e;
+			hashes[index] = hash;
+		}
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <E> E[] newArray(Class<E> type, int length) {
+		return (E[]) Array.newInstance(type, length);
+	}
+	
+	/**
+	 * Returns the lookup table of the given enum type. It is built on the first call and then cached.
+	 * 
+	 * @param <E> the enum type
+	 * @param type the enum class
+	 * @return the lookup table of the enum type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E extends Enum<E>> EnumLookup<E> of(Class<E> type) {
+		if (!type.isEnum()) throw new IllegalArgumentException("Not an enum: " + type);
+		return (EnumLookup<E>) ALL.get(type);
+	}
+	
+	// Same as String.hashCode of the name in upper case
+	private static int hash(CharSequence chars, int start, int end) {
+		int hash = 0;
+		for(int i = start; i < end; i++) hash = 31 * hash + Character.toUpperCase(chars.charAt(i));
+		return hash;
+	}
+	
+	private E find(CharSequence chars, int start, int end, int hash) {
+		int index = hash & mask;
+		E e;
+		while((e = constants[index]) != null) {
+			if (hashes[index] == hash && matches(e.name(), chars, start, end)) return e;
+			index = (index + 1) & mask;
+		}
+		return null;
+	}
+	
+	private static boolean matches(String name, CharSequence chars, int start, int end) {
+		if (name.length() != end - start) return false;
+		for(int i = 0; i < name.length(); i++) {
+			if (Character.toUpperCase(name.charAt(i)) != Character.toUpperCase(chars.charAt(start + i))) return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns the constant with the given name, ignoring case, or null if there is none.
+	 * 
+	 * @param name the name of the constant
+	 * @return the constant or null
+	 */
+	public E tryParse(CharSequence name) {
+		return tryParse(name, 0, name.length());
+	}
+	
+	/**
+	 * Returns the constant whose name is the given range of chars, ignoring case, or null if there is none.
+	 * 
+	 * @param chars the chars holding the name
+	 * @param start the index of the first char of the name (inclusive)
+	 * @param end the index of the last char of the name (exclusive)
+	 * @return the constant or null
+	 */
+	public E tryParse(CharSequence chars, int start, int end) {
+		return find(chars, start, end, hash(chars, start, end));
+	}
+	
+	/**
+	 * Returns the constant with the given name, ignoring case.
+	 * 
+	 * @param name the name of the constant
+	 * @return the constant
+	 * @throws IllegalArgumentException if there is no constant with this name
+	 */
+	public E parse(CharSequence name) {
+		return parse(name, 0, name.length());
+	}
+	
+	/**
+	 * Returns the constant whose name is the given range of chars, ignoring case.
+	 * 
+	 * @param chars the chars holding the name
+	 * @param start the index of the first char of the name (inclusive)
+	 * @param end the index of the last char of the name (exclusive)
+	 * @return the constant
+	 * @throws IllegalArgumentException if there is no constant with this name
+	 */
+	public E parse(CharSequence chars, int start, int end) {
+		E e = tryParse(chars, start, end);
+		if (e == null) {
+			throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + chars.subSequence(start, end).toString().toUpperCase());
+		}
+		return e;
+	}
+}
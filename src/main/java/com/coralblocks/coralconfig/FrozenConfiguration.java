@@ -0,0 +1,352 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * An immutable snapshot of a <code>MapConfiguration</code>, created by <code>MapConfiguration.freeze()</code>.
+ * <br/><br/>
+ * The effective value of every <code>ConfigKey</code> (configured value, alias, deprecated key, overwritten default or default) is
+ * resolved when the snapshot is taken. The snapshot shares the chunked copy-on-write arrays of the configuration it was taken from (see
+ * <code>CowLongs</code>). The snapshot never writes to them, and the configuration copies a chunk before writing to it, so the values the snapshot
+ * sees never change. All of them are written before the constructor returns and are only reachable through the final <code>values</code> field,
+ * so the final field semantics of the Java Memory Model make every thread see them, even if the snapshot itself is published through a data race.
+ * Reads never lock, and the snapshot can be safely shared by many threads.
+ * All methods that would change the configuration throw an <code>UnsupportedOperationException</code>.
+ */
+public final class FrozenConfiguration implements Configuration, InternalConfiguration {
+	
+	private final ConfigLayout layout;
+	private final ConfigValues values;
+	private volatile Set<ConfigKey<?>> keys; // built on first use, so freezing does not walk the values
+	private volatile Set<ConfigKey<?>> keysWithOverwrittenDefault;
+	private final CopyOnWriteArrayList<DeprecatedListener> listeners;
+	
+	FrozenConfiguration(ConfigLayout layout, ConfigValues values, List<DeprecatedListener> listeners) {
+		this.layout = layout;
+		this.values = new ConfigValues(values); // frozen copy
+		this.listeners = new CopyOnWriteArrayList<DeprecatedListener>(listeners);
+	}
+	
+	// the config keys whose effective or qualified values are different in the given snapshot of the same configuration
+	void collectChanges(FrozenConfiguration previous, Set<ConfigKey<?>> set) {
+		values.collectChanges(previous.values, set);
+	}
+	
+	// same as above, but only for the group of the given config key
+	void collectChanges(FrozenConfiguration previous, ConfigKey<?> configKey, Set<ConfigKey<?>> set) {
+		values.collectChanges(previous.values, enforceConfigKey(configKey), set);
+	}
+	
+	private int enforceConfigKey(ConfigKey<?> configKey) {
+		return MapConfiguration.enforceConfigKey(layout, configKey);
+	}
+	
+	private <T> void checkDeprecated(ConfigKey<T> configKey) {
+		MapConfiguration.checkDeprecated(listeners, configKey);
+	}
+	
+	@Override
+	public List<ConfigKey<?>> allConfigKeys() {
+		return layout.allConfigKeys();
+	}
+	
+	@Override
+	public void addListener(DeprecatedListener listener) {
+		listeners.addIfAbsent(listener);
+	}
+	
+	@Override
+	public void removeListener(DeprecatedListener listener) {
+		listeners.remove(listener);
+	}
+	
+	@Override
+	public <T> boolean overwriteDefault(ConfigKey<T> configKey, T defaultValue) {
+		throw MapConfiguration.immutable(this);
+	}
+	
+	@Override
+	public Set<ConfigKey<?>> keysWithOverwrittenDefault() {
+		Set<ConfigKey<?>> set = keysWithOverwrittenDefault;
+		if (set == null) { // racing threads build equal sets
+			set = new HashSet<ConfigKey<?>>();
+			values.collectKeysWithDefault(set);
+			keysWithOverwrittenDefault = set = Collections.unmodifiableSet(set);
+		}
+		return set;
+	}
+	
+	@Override
+	public <T> T getOverwrittenDefault(ConfigKey<T> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		Object val = values.getDefault(slot);
+		return val != null ? configKey.getType().cast(val) : null;
+	}
+	
+	@Override
+	public <T> boolean hasOverwrittenDefault(ConfigKey<T> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return values.hasDefault(slot);
+	}
+	
+	@Override
+	public <T> boolean removeOverwrittenDefault(ConfigKey<T> configKey) {
+		throw MapConfiguration.immutable(this);
+	}
+	
+	@Override
+	public void removeAllOverwrittenDefaults() {
+		throw MapConfiguration.immutable(this);
+	}
+	
+	@Override
+	public Class<?>[] getHolders() {
+		return layout.getHolders();
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(ConfigKey<T> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return (T) values.resolve(slot); // already in the type of this config key
+	}
+	
+	// for InternalReads, no listeners
+	@Override
+	public Object peek(ConfigKey<?> configKey) {
+		return values.resolve(enforceConfigKey(configKey));
+	}
+	
+	@Override
+	public Object peekOrElse(ConfigKey<?> configKey, Object notFound) {
+		return values.resolveOrElse(enforceConfigKey(configKey), notFound);
+	}
+	
+	@Override
+	public boolean peekHas(ConfigKey<?> configKey) {
+		return values.hasValue(enforceConfigKey(configKey));
+	}
+	
+	@Override
+	public boolean peekHasDefault(ConfigKey<?> configKey) {
+		return values.hasDefault(enforceConfigKey(configKey));
+	}
+	
+	@Override
+	public Object peekDefault(ConfigKey<?> configKey) {
+		return values.getDefault(enforceConfigKey(configKey));
+	}
+	
+	@Override
+	public boolean peekHasQualified(ConfigKey<?> configKey, long qualifier) {
+		return values.hasQualifiedValue(enforceConfigKey(configKey), qualifier);
+	}
+	
+	@Override
+	public Object peekQualified(ConfigKey<?> configKey, long qualifier) {
+		return values.resolve(enforceConfigKey(configKey), qualifier);
+	}
+	
+	@Override
+	public <T> ConfigConstant<T> constant(ConfigKey<T> configKey) {
+		return new ConfigConstant<T>(this, configKey); // never changes, so there is nothing to refresh
+	}
+	
+	@Override
+	public void addChangeHook(Consumer<ConfigKey<?>> hook) {
+		// never changes
+	}
+	
+	@Override
+	public void removeChangeHook(Consumer<ConfigKey<?>> hook) {
+		// never changes
+	}
+	
+	// for ConcurrentConfiguration, no listeners
+	long peekBits(ConfigKey<?> configKey) {
+		return values.resolveBits(enforceConfigKey(configKey));
+	}
+	
+	long peekBits(ConfigKey<?> configKey, long qualifier) {
+		return values.resolveBits(enforceConfigKey(configKey), qualifier);
+	}
+	
+	private long resolveBits(ConfigKey<?> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return values.resolveBits(slot);
+	}
+	
+	@Override
+	public boolean getBoolean(ConfigKey<Boolean> configKey) {
+		return resolveBits(configKey) != 0;
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey) {
+		return (char) resolveBits(configKey);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey) {
+		return (byte) resolveBits(configKey);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey) {
+		return (short) resolveBits(configKey);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey) {
+		return (int) resolveBits(configKey);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey) {
+		return resolveBits(configKey);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey) {
+		return (float) Double.longBitsToDouble(resolveBits(configKey));
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey) {
+		return Double.longBitsToDouble(resolveBits(configKey));
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(ConfigKey<T> configKey, long qualifier) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return (T) values.resolve(slot, qualifier);
+	}
+	
+	private long resolveBits(ConfigKey<?> configKey, long qualifier) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return values.resolveBits(slot, qualifier);
+	}
+	
+	@Override
+	public boolean getBoolean(ConfigKey<Boolean> configKey, long qualifier) {
+		return resolveBits(configKey, qualifier) != 0;
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey, long qualifier) {
+		return (char) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey, long qualifier) {
+		return (byte) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey, long qualifier) {
+		return (short) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey, long qualifier) {
+		return (int) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey, long qualifier) {
+		return resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey, long qualifier) {
+		return (float) Double.longBitsToDouble(resolveBits(configKey, qualifier));
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey, long qualifier) {
+		return Double.longBitsToDouble(resolveBits(configKey, qualifier));
+	}
+	
+	@Override
+	public boolean has(ConfigKey<?> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return values.hasValue(slot);
+	}
+	
+	@Override
+	public int size() {
+		return values.size();
+	}
+	
+	@Override
+	public long epoch() {
+		return values.epoch();
+	}
+	
+	@Override
+	public long epoch(Class<?> holder) {
+		int index = layout.indexOfHolder(holder);
+		if (index < 0) throw new IllegalArgumentException("Not a holder of this configuration: " + holder);
+		return values.epoch(index);
+	}
+	
+	@Override
+	public Set<ConfigKey<?>> keys() {
+		Set<ConfigKey<?>> set = keys;
+		if (set == null) { // racing threads build equal sets
+			set = new HashSet<ConfigKey<?>>();
+			values.collectKeys(set);
+			keys = set = Collections.unmodifiableSet(set);
+		}
+		return set;
+	}
+}
@@ -0,0 +1,111 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.function.Consumer;
+
+/**
+ * What the configurations of this package offer to each other: reads that do not call the <code>DeprecatedListener</code>s and ignore the
+ * <code>ConfigScope</code>s (see <code>InternalReads</code>), their <code>ConfigConstant</code>s and hooks to be told about their changes.
+ * Any configuration implementing it can be a layer of a <code>LayeredConfiguration</code> or back a <code>ConfigConstant</code>.
+ */
+interface InternalConfiguration extends Configuration {
+	
+	/**
+	 * Returns the value of the given <code>ConfigKey</code>, like <code>get</code> but without calling the listeners.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to read
+	 * @return the value, in the type of the <code>ConfigKey</code>
+	 * @throws RuntimeException if the <code>ConfigKey</code> is required and has no value
+	 */
+	public Object peek(ConfigKey<?> configKey);
+	
+	/**
+	 * Returns the value of the given <code>ConfigKey</code> like <code>peek</code>, or the given object when it is required and has no value.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to read
+	 * @param notFound what to return when the <code>ConfigKey</code> has no value
+	 * @return the value, in the type of the <code>ConfigKey</code>, or <code>notFound</code>
+	 */
+	public Object peekOrElse(ConfigKey<?> configKey, Object notFound);
+	
+	/**
+	 * Returns true if the given <code>ConfigKey</code> has a configured value, like <code>has</code> but without calling the listeners.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to check
+	 * @return true if it has a configured value
+	 */
+	public boolean peekHas(ConfigKey<?> configKey);
+	
+	/**
+	 * Returns true if the given <code>ConfigKey</code> has an overwritten default, like <code>hasOverwrittenDefault</code> but without calling the listeners.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to check
+	 * @return true if it has an overwritten default
+	 */
+	public boolean peekHasDefault(ConfigKey<?> configKey);
+	
+	/**
+	 * Returns the overwritten default of the given <code>ConfigKey</code>, like <code>getOverwrittenDefault</code> but without calling the listeners.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to read
+	 * @return the overwritten default, in the type of the <code>ConfigKey</code>, or null if there is none
+	 */
+	public Object peekDefault(ConfigKey<?> configKey);
+	
+	/**
+	 * Returns true if the group of the given <code>ConfigKey</code> has a qualified value for the given qualifier, without calling the listeners.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to check
+	 * @param qualifier the qualifier
+	 * @return true if it has a qualified value for the qualifier
+	 */
+	public boolean peekHasQualified(ConfigKey<?> configKey, long qualifier);
+	
+	/**
+	 * Returns the qualified value of the given <code>ConfigKey</code>, like <code>get(ConfigKey, long)</code> but without calling the listeners.
+	 * 
+	 * @param configKey the <code>ConfigKey</code> to read
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value of the <code>ConfigKey</code>, in its type
+	 * @throws RuntimeException if the <code>ConfigKey</code> is required and has no value
+	 */
+	public Object peekQualified(ConfigKey<?> configKey, long qualifier);
+	
+	/**
+	 * Returns the <code>ConfigConstant</code> of the given <code>ConfigKey</code> in this configuration.
+	 * 
+	 * @param <T> the type of the <code>ConfigKey</code>
+	 * @param configKey a <code>ConfigKey</code> of this configuration
+	 * @return its <code>ConfigConstant</code>
+	 */
+	public <T> ConfigConstant<T> constant(ConfigKey<T> configKey);
+	
+	/**
+	 * Adds a hook called after every change, with the <code>ConfigKey</code> that was changed or null if many config keys may have changed.
+	 * A configuration that never changes does nothing.
+	 * 
+	 * @param hook the hook to call
+	 */
+	public void addChangeHook(Consumer<ConfigKey<?>> hook);
+	
+	/**
+	 * Removes a hook added by <code>addChangeHook</code>.
+	 * 
+	 * @param hook the hook to remove
+	 */
+	public void removeChangeHook(Consumer<ConfigKey<?>> hook);
+}
@@ -0,0 +1,120 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+/**
+ * The reads a configuration makes for its own internals, like refreshing its <code>ConfigConstant</code>s or resolving the layers of a
+ * <code>LayeredConfiguration</code>. Unlike the public methods, they do not call the <code>DeprecatedListener</code>s, which are meant for the
+ * code that reads a deprecated key and not for every refresh. They also ignore the <code>ConfigScope</code>s of the current thread, as the values
+ * they read are shared by all threads.
+ */
+final class InternalReads {
+	
+	private InternalReads() {
+		
+	}
+	
+	/**
+	 * Returns the value of the given <code>ConfigKey</code> in the given configuration, like <code>get</code> but without calling its listeners.
+	 * 
+	 * @param config the configuration to read
+	 * @param configKey the <code>ConfigKey</code> to read
+	 * @return the value, in the type of the <code>ConfigKey</code>
+	 * @throws RuntimeException if the <code>ConfigKey</code> is required and has no value
+	 */
+	static Object get(Configuration config, ConfigKey<?> configKey) {
+		if (config instanceof InternalConfiguration) return ((InternalConfiguration) config).peek(configKey);
+		return config.get(configKey); // other implementations only have the public getter
+	}
+	
+	/**
+	 * Returns the value of the given <code>ConfigKey</code> in the given configuration like <code>get</code>, or the given object instead of
+	 * throwing when the <code>ConfigKey</code> is required and has no value.
+	 * 
+	 * @param config the configuration to read
+	 * @param configKey the <code>ConfigKey</code> to read
+	 * @param notFound what to return when the <code>ConfigKey</code> has no value
+	 * @return the value, in the type of the <code>ConfigKey</code>, or <code>notFound</code>
+	 */
+	static Object getOrElse(Configuration config, ConfigKey<?> configKey, Object notFound) {
+		if (config instanceof InternalConfiguration) return ((InternalConfiguration) config).peekOrElse(configKey, notFound);
+		return config.get(configKey); // other implementations only have the public getter, which throws
+	}
+	
+	/**
+	 * Returns true if the given <code>ConfigKey</code> has a configured value, like <code>has</code> but without calling the listeners.
+	 * 
+	 * @param config the configuration to check
+	 * @param configKey the <code>ConfigKey</code> to check
+	 * @return true if it has a configured value
+	 */
+	static boolean has(Configuration config, ConfigKey<?> configKey) {
+		if (config instanceof InternalConfiguration) return ((InternalConfiguration) config).peekHas(configKey);
+		return config.has(configKey);
+	}
+	
+	/**
+	 * Returns true if the given <code>ConfigKey</code> has an overwritten default, like <code>hasOverwrittenDefault</code> but without calling the listeners.
+	 * 
+	 * @param config the configuration to check
+	 * @param configKey the <code>ConfigKey</code> to check
+	 * @return true if it has an overwritten default
+	 */
+	static boolean hasOverwrittenDefault(Configuration config, ConfigKey<?> configKey) {
+		if (config instanceof InternalConfiguration) return ((InternalConfiguration) config).peekHasDefault(configKey);
+		return config.hasOverwrittenDefault(configKey);
+	}
+	
+	/**
+	 * Returns true if the given <code>ConfigKey</code> has a qualified value for the given qualifier, without calling the listeners.
+	 * Other implementations do not tell, so they never have one.
+	 * 
+	 * @param config the configuration to check
+	 * @param configKey the <code>ConfigKey</code> to check
+	 * @param qualifier the qualifier
+	 * @return true if it has a qualified value for the qualifier
+	 */
+	static boolean hasQualified(Configuration config, ConfigKey<?> configKey, long qualifier) {
+		if (config instanceof InternalConfiguration) return ((InternalConfiguration) config).peekHasQualified(configKey, qualifier);
+		return false;
+	}
+	
+	/**
+	 * Returns the qualified value of the given <code>ConfigKey</code>, like <code>get(ConfigKey, long)</code> but without calling the listeners.
+	 * 
+	 * @param config the configuration to read
+	 * @param configKey the <code>ConfigKey</code> to read
+	 * @param qualifier the qualifier
+	 * @return the qualified value or the value of the <code>ConfigKey</code>, in its type
+	 * @throws RuntimeException if the <code>ConfigKey</code> is required and has no value
+	 */
+	static Object getQualified(Configuration config, ConfigKey<?> configKey, long qualifier) {
+		if (config instanceof InternalConfiguration) return ((InternalConfiguration) config).peekQualified(configKey, qualifier);
+		return config.get(configKey, qualifier);
+	}
+	
+	/**
+	 * Returns the overwritten default of the given <code>ConfigKey</code>, like <code>getOverwrittenDefault</code> but without calling the listeners.
+	 * 
+	 * @param config the configuration to read
+	 * @param configKey the <code>ConfigKey</code> to read
+	 * @return the overwritten default, in the type of the <code>ConfigKey</code>, or null if there is none
+	 */
+	static Object getOverwrittenDefault(Configuration config, ConfigKey<?> configKey) {
+		if (config instanceof InternalConfiguration) return ((InternalConfiguration) config).peekDefault(configKey);
+		return config.getOverwrittenDefault(configKey);
+	}
+}
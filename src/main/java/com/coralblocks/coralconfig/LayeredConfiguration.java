@@ -0,0 +1,462 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A <code>Configuration</code> that stacks other configurations as layers, for example built-in defaults, then a site file, then the environment,
+ * then the command line, then runtime admin overrides. The layers are passed from the lowest to the highest priority and must all have the same holders.
+ * <br/><br/>
+ * The value of a <code>ConfigKey</code> comes from the highest layer that has a configured value for it (see <code>has</code>). If no layer has one,
+ * it comes from the highest layer with an overwritten default for it (or for a member of its group), and if there is none from the highest layer,
+ * which returns the default of the <code>ConfigKey</code> (or throws if it is required).
+ * For a read with a qualifier, a qualified value of a layer counts as a configured value, so it comes from the highest layer that has either.
+ * <br/><br/>
+ * The winning values are kept in a flattened cache, one entry per <code>ConfigKey</code>, so a read is a single array lookup and never walks the layers.
+ * When a layer changes, only the entries of the group of the changed <code>ConfigKey</code> are invalidated and resolved again on the next read.
+ * The layers can be <code>MapConfiguration</code>s, <code>ConcurrentConfiguration</code>s, <code>FrozenConfiguration</code>s,
+ * <code>OverlayConfiguration</code>s or other <code>LayeredConfiguration</code>s. A <code>LayeredConfiguration</code> cannot be changed directly, only through its layers.
+ * <br/><br/>
+ * Each layer keeps a reference to the <code>LayeredConfiguration</code> to tell it about its changes, so a <code>LayeredConfiguration</code> that
+ * is no longer needed must be closed while its layers are still in use, otherwise it cannot be garbage collected.
+ */
+public class LayeredConfiguration implements Configuration, InternalConfiguration, AutoCloseable {
+	
+	private static final Object NULL = new Object(); // cached null value
+	private static final Object UNRESOLVED = new Object(); // required with no value, never cached
+	
+	private final Configuration[] layers;
+	private final ConfigLayout layout;
+	private final AtomicReferenceArray<Object> cache; // indexed by slot, null means not resolved yet
+	private volatile long epoch; // only written when holding the lock of this
+	private final AtomicLongArray holderEpochs;
+	private final CopyOnWriteArrayList<DeprecatedListener> listeners = new CopyOnWriteArrayList<DeprecatedListener>();
+	private final ConfigConstants constants = new ConfigConstants(this);
+	private final CopyOnWriteArrayList<Consumer<ConfigKey<?>>> changeHooks = new CopyOnWriteArrayList<Consumer<ConfigKey<?>>>();
+	private final Consumer<ConfigKey<?>> hook = this::invalidate; // registered on the layers
+	private boolean closed; // only accessed when holding the lock of this
+	
+	/**
+	 * Creates a new <code>LayeredConfiguration</code> with the given layers, from the lowest to the highest priority.
+	 * 
+	 * @param layers the layers, the last one overriding all the others
+	 */
+	public LayeredConfiguration(Configuration ... layers) {
+		
+		if (layers == null || layers.length == 0) throw new IllegalArgumentException("Must pass a layer!");
+		
+		this.layers = layers.clone();
+		Class<?>[] holders = layers[0].getHolders();
+		Set<Class<?>> set = new HashSet<Class<?>>(Arrays.asList(holders));
+		for(Configuration layer : this.layers) {
+			if (!set.equals(new HashSet<Class<?>>(Arrays.asList(layer.getHolders())))) {
+				throw new IllegalArgumentException("All layers must have the same holders!" +
+													" holders=" + set + " layer=" + Arrays.asList(layer.getHolders()));
+			}
+		}
+		
+		this.layout = ConfigLayout.of(holders);
+		this.cache = new AtomicReferenceArray<Object>(layout.size());
+		this.holderEpochs = new AtomicLongArray(layout.holderCount());
+		
+		for(Configuration layer : this.layers) {
+			if (!(layer instanceof InternalConfiguration)) {
+				throw new IllegalArgumentException("This configuration cannot be a layer: " + layer.getClass().getName());
+			}
+		}
+		for(Configuration layer : this.layers) ((InternalConfiguration) layer).addChangeHook(hook);
+	}
+	
+	/**
+	 * Stops listening to the changes of the layers, so this configuration can be garbage collected even if its layers are still in use.
+	 * After it is closed, the values are still correct but are read again from the layers on every call, and its <code>ConfigConstant</code>s,
+	 * epochs and the <code>LayeredConfiguration</code>s on top of it are no longer updated. Closing it again does nothing.
+	 */
+	@Override
+	public void close() {
+		synchronized(this) {
+			if (closed) return;
+			closed = true;
+			for(int slot = 0; slot < cache.length(); slot++) cache.set(slot, null);
+		}
+		for(Configuration layer : layers) ((InternalConfiguration) layer).removeChangeHook(hook);
+	}
+	
+	/**
+	 * Returns the layers of this configuration, from the lowest to the highest priority.
+	 * 
+	 * @return the layers
+	 */
+	public List<Configuration> getLayers() {
+		return Collections.unmodifiableList(Arrays.asList(layers));
+	}
+	
+	/*
+	 * Called by a layer after it changed. A fill of the cache happens holding the lock too, so a value resolved before the change
+	 * is always removed here and can never stay in the cache.
+	 */
+	private void invalidate(ConfigKey<?> configKey) {
+		synchronized(this) {
+			long e = epoch + 1;
+			if (configKey == null) {
+				for(int slot = 0; slot < cache.length(); slot++) cache.set(slot, null);
+				for(int i = 0; i < holderEpochs.length(); i++) holderEpochs.set(i, e);
+			} else {
+				ConfigKey<?> primary = configKey.getPrimary() != null ? configKey.getPrimary() : configKey;
+				int slot = layout.slotOf(configKey);
+				int base = slot - configKey.ordinal; // all members of a group live in the same holder
+				int[] members = primary.lookup; // only the scanned members, not the intermediate keys of the fluent API
+				for(int i = 0; i < members.length; i++) cache.set(base + members[i], null);
+				holderEpochs.set(layout.holderIndexAt(slot), e);
+			}
+			epoch = e;
+		}
+		constants.refresh(configKey);
+		for(Consumer<ConfigKey<?>> changeHook : changeHooks) changeHook.accept(configKey); // a snapshot, hooks can be removed meanwhile
+	}
+	
+	private int enforceConfigKey(ConfigKey<?> configKey) {
+		return MapConfiguration.enforceConfigKey(layout, configKey);
+	}
+	
+	private <T> void checkDeprecated(ConfigKey<T> configKey) {
+		MapConfiguration.checkDeprecated(listeners, configKey);
+	}
+	
+	private Object resolve(ConfigKey<?> configKey) {
+		checkDeprecated(configKey);
+		return peek(configKey);
+	}
+	
+	private Object resolve(ConfigKey<?> configKey, long qualifier) {
+		checkDeprecated(configKey);
+		return peekQualified(configKey, qualifier);
+	}
+	
+	// for InternalReads, no listeners
+	@Override
+	public Object peek(ConfigKey<?> configKey) {
+		Object value = peekOrElse(configKey, UNRESOLVED);
+		if (value == UNRESOLVED) { // required without a value, the winning layer throws the usual exception
+			int slot = layout.slotOf(configKey);
+			value = InternalReads.get(winnerOf(slot, configKey), configKey);
+		}
+		return value;
+	}
+	
+	@Override
+	public Object peekOrElse(ConfigKey<?> configKey, Object notFound) {
+		int slot = enforceConfigKey(configKey);
+		Object value = cache.get(slot);
+		if (value == null) value = fill(slot, configKey);
+		if (value == UNRESOLVED) return notFound;
+		return value != NULL ? value : null;
+	}
+	
+	@Override
+	public boolean peekHas(ConfigKey<?> configKey) {
+		enforceConfigKey(configKey);
+		for(Configuration layer : layers) {
+			if (InternalReads.has(layer, configKey)) return true;
+		}
+		return false;
+	}
+	
+	@Override
+	public boolean peekHasDefault(ConfigKey<?> configKey) {
+		enforceConfigKey(configKey);
+		for(Configuration layer : layers) {
+			if (InternalReads.hasOverwrittenDefault(layer, configKey)) return true;
+		}
+		return false;
+	}
+	
+	@Override
+	public Object peekDefault(ConfigKey<?> configKey) {
+		enforceConfigKey(configKey);
+		for(int i = layers.length - 1; i >= 0; i--) {
+			if (InternalReads.hasOverwrittenDefault(layers[i], configKey)) return InternalReads.getOverwrittenDefault(layers[i], configKey);
+		}
+		return null;
+	}
+	
+	private synchronized Object fill(int slot, ConfigKey<?> configKey) {
+		Object value = cache.get(slot);
+		if (value != null) return value;
+		value = InternalReads.getOrElse(winnerOf(slot, configKey), configKey, UNRESOLVED);
+		if (value == null) value = NULL;
+		if (!closed && value != UNRESOLVED) cache.set(slot, value); // required config keys without a value are not cached
+		return value;
+	}
+	
+	@Override
+	public boolean peekHasQualified(ConfigKey<?> configKey, long qualifier) {
+		enforceConfigKey(configKey);
+		return qualifiedWinnerOf(configKey, qualifier) != null;
+	}
+	
+	@Override
+	public Object peekQualified(ConfigKey<?> configKey, long qualifier) {
+		enforceConfigKey(configKey);
+		Configuration winner = qualifiedWinnerOf(configKey, qualifier);
+		return winner != null ? InternalReads.getQualified(winner, configKey, qualifier) : peek(configKey);
+	}
+	
+	/*
+	 * Returns the highest layer with a qualified value for the given qualifier, or null if there is none or a higher layer has a configured
+	 * value, which wins like for the reads without a qualifier. Qualified values are not cached, as there can be any number of qualifiers.
+	 */
+	private Configuration qualifiedWinnerOf(ConfigKey<?> configKey, long qualifier) {
+		for(int i = layers.length - 1; i >= 0; i--) {
+			if (InternalReads.hasQualified(layers[i], configKey, qualifier)) return layers[i];
+			if (InternalReads.has(layers[i], configKey)) return null;
+		}
+		return null;
+	}
+	
+	private Configuration winnerOf(int slot, ConfigKey<?> configKey) {
+		for(int i = layers.length - 1; i >= 0; i--) {
+			if (InternalReads.has(layers[i], configKey)) return layers[i];
+		}
+		for(int i = layers.length - 1; i >= 0; i--) {
+			if (hasOverwrittenDefault(layers[i], slot, configKey)) return layers[i];
+		}
+		return layers[layers.length - 1];
+	}
+	
+	// whether any member of the group of the given config key has an overwritten default in the given layer
+	private boolean hasOverwrittenDefault(Configuration layer, int slot, ConfigKey<?> configKey) {
+		int base = slot - configKey.ordinal; // all members of a group live in the same holder
+		int[] members = configKey.lookup; // only the scanned members, not the intermediate keys of the fluent API
+		for(int i = 0; i < members.length; i++) {
+			if (InternalReads.hasOverwrittenDefault(layer, layout.keyAt(base + members[i]))) return true;
+		}
+		return false;
+	}
+	
+	@Override
+	public List<ConfigKey<?>> allConfigKeys() {
+		return layout.allConfigKeys();
+	}
+	
+	@Override
+	public void addListener(DeprecatedListener listener) {
+		listeners.addIfAbsent(listener);
+	}
+	
+	@Override
+	public void removeListener(DeprecatedListener listener) {
+		listeners.remove(listener);
+	}
+	
+	@Override
+	public <T> boolean overwriteDefault(ConfigKey<T> configKey, T defaultValue) {
+		throw MapConfiguration.immutable(this);
+	}
+	
+	@Override
+	public Set<ConfigKey<?>> keysWithOverwrittenDefault() {
+		Set<ConfigKey<?>> set = new HashSet<ConfigKey<?>>();
+		for(Configuration layer : layers) set.addAll(layer.keysWithOverwrittenDefault());
+		return set;
+	}
+	
+	@Override
+	public <T> T getOverwrittenDefault(ConfigKey<T> configKey) {
+		
+		enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return configKey.getType().cast(peekDefault(configKey));
+	}
+	
+	@Override
+	public <T> boolean hasOverwrittenDefault(ConfigKey<T> configKey) {
+		
+		enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return peekHasDefault(configKey);
+	}
+	
+	@Override
+	public <T> boolean removeOverwrittenDefault(ConfigKey<T> configKey) {
+		throw MapConfiguration.immutable(this);
+	}
+	
+	@Override
+	public void removeAllOverwrittenDefaults() {
+		throw MapConfiguration.immutable(this);
+	}
+	
+	@Override
+	public Class<?>[] getHolders() {
+		return layout.getHolders();
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(ConfigKey<T> configKey) {
+		return (T) resolve(configKey); // the winning layer returns it in the type of this config key
+	}
+	
+	@Override
+	public boolean getBoolean(ConfigKey<Boolean> configKey) {
+		return (Boolean) resolve(configKey);
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey) {
+		return (Character) resolve(configKey);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey) {
+		return (Byte) resolve(configKey);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey) {
+		return (Short) resolve(configKey);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey) {
+		return (Integer) resolve(configKey);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey) {
+		return (Long) resolve(configKey);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey) {
+		return (Float) resolve(configKey);
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey) {
+		return (Double) resolve(configKey);
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(ConfigKey<T> configKey, long qualifier) {
+		return (T) resolve(configKey, qualifier); // the winning layer returns it in the type of this config key
+	}
+	
+	@Override
+	public boolean getBoolean(ConfigKey<Boolean> configKey, long qualifier) {
+		return (Boolean) resolve(configKey, qualifier);
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey, long qualifier) {
+		return (Character) resolve(configKey, qualifier);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey, long qualifier) {
+		return (Byte) resolve(configKey, qualifier);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey, long qualifier) {
+		return (Short) resolve(configKey, qualifier);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey, long qualifier) {
+		return (Integer) resolve(configKey, qualifier);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey, long qualifier) {
+		return (Long) resolve(configKey, qualifier);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey, long qualifier) {
+		return (Float) resolve(configKey, qualifier);
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey, long qualifier) {
+		return (Double) resolve(configKey, qualifier);
+	}
+	
+	@Override
+	public boolean has(ConfigKey<?> configKey) {
+		
+		enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return peekHas(configKey);
+	}
+	
+	@Override
+	public int size() {
+		return keys().size();
+	}
+	
+	@Override
+	public long epoch() {
+		return epoch;
+	}
+	
+	@Override
+	public long epoch(Class<?> holder) {
+		int index = layout.indexOfHolder(holder);
+		if (index < 0) throw new IllegalArgumentException("Not a holder of this configuration: " + holder);
+		return holderEpochs.get(index);
+	}
+	
+	@Override
+	public <T> ConfigConstant<T> constant(ConfigKey<T> configKey) {
+		return constants.of(configKey);
+	}
+	
+	// for other LayeredConfigurations, called with the config key that was changed or null if many config keys may have changed
+	@Override
+	public void addChangeHook(Consumer<ConfigKey<?>> hook) {
+		changeHooks.add(hook);
+	}
+	
+	@Override
+	public void removeChangeHook(Consumer<ConfigKey<?>> hook) {
+		changeHooks.remove(hook);
+	}
+	
+	@Override
+	public Set<ConfigKey<?>> keys() {
+		Set<ConfigKey<?>> set = new HashSet<ConfigKey<?>>();
+		for(Configuration layer : layers) set.addAll(layer.keys());
+		return set;
+	}
+}
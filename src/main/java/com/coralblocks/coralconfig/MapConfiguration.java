@@ -17,25 +17,29 @@ package com.coralblocks.coralconfig;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 import com.coralblocks.coralconfig.ConfigKey.Kind;
 
 /**
  * The main implementation of the <code>Configuration</code> interface. It performs a bunch of checks to enforce uniqueness of <code>ConfigKey</code>s and much more.
+ * <br/><br/>
+ * Numbers, booleans and chars are stored unboxed, so use the primitive getters (<code>getInt</code>, <code>getDouble</code>, etc.) to read them without producing garbage.
  */
-public class MapConfiguration implements Configuration {
+public class MapConfiguration implements Configuration, InternalConfiguration {
 	
-	private final ConfigContainer[] configContainers;
-	private final Class<?>[] holders;
-	private final Map<ConfigKey<?>, Object> values = Collections.synchronizedMap(new HashMap<ConfigKey<?>, Object>());
-	private final Map<ConfigKey<?>, Object> overwrittenDefaults = Collections.synchronizedMap(new HashMap<ConfigKey<?>, Object>());
+	private final ConfigLayout layout;
+	private final ConfigValues values;
 	private final List<DeprecatedListener> listeners = new ArrayList<DeprecatedListener>();
-	private final List<ConfigKey<?>> allConfigKeys;
+	private final ConfigConstants constants = new ConfigConstants(this);
+	private final CopyOnWriteArrayList<Consumer<ConfigKey<?>>> changeHooks = new CopyOnWriteArrayList<Consumer<ConfigKey<?>>>();
+	private final AtomicReferenceArray<ConfigScopeStack> scopes = new AtomicReferenceArray<ConfigScopeStack>(ConfigScopeStack.BUCKETS); // the threads with open scopes
+	private final ThreadLocal<ConfigScopeStack> scopeStacks = new ThreadLocal<ConfigScopeStack>(); // only used to open a scope
 	
 	/**
 	 * Creates a new <code>MapConfiguration</code> with the <code>ConfigKey</code>s present in the given list of holder classes.
@@ -50,60 +54,30 @@ public class MapConfiguration implements Configuration {
 	 * Creates a new <code>MapConfiguration</code> with the <code>ConfigKey</code>s present in the given list of holder classes.
 	 * You can pass a list of parameters to be configured, for example:
 	 * &nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;&nbsp;<code>"myInteger1=2 myString=blah myEnum=BALL myFloat3=3.12"</code>
+	 * <br/><br/>
+	 * Values can be quoted to contain whitespace (<code>myString="hello world"</code>) and inside quotes a backslash escapes the next char. Unquoted values are taken literally.
 	 * 
 	 * @param params some initial values for some of the <code>ConfigKey</code>s of this configuration
 	 * @param holders the holder classes from where to get the <code>ConfigKey</code>s
 	 */
 	public MapConfiguration(String params, Class<?> ... holders) {
 		
-		if (holders == null || holders.length == 0) throw new IllegalArgumentException("Must pass a holder!");
+		this.layout = ConfigLayout.of(holders);
+		this.values = new ConfigValues(layout);
 		
-		this.holders = holders;
-		
-		this.configContainers = new ConfigContainer[holders.length];
-		for(int i = 0; i < holders.length; i++) {
-			this.configContainers[i] = ConfigContainer.of(holders[i]);
-		}
-		
-		if (configContainers.length > 1) ConfigContainer.enforceNoDuplicates(configContainers); // important!
-		
-		if (params != null) {
-			String[] keyValues = params.split("\\s+");
-			for(String keyValue : keyValues) {
-				String[] temp = keyValue.split("=");
-				if (temp.length != 2) {
-					throw new IllegalArgumentException("The params argument is invalid: " + params + " (" + keyValue + ")");
-				}
-				String key = temp[0];
-				String value = temp[1];
-				
-				ConfigKey<?> configKey = getByName(key);
-				if (configKey == null) {
-					throw new IllegalStateException("A config key in params does not belong to this configuration: " + key);
-				}
-				Object parsedValue = configKey.parseValue(value);
-				addParsed(configKey, parsedValue);
-			}
-		}
-		
-		this.allConfigKeys = gatherAllConfigKeys();
+		if (params != null) ingester().ingest(params);
 	}
 	
 	/**
 	 * Creates a new <code>MapConfiguration</code> by copying everything from the given configuration.
+	 * The epochs of the copy start from the epochs of the given configuration.
 	 * 
 	 * @param config the configuration to copy everything from for this new <code>MapConfiguration</code>
 	 */
 	public MapConfiguration(Configuration config) {
 		
-		this.holders = config.getHolders();
-		
-		this.configContainers = new ConfigContainer[holders.length];
-		for(int i = 0; i < holders.length; i++) {
-			this.configContainers[i] = ConfigContainer.of(holders[i]);
-		}
-		
-		if (configContainers.length > 1) ConfigContainer.enforceNoDuplicates(configContainers); // important!
+		this.layout = ConfigLayout.of(config.getHolders());
+		this.values = new ConfigValues(layout);
 		
 		for(ConfigKey<?> configKey : config.keys()) {
 			addCaptured(configKey, config);
@@ -115,22 +89,24 @@ public class MapConfiguration implements Configuration {
 			overwriteDefaultCaptured(configKey, config);
 		}
 		
-		this.allConfigKeys = gatherAllConfigKeys();
+		values.continueEpochs(config);
 	}
 	
-	private List<ConfigKey<?>> gatherAllConfigKeys() {
-		List<ConfigKey<?>> list = new ArrayList<ConfigKey<?>>();
-		for(ConfigContainer cc : configContainers) {
-			for(ConfigKey<?> configKey : cc.configKeys()) {
-				list.add(configKey);
-			}
-		}
-		return Collections.unmodifiableList(list);
+	private MapConfiguration(MapConfiguration source) {
+		this.layout = source.layout;
+		this.values = new ConfigValues(source.values, false);
+		this.listeners.addAll(source.listeners);
 	}
 	
-	// // for generics to work, we need a new method to capture the T from the ConfigKey
-	private <T> void addParsed(ConfigKey<T> configKey, Object parsed) {
-	    add(configKey, configKey.getType().cast(parsed));
+	/**
+	 * Returns a copy of this configuration, with the same values, overwritten defaults, epochs and deprecated listeners. The copy shares
+	 * its storage with this configuration, so it takes constant time no matter how many <code>ConfigKey</code>s are configured, and a later
+	 * write to either configuration only copies the small chunk it touches. Unlike the copy constructor, no value is read, so no listener is called.
+	 * 
+	 * @return a copy of this configuration
+	 */
+	public MapConfiguration fork() {
+		return new MapConfiguration(this);
 	}
 	
 	// for generics to work, we need a new method to capture the T from the ConfigKey
@@ -145,22 +121,15 @@ public class MapConfiguration implements Configuration {
 	    overwriteDefault(configKey, value);
 	}
 	
-	private ConfigKey<?> getByName(String name) {
-		for(ConfigContainer cc : configContainers) {
-			ConfigKey<?> configKey = cc.get(name);
-			if (configKey != null) return configKey;
-		}
-		return null;
-	}
-	
-	private void enforceValue(ConfigKey<?> configKey, Object value) {
+	// also used by ConcurrentConfiguration, to validate before calling its listeners
+	static void enforceValue(ConfigKey<?> configKey, Object value) {
 		if (value == null) {
 			throw new RuntimeException("Null values are not allowed! (You should remove the config key from the configuration instead)" + 
 									   " configKey=" + configKey);
 		}
 	}
 	
-	private void enforceDefaultValue(ConfigKey<?> configKey, Object value) {
+	static void enforceDefaultValue(ConfigKey<?> configKey, Object value) {
 
 		if (value != null) return; // nothing to do
 		
@@ -174,27 +143,29 @@ public class MapConfiguration implements Configuration {
 				   " configKey=" + configKey);
 	}
 	
-	private boolean checkConfigContainers(ConfigKey<?> configKey) {
-		for(ConfigContainer cc : configContainers) {
-			if (cc.has(configKey)) return true;
-		}
-		return false;
+	private int enforceConfigKey(ConfigKey<?> configKey) {
+		return enforceConfigKey(layout, configKey);
 	}
 	
-	private void enforceConfigKey(ConfigKey<?> configKey) {
+	// the checks shared by all the configurations of this package, which return the slot of the config key in the given layout
+	static int enforceConfigKey(ConfigLayout layout, ConfigKey<?> configKey) {
 		
 		if (configKey == null) {
 			throw new NullPointerException("The config key can never be null!");
 		}
 		
-		if (!checkConfigContainers(configKey)) {
+		int slot = layout.slotOf(configKey);
+		
+		if (slot < 0) {
 			throw new IllegalStateException("ConfigKey does not belong to holder class!" +
 											" configKey=" + configKey); 
 		}
+		
+		return slot;
 	}
 	
 	@SuppressWarnings("unchecked")
-	private static <T> T coerceNumber(Object value, Class<T> targetType) {
+	static <T> T coerceNumber(Object value, Class<T> targetType) {
 		
 	    if (value == null) return null;
 
@@ -227,7 +198,7 @@ public class MapConfiguration implements Configuration {
 	
 	@Override
 	public List<ConfigKey<?>> allConfigKeys() {
-		return Collections.unmodifiableList(allConfigKeys);
+		return layout.allConfigKeys();
 	}
 	
 	@Override
@@ -243,30 +214,37 @@ public class MapConfiguration implements Configuration {
 	@Override
 	public <T> boolean overwriteDefault(ConfigKey<T> configKey, T defaultValue) {
 		
-		enforceConfigKey(configKey);
+		int slot = enforceConfigKey(configKey);
 		
 		enforceDefaultValue(configKey, defaultValue);
 		
 		checkDeprecated(configKey);
 
-		if (!collectAndCheckIfDefaultExists(configKey)) {
+		if (!configKey.willReturnDefault) {
 			throw new IllegalStateException("The configKey will not (or cannot) return a default value, so it cannot be overwritten! " +
 											" configKey=" + configKey + " defaultValue=" + defaultValue);
 		}
 		
-		boolean hadAlready = overwrittenDefaults.containsKey(configKey);
-			
-		overwrittenDefaults.put(configKey, defaultValue);
-		
-		return hadAlready;
+		boolean overwritten = values.putDefault(slot, defaultValue);
+		changed(configKey);
+		return overwritten;
 	}
 	
 	@Override
 	public Set<ConfigKey<?>> keysWithOverwrittenDefault() {
-		return Collections.unmodifiableSet(overwrittenDefaults.keySet());
+		// let's be thread-safe here and return a new Set each time...
+		Set<ConfigKey<?>> set = new HashSet<ConfigKey<?>>();
+		values.collectKeysWithDefault(set);
+		return Collections.unmodifiableSet(set);
 	}
 	
+	
 	private <T> void checkDeprecated(ConfigKey<T> configKey) {
+		checkDeprecated(listeners, configKey);
+	}
+	
+	// also used by the other configurations, with their own listeners
+	static void checkDeprecated(List<DeprecatedListener> listeners, ConfigKey<?> configKey) {
 		
 		if (configKey.getKind() == Kind.DEPRECATED) {
 			for(int i = 0; i < listeners.size(); i++) {
@@ -274,31 +252,46 @@ public class MapConfiguration implements Configuration {
 			}
 		}
 	}
+	
+	// same as above, for the configurations that keep their listeners in an array
+	static void checkDeprecated(DeprecatedListener[] listeners, ConfigKey<?> configKey) {
+		
+		if (configKey.getKind() == Kind.DEPRECATED) {
+			for(int i = 0; i < listeners.length; i++) {
+				listeners[i].deprecatedConfig(configKey, configKey.getPrimary());
+			}
+		}
+	}
+	
+	// for the configurations that cannot be changed
+	static UnsupportedOperationException immutable(Configuration config) {
+		return new UnsupportedOperationException("A " + config.getClass().getSimpleName() + " cannot be changed!");
+	}
 
 	@Override
 	public <T> T getOverwrittenDefault(ConfigKey<T> configKey) {
 		
-		enforceConfigKey(configKey);
+		int slot = enforceConfigKey(configKey);
 		
 		checkDeprecated(configKey);
 		
-		Object val = overwrittenDefaults.get(configKey);
+		Object val = values.getDefault(slot);
 		return val != null ? configKey.getType().cast(val) : null;
 	}
 	
 	@Override
 	public <T> boolean hasOverwrittenDefault(ConfigKey<T> configKey) {
 		
-		enforceConfigKey(configKey);
+		int slot = enforceConfigKey(configKey);
 		
 		checkDeprecated(configKey);
 		
-		return overwrittenDefaults.containsKey(configKey);
+		return values.hasDefault(slot);
 	}
 	
 	@Override
 	public Class<?>[] getHolders() {
-		return holders;
+		return layout.getHolders();
 	}
 	
 	/**
@@ -311,14 +304,40 @@ public class MapConfiguration implements Configuration {
 	 */
 	public <T> T add(ConfigKey<T> configKey, T value) {
 		
-		enforceConfigKey(configKey);
+		int slot = enforceConfigKey(configKey);
 		
 		enforceValue(configKey, value);
 		
 		checkDeprecated(configKey);
 		
-		Object prev = values.put(configKey, value);
-		return prev != null ? configKey.getType().cast(prev) : null;
+		Object prev = values.put(slot, value);
+		changed(configKey);
+		return prev != ConfigValues.NONE ? configKey.getType().cast(prev) : null;
+	}
+	
+	// for ConfigIngester, the config key was already resolved by the layout of this configuration
+	void addBits(ConfigKey<?> configKey, int slot, long bits) {
+		checkDeprecated(configKey);
+		values.putBits(slot, bits);
+		changed(configKey);
+	}
+	
+	// for ConfigIngester, the config key was already resolved by the layout of this configuration
+	void addReference(ConfigKey<?> configKey, int slot, Object value) {
+		checkDeprecated(configKey);
+		values.put(slot, value);
+		changed(configKey);
+	}
+	
+	/**
+	 * Returns a new <code>ConfigIngester</code> to apply <code>key=value</code> pairs to this configuration straight from a
+	 * <code>CharSequence</code> or a <code>ByteBuffer</code>, without producing garbage for primitive values.
+	 * An ingester is not thread-safe, so each thread should have its own.
+	 * 
+	 * @return a new ingester for this configuration
+	 */
+	public ConfigIngester ingester() {
+		return new ConfigIngester(this, layout);
 	}
 	
 	/**
@@ -330,218 +349,351 @@ public class MapConfiguration implements Configuration {
 	 */
 	public <T> T remove(ConfigKey<T> configKey) {
 		
-		enforceConfigKey(configKey);
+		int slot = enforceConfigKey(configKey);
 		
 		checkDeprecated(configKey);
 		
-		Object prev = values.remove(configKey);
-		return prev != null ? configKey.getType().cast(prev) : null;
+		Object prev = values.remove(slot);
+		if (prev != ConfigValues.NONE) changed(configKey);
+		return prev != ConfigValues.NONE ? configKey.getType().cast(prev) : null;
 	}
 	
 	@Override
 	public <T> boolean removeOverwrittenDefault(ConfigKey<T> configKey) {
 		
-		enforceConfigKey(configKey);
+		int slot = enforceConfigKey(configKey);
 		
 		checkDeprecated(configKey);
 		
-		if (overwrittenDefaults.containsKey(configKey)) { // it can have NULLs...
-			overwrittenDefaults.remove(configKey);
-			return true;
-		}
-		
-		return false;
+		boolean removed = values.removeDefault(slot);
+		if (removed) changed(configKey);
+		return removed;
 	}
 	
 	@Override
 	public void removeAllOverwrittenDefaults() {
-		overwrittenDefaults.clear();
+		values.clearDefaults();
+		changed(null);
 	}
 	
-	private static <T> Object getImpl(ConfigKey<T> ck, Map<ConfigKey<?>, Object> values) {
+	/**
+	 * Applies the given overrides to the reads of the current thread until the returned scope is closed. The other threads keep seeing the values
+	 * of this configuration, which is not changed in any way, so no listener, hook or epoch is triggered. Scopes can be nested, and the inner
+	 * overrides win over the outer ones:
+	 * <pre>
+	 * try (ConfigScope scope = config.withOverrides(overrides)) {
+	 *     ...
+	 * }
+	 * </pre>
+	 * Opening a scope does not allocate after the deepest level of each thread was reached. The threads with open scopes are kept in buckets by
+	 * thread id, so a read by a thread without open scopes only loads its bucket, which is empty unless another thread of the same bucket has a
+	 * scope open right now. Overrides are seen by <code>get</code>, the primitive getters (qualified or not) and <code>has</code>, but not by
+	 * <code>ConfigConstant</code>s, the <code>LayeredConfiguration</code>s on top of this one, <code>keys()</code> or <code>freeze()</code>.
+	 * 
+	 * @param overrides the overrides to apply in the current thread
+	 * @return the new scope, to be closed by this same thread
+	 */
+	public ConfigScope withOverrides(ConfigOverrides overrides) {
 		
-		if (ck.getKind() != Kind.PRIMARY) {
-			
-			Object val = values.get(ck);
-			if (val != null) return val;
-			
-			val = values.get(ck.getPrimary());
-			if (val != null) return val;
-			
-			val = getImpl(ck.getPrimary(), values); // recursive call
-			if (val != null) return val;
-
-			return null;
-			
-		} else {
-			
-			Object val = values.get(ck);
-			if (val != null) return val;
-			
-			for(ConfigKey<?> configKey : ck.getAliases()) {
-				val = values.get(configKey);
-				if (val != null) return val;
-			}
-			
-			for(ConfigKey<?> configKey : ck.getDeprecated()) {
-				val = values.get(configKey);
-				if (val != null) return val;
-			}
-			
-			return null;
+		ConfigKey<?>[] keys = overrides.keys;
+		
+		for(int i = 0; i < keys.length; i++) {
+			enforceConfigKey(keys[i]);
+			checkDeprecated(keys[i]);
+		}
+		
+		ConfigScopeStack stack = scopeStacks.get();
+		
+		if (stack == null) {
+			stack = new ConfigScopeStack(layout, scopes);
+			scopeStacks.set(stack);
 		}
+		
+		return stack.push(overrides);
+	}
+	
+	// the overridden value of the current thread or NONE
+	private Object scoped(ConfigKey<?> configKey, int slot) {
+		ConfigScopeStack stack = ConfigScopeStack.of(scopes, Thread.currentThread());
+		return stack != null ? stack.valueOf(configKey, slot) : ConfigValues.NONE;
 	}
 	
-	private static <T> boolean hasImpl(ConfigKey<T> ck, Map<ConfigKey<?>, Object> values) {
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(ConfigKey<T> configKey) {
 		
-		if (ck.getKind() != Kind.PRIMARY) {
-			
-			boolean has = values.containsKey(ck);
-			if (has) return true;
-			
-			has = values.containsKey(ck.getPrimary());
-			if (has) return true;
-			
-			has = hasImpl(ck.getPrimary(), values); // recursive call
-			if (has) return true;
-
-			return false;
-			
-		} else {
-			
-			boolean has = values.containsKey(ck);
-			if (has) return true;
-			
-			for(ConfigKey<?> configKey : ck.getAliases()) {
-				has = values.containsKey(configKey);
-				if (has) return true;
-			}
-			
-			for(ConfigKey<?> configKey : ck.getDeprecated()) {
-				has = values.containsKey(configKey);
-				if (has) return true;
-			}
-			
-			return false;
-		}
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		Object value = scoped(configKey, slot);
+		if (value != ConfigValues.NONE) return coerceNumber(value, configKey.getType());
+		
+		return (T) values.resolve(slot); // already in the type of this config key
 	}
 	
-	private static boolean collectAndCheckIfDefaultExists(ConfigKey<?> configKey) {
-
-		if (!configKey.isRequired()) return true; // it has a default!
+	// for InternalReads, no listeners and no scopes
+	@Override
+	public Object peek(ConfigKey<?> configKey) {
+		return values.resolve(enforceConfigKey(configKey));
+	}
+	
+	@Override
+	public Object peekOrElse(ConfigKey<?> configKey, Object notFound) {
+		return values.resolveOrElse(enforceConfigKey(configKey), notFound);
+	}
+	
+	@Override
+	public boolean peekHas(ConfigKey<?> configKey) {
+		return values.hasValue(enforceConfigKey(configKey));
+	}
+	
+	@Override
+	public boolean peekHasDefault(ConfigKey<?> configKey) {
+		return values.hasDefault(enforceConfigKey(configKey));
+	}
+	
+	@Override
+	public Object peekDefault(ConfigKey<?> configKey) {
+		return values.getDefault(enforceConfigKey(configKey));
+	}
+	
+	@Override
+	public boolean peekHasQualified(ConfigKey<?> configKey, long qualifier) {
+		return values.hasQualifiedValue(enforceConfigKey(configKey), qualifier);
+	}
+	
+	@Override
+	public Object peekQualified(ConfigKey<?> configKey, long qualifier) {
+		return values.resolve(enforceConfigKey(configKey), qualifier);
+	}
+	
+	private long resolveBits(ConfigKey<?> configKey) {
 		
-		// well, see if its primary has a default..
-		if (configKey.getKind() != Kind.PRIMARY) {
-			ConfigKey<?> primaryKey = configKey.getPrimary();
-			if (!primaryKey.isRequired()) {
-				return true;
-			}
-			
-		} else { // PRIMARY KEY
-			
-			Set<Object> collect = new HashSet<Object>();
-			
-			for(ConfigKey<?> ck : configKey.getAliases()) {
-				if (!ck.isRequired()) collect.add(ck.getDefaultValue());
-			}
-			
-			for(ConfigKey<?> ck : configKey.getDeprecated()) {
-				if (!ck.isRequired()) collect.add(ck.getDefaultValue());
-			}
-			
-			if (collect.size() == 1) return true;
-		}
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		Object value = scoped(configKey, slot);
+		if (value != ConfigValues.NONE) return ConfigValues.toBits(value, layout.typeAt(slot));
 		
-		return false;
+		return values.resolveBits(slot);
 	}
 	
 	@Override
-	public <T> T get(ConfigKey<T> configKey) {
+	public boolean getBoolean(ConfigKey<Boolean> configKey) {
+		return resolveBits(configKey) != 0;
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey) {
+		return (char) resolveBits(configKey);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey) {
+		return (byte) resolveBits(configKey);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey) {
+		return (short) resolveBits(configKey);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey) {
+		return (int) resolveBits(configKey);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey) {
+		return resolveBits(configKey);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey) {
+		return (float) Double.longBitsToDouble(resolveBits(configKey));
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey) {
+		return Double.longBitsToDouble(resolveBits(configKey));
+	}
+	
+	/**
+	 * Adds a qualified value to the given <code>ConfigKey</code>, for example a value for one instrument id. Qualified values are shared by the
+	 * group of the <code>ConfigKey</code> (primary, aliases and deprecated keys) and are kept in the type of the primary.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> for which a qualified value will be added
+	 * @param qualifier the qualifier
+	 * @param value the value for the given qualifier
+	 * @return a previous value that was added for the given qualifier or null if there was none
+	 */
+	public <T> T addQualified(ConfigKey<T> configKey, long qualifier, T value) {
+		
+		int slot = enforceConfigKey(configKey);
 		
-		enforceConfigKey(configKey);
+		enforceValue(configKey, value);
 		
 		checkDeprecated(configKey);
 		
-		Object val = getImpl(configKey, values);
-		if (val != null) return coerceNumber(val, configKey.getType());
+		Object prev = values.putQualified(slot, qualifier, value);
+		changed(configKey);
+		return prev != ConfigValues.NONE ? configKey.getType().cast(prev) : null;
+	}
+	
+	/**
+	 * Removes the qualified value of the given <code>ConfigKey</code> for the given qualifier.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> for which the qualified value will be removed
+	 * @param qualifier the qualifier
+	 * @return a previous value that was added for the given qualifier or null if there was none
+	 */
+	public <T> T removeQualified(ConfigKey<T> configKey, long qualifier) {
 		
-		// check if it will return a default:
-		boolean willReturnDefault = collectAndCheckIfDefaultExists(configKey);
-		if (willReturnDefault) {
-			if (hasImpl(configKey, overwrittenDefaults)) {
-				val = getImpl(configKey, overwrittenDefaults);
-				return coerceNumber(val, configKey.getType());
-			}
-		} else {
-			// let it roll (there is some redundant logic ahead, but for simplicity let it roll
-		}
+		int slot = enforceConfigKey(configKey);
 		
-		if (configKey.isRequired()) {
-			
-			// well, see if its primary has a default..
-			if (configKey.getKind() != Kind.PRIMARY) {
-				ConfigKey<?> primaryKey = configKey.getPrimary();
-				if (!primaryKey.isRequired()) {
-					return coerceNumber(primaryKey.getDefaultValue(), configKey.getType());
-				}
-				
-			} else { // PRIMARY KEY
-				
-				Set<Object> collect = new HashSet<Object>();
-				
-				for(ConfigKey<?> ck : configKey.getAliases()) {
-					if (!ck.isRequired()) collect.add(ck.getDefaultValue());
-				}
-				
-				for(ConfigKey<?> ck : configKey.getDeprecated()) {
-					if (!ck.isRequired()) collect.add(ck.getDefaultValue());
-				}
-				
-				if (collect.size() == 1) {
-					val = collect.iterator().next();
-					return coerceNumber(val, configKey.getType());
-				} else if (collect.size() > 1) {
-					throw new RuntimeException("More than one default value found!" +
-							" configKey=" + configKey + " numberOfDefaults=" + collect.size());
-				}
-			}
-			
-			throw new RuntimeException("Expected config key not found!" +
-									" configKey=" + configKey);
-		}
+		checkDeprecated(configKey);
 		
-		if (hasImpl(configKey, overwrittenDefaults)) {
-			val = getImpl(configKey, overwrittenDefaults);
-			if (val != null) {
-				return coerceNumber(val, configKey.getType());
-			} else {
-				return null; // Defaults can contain NULL !!!
-			}
-		}
+		Object prev = values.removeQualified(slot, qualifier);
+		if (prev != ConfigValues.NONE) changed(configKey);
+		return prev != ConfigValues.NONE ? configKey.getType().cast(prev) : null;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T get(ConfigKey<T> configKey, long qualifier) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		Object value = scoped(configKey, slot);
+		if (value != ConfigValues.NONE) return coerceNumber(value, configKey.getType());
+		
+		return (T) values.resolve(slot, qualifier);
+	}
+	
+	private long resolveBits(ConfigKey<?> configKey, long qualifier) {
+		
+		int slot = enforceConfigKey(configKey);
 		
-		return configKey.getDefaultValue();
+		checkDeprecated(configKey);
+		
+		Object value = scoped(configKey, slot);
+		if (value != ConfigValues.NONE) return ConfigValues.toBits(value, layout.typeAt(slot));
+		
+		return values.resolveBits(slot, qualifier);
+	}
+	
+	@Override
+	public boolean getBoolean(ConfigKey<Boolean> configKey, long qualifier) {
+		return resolveBits(configKey, qualifier) != 0;
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey, long qualifier) {
+		return (char) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey, long qualifier) {
+		return (byte) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey, long qualifier) {
+		return (short) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey, long qualifier) {
+		return (int) resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey, long qualifier) {
+		return resolveBits(configKey, qualifier);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey, long qualifier) {
+		return (float) Double.longBitsToDouble(resolveBits(configKey, qualifier));
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey, long qualifier) {
+		return Double.longBitsToDouble(resolveBits(configKey, qualifier));
 	}
 	
 	@Override
 	public boolean has(ConfigKey<?> configKey) {
 		
-		enforceConfigKey(configKey);
+		int slot = enforceConfigKey(configKey);
 		
 		checkDeprecated(configKey);
 		
-		return hasImpl(configKey, values);
+		if (scoped(configKey, slot) != ConfigValues.NONE) return true;
+		
+		return values.hasValue(slot);
 	}
 	
 	@Override
 	public int size() {
 		return values.size();
 	}
+	
+	@Override
+	public long epoch() {
+		return values.epoch();
+	}
+	
+	@Override
+	public long epoch(Class<?> holder) {
+		int index = layout.indexOfHolder(holder);
+		if (index < 0) throw new IllegalArgumentException("Not a holder of this configuration: " + holder);
+		return values.epoch(index);
+	}
+	
+	@Override
+	public <T> ConfigConstant<T> constant(ConfigKey<T> configKey) {
+		return constants.of(configKey);
+	}
+	
+	// for LayeredConfiguration, called with the config key that was changed or null if many config keys may have changed
+	@Override
+	public void addChangeHook(Consumer<ConfigKey<?>> hook) {
+		changeHooks.add(hook);
+	}
+	
+	@Override
+	public void removeChangeHook(Consumer<ConfigKey<?>> hook) {
+		changeHooks.remove(hook);
+	}
+	
+	private void changed(ConfigKey<?> configKey) {
+		constants.refresh(configKey);
+		for(Consumer<ConfigKey<?>> changeHook : changeHooks) changeHook.accept(configKey); // a snapshot, hooks can be removed meanwhile
+	}
 
+	/**
+	 * Returns an immutable snapshot of this configuration, with the effective value of every <code>ConfigKey</code> already resolved.
+	 * Reading from the snapshot never locks. Later changes to this configuration are not seen by the snapshot.
+	 * The deprecated listeners currently registered are carried over to the snapshot.
+	 * 
+	 * @return an immutable snapshot of this configuration
+	 */
+	public FrozenConfiguration freeze() {
+		return new FrozenConfiguration(layout, values, listeners);
+	}
+	
 	@Override
 	public Set<ConfigKey<?>> keys() {
 		// let's be thread-safe here and return a new Set each time...
-		synchronized(values) {
-			return new HashSet<ConfigKey<?>>(values.keySet());
-		}
+		Set<ConfigKey<?>> set = new HashSet<ConfigKey<?>>();
+		values.collectKeys(set);
+		return set;
 	}
 }
\ No newline at end of file
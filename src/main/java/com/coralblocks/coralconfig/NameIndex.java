@@ -0,0 +1,87 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.List;
+
+/**
+ * An open-addressing hash table of <code>ConfigKey</code>s by param name that can be searched with a range of any <code>CharSequence</code>,
+ * so a name can be resolved straight from the text being parsed, without creating a <code>String</code> for it.
+ */
+final class NameIndex {
+
+	private final ConfigKey<?>[] configKeys;
+	private final int[] hashes;
+	private final int mask;
+
+	NameIndex(List<ConfigKey<?>> list) {
+		int capacity = Integer.highestOneBit(Math.max(2, list.size() * 2) - 1) << 1; // load factor of at most 0.5
+		this.configKeys = new ConfigKey<?>[capacity];
+		this.hashes = new int[capacity];
+		this.mask = capacity - 1;
+		for(ConfigKey<?> configKey : list) {
+			String name = configKey.getParamName();
+			int hash = hash(name, 0, name.length());
+			int index = hash & mask;
+			while(configKeys[index] != null) {
+				if (hashes[index] == hash && configKeys[index].getParamName().equals(name)) {
+					throw new IllegalStateException("Duplicate config key name: " + name);
+				}
+				index = (index + 1) & mask;
+			}
+			configKeys[index] = configKey;
+			hashes[index] = hash;
+		}
+	}
+
+	// Same as String.hashCode
+	private static int hash(CharSequence chars, int start, int end) {
+		int hash = 0;
+		for(int i = start; i < end; i++) hash = 31 * hash + chars.charAt(i);
+		return hash;
+	}
+
+	ConfigKey<?> get(CharSequence name) {
+		return get(name, 0, name.length());
+	}
+
+	/**
+	 * Returns the <code>ConfigKey</code> whose param name is the given range of chars.
+	 *
+	 * @param chars the chars holding the name
+	 * @param start the index of the first char of the name (inclusive)
+	 * @param end the index of the last char of the name (exclusive)
+	 * @return the <code>ConfigKey</code> or null if there is none with this name
+	 */
+	ConfigKey<?> get(CharSequence chars, int start, int end) {
+		int hash = hash(chars, start, end);
+		int index = hash & mask;
+		ConfigKey<?> configKey;
+		while((configKey = configKeys[index]) != null) {
+			if (hashes[index] == hash && matches(configKey.getParamName(), chars, start, end)) return configKey;
+			index = (index + 1) & mask;
+		}
+		return null;
+	}
+
+	private static boolean matches(String name, CharSequence chars, int start, int end) {
+		if (name.length() != end - start) return false;
+		for(int i = 0; i < name.length(); i++) {
+			if (name.charAt(i) != chars.charAt(start + i)) return false;
+		}
+		return true;
+	}
+}
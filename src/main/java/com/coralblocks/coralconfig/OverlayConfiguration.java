@@ -0,0 +1,655 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * A <code>Configuration</code> that stores only its differences (deltas) against a shared base configuration, for when many configurations
+ * (for example one per account) differ from a common base in just a few <code>ConfigKey</code>s.
+ * <br/><br/>
+ * The deltas are kept in a sorted <code>int[]</code> of slots with a parallel <code>Object[]</code> of values, so an overlay with no deltas
+ * costs a few dozen bytes and each delta a few more. Reads of a <code>ConfigKey</code> without deltas in its group go straight to the base,
+ * otherwise they take a binary search per member of the group. Writes copy the (small) delta arrays and swap them in, so reads never lock.
+ * <br/><br/>
+ * A value added to the overlay wins over any value of the base for the same group (primary, aliases and deprecated keys), and among the deltas
+ * the usual group order applies. Removing a <code>ConfigKey</code> removes the delta, so the value of the base shows through again. The same goes
+ * for overwritten defaults, which apply when neither the overlay nor the base has a configured value. Changes to the base are seen by the overlay.
+ * <br/><br/>
+ * An overlay can back <code>ConfigConstant</code>s and be a layer of a <code>LayeredConfiguration</code>. Only then it listens to the changes of
+ * its base, so the base keeps a reference to it, and the overlays that are only read cost the base nothing. The changes of a base that is not
+ * one of the configurations of this package cannot be seen this way, so only the changes made to the overlay are reported for it.
+ */
+public class OverlayConfiguration implements Configuration, InternalConfiguration {
+	
+	private static final Object NONE = new Object();
+	private static final DeprecatedListener[] NO_LISTENERS = new DeprecatedListener[0];
+	
+	private final Configuration base;
+	private final ConfigLayout layout;
+	private volatile Deltas values = Deltas.EMPTY; // only written when holding the lock of this
+	private volatile Deltas defaults = Deltas.EMPTY; // same
+	private volatile DeprecatedListener[] listeners = NO_LISTENERS; // same
+	private volatile long epoch; // same
+	private final ConfigConstants constants = new ConfigConstants(this);
+	private final CopyOnWriteArrayList<Consumer<ConfigKey<?>>> changeHooks = new CopyOnWriteArrayList<Consumer<ConfigKey<?>>>();
+	private final Consumer<ConfigKey<?>> baseHook = this::changed; // registered on the base while there are constants or hooks
+	private boolean listening; // only accessed when holding the lock of this
+	
+	/**
+	 * Creates a new <code>OverlayConfiguration</code> with no deltas on top of the given base.
+	 * 
+	 * @param base the shared base configuration
+	 */
+	public OverlayConfiguration(Configuration base) {
+		this.base = base;
+		this.layout = ConfigLayout.of(base.getHolders()); // cached, so all the overlays of a base share it
+	}
+	
+	/**
+	 * Returns the base configuration of this overlay.
+	 * 
+	 * @return the base configuration
+	 */
+	public Configuration getBase() {
+		return base;
+	}
+	
+	/**
+	 * Returns the number of deltas (configured values plus overwritten defaults) that this overlay holds.
+	 * 
+	 * @return the number of deltas
+	 */
+	public int deltaCount() {
+		return values.slots.length + defaults.slots.length;
+	}
+	
+	private int enforceConfigKey(ConfigKey<?> configKey) {
+		return MapConfiguration.enforceConfigKey(layout, configKey);
+	}
+	
+	private <T> void checkDeprecated(ConfigKey<T> configKey) {
+		MapConfiguration.checkDeprecated(listeners, configKey);
+	}
+	
+	/*
+	 * Returns the value of the overlay for the given config key, in the type of the member of the group it was added to, or NONE if
+	 * the value comes from the base.
+	 */
+	private Object override(ConfigKey<?> configKey, int slot) {
+		Deltas v = values, d = defaults;
+		if (v.slots.length == 0 && d.slots.length == 0) return NONE;
+		Object value = configured(v, configKey, slot);
+		if (value != NONE || d.slots.length == 0 || !configKey.willReturnDefault || InternalReads.has(base, configKey)) return value; // not a read of the base
+		return overwrittenDefault(d, configKey, slot);
+	}
+	
+	/*
+	 * Same for a read with a qualifier, where a qualified value of the base wins over the overwritten defaults of the overlay, like a value of the base.
+	 */
+	private Object override(ConfigKey<?> configKey, int slot, long qualifier) {
+		Deltas v = values, d = defaults;
+		if (v.slots.length == 0 && d.slots.length == 0) return NONE;
+		Object value = configured(v, configKey, slot);
+		if (value != NONE || d.slots.length == 0 || !configKey.willReturnDefault) return value;
+		if (InternalReads.has(base, configKey) || InternalReads.hasQualified(base, configKey, qualifier)) return NONE; // not a read of the base
+		return overwrittenDefault(d, configKey, slot);
+	}
+	
+	private static Object configured(Deltas v, ConfigKey<?> configKey, int slot) {
+		int group = slot - configKey.ordinal;
+		int[] lookup = configKey.lookup;
+		for(int i = 0; i < lookup.length; i++) {
+			int index = v.indexOf(group + lookup[i]);
+			if (index >= 0) return v.values[index];
+		}
+		return NONE;
+	}
+	
+	private static Object overwrittenDefault(Deltas d, ConfigKey<?> configKey, int slot) {
+		int group = slot - configKey.ordinal;
+		int[] lookup = configKey.lookup;
+		boolean hasNull = false;
+		for(int i = 0; i < lookup.length; i++) {
+			int index = d.indexOf(group + lookup[i]);
+			if (index >= 0) {
+				if (d.values[index] != null) return d.values[index];
+				hasNull = true;
+			}
+		}
+		return hasNull ? null : NONE; // Defaults can contain NULL !!!
+	}
+	
+	private Object override(ConfigKey<?> configKey) {
+		int slot = enforceConfigKey(configKey);
+		checkDeprecated(configKey);
+		return override(configKey, slot);
+	}
+	
+	private Object override(ConfigKey<?> configKey, long qualifier) {
+		int slot = enforceConfigKey(configKey);
+		checkDeprecated(configKey);
+		return override(configKey, slot, qualifier);
+	}
+	
+	// same as above, for the primitive getters, which cannot return null
+	private Object overridePrimitive(ConfigKey<?> configKey) {
+		return nonNull(override(configKey), configKey);
+	}
+	
+	private Object overridePrimitive(ConfigKey<?> configKey, long qualifier) {
+		return nonNull(override(configKey, qualifier), configKey);
+	}
+	
+	private static Object nonNull(Object value, ConfigKey<?> configKey) {
+		if (value == null) {
+			throw new NullPointerException("The value is null!" +
+					" configKey=" + configKey);
+		}
+		return value;
+	}
+	
+	/**
+	 * Adds a given value to the given <code>ConfigKey</code> for this overlay, overriding the value of the base.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> for which a value will be added to this overlay
+	 * @param value the value to be added for the given <code>ConfigKey</code>
+	 * @return a previous value that was added to this overlay for the given <code>ConfigKey</code> or null if there was none
+	 */
+	public <T> T add(ConfigKey<T> configKey, T value) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		if (value == null) {
+			throw new RuntimeException("Null values are not allowed! (You should remove the config key from the configuration instead)" + 
+									   " configKey=" + configKey);
+		}
+		
+		checkDeprecated(configKey);
+		
+		Object prev;
+		synchronized(this) {
+			prev = values.get(slot);
+			values = values.with(slot, value);
+			epoch++;
+		}
+		changed(configKey);
+		return prev != NONE ? configKey.getType().cast(prev) : null;
+	}
+	
+	/**
+	 * Removes the value of this overlay for the given <code>ConfigKey</code>, so that the value of the base shows through again.
+	 * 
+	 * @param <T> the type of this <code>ConfigKey</code> which can be a Java primitive wrapper (Integer, Short, etc.), a String and an Enum.
+	 * @param configKey the <code>ConfigKey</code> for which the value will be removed
+	 * @return a previous value that was added to this overlay for the given <code>ConfigKey</code> or null if there was none
+	 */
+	public <T> T remove(ConfigKey<T> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		Object prev;
+		synchronized(this) {
+			prev = values.get(slot);
+			if (prev == NONE) return null;
+			values = values.without(slot);
+			epoch++;
+		}
+		changed(configKey);
+		return configKey.getType().cast(prev);
+	}
+	
+	@Override
+	public <T> boolean overwriteDefault(ConfigKey<T> configKey, T defaultValue) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		if (defaultValue == null && configKey.getType() != String.class && !configKey.getType().isEnum()) {
+			throw new RuntimeException("Null default values are only allowed for Strings and Enums!" + 
+					   " configKey=" + configKey);
+		}
+		
+		checkDeprecated(configKey);
+		
+		if (!configKey.willReturnDefault) {
+			throw new IllegalStateException("The configKey will not (or cannot) return a default value, so it cannot be overwritten! " +
+											" configKey=" + configKey + " defaultValue=" + defaultValue);
+		}
+		
+		boolean overwritten;
+		synchronized(this) {
+			overwritten = defaults.get(slot) != NONE;
+			defaults = defaults.with(slot, defaultValue);
+			epoch++;
+		}
+		changed(configKey);
+		return overwritten;
+	}
+	
+	@Override
+	public <T> boolean removeOverwrittenDefault(ConfigKey<T> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		synchronized(this) {
+			if (defaults.get(slot) == NONE) return false;
+			defaults = defaults.without(slot);
+			epoch++;
+		}
+		changed(configKey);
+		return true;
+	}
+	
+	/**
+	 * Removes the overwritten defaults of this overlay. The overwritten defaults of the base are not changed.
+	 */
+	@Override
+	public void removeAllOverwrittenDefaults() {
+		synchronized(this) {
+			if (defaults.slots.length == 0) return;
+			defaults = Deltas.EMPTY;
+			epoch++;
+		}
+		changed(null);
+	}
+	
+	@Override
+	public List<ConfigKey<?>> allConfigKeys() {
+		return layout.allConfigKeys();
+	}
+	
+	@Override
+	public void addListener(DeprecatedListener listener) {
+		synchronized(this) {
+			if (Arrays.asList(listeners).contains(listener)) return;
+			DeprecatedListener[] array = Arrays.copyOf(listeners, listeners.length + 1);
+			array[array.length - 1] = listener;
+			listeners = array;
+		}
+	}
+	
+	@Override
+	public void removeListener(DeprecatedListener listener) {
+		synchronized(this) {
+			List<DeprecatedListener> list = new ArrayList<DeprecatedListener>(Arrays.asList(listeners));
+			if (list.remove(listener)) listeners = list.isEmpty() ? NO_LISTENERS : list.toArray(new DeprecatedListener[list.size()]);
+		}
+	}
+	
+	@Override
+	public Set<ConfigKey<?>> keysWithOverwrittenDefault() {
+		Set<ConfigKey<?>> set = new HashSet<ConfigKey<?>>(base.keysWithOverwrittenDefault());
+		defaults.collectKeys(layout, set);
+		return Collections.unmodifiableSet(set);
+	}
+	
+	@Override
+	public <T> T getOverwrittenDefault(ConfigKey<T> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return configKey.getType().cast(peekDefault(configKey, slot));
+	}
+	
+	@Override
+	public <T> boolean hasOverwrittenDefault(ConfigKey<T> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return peekHasDefault(configKey, slot);
+	}
+	
+	@Override
+	public Class<?>[] getHolders() {
+		return layout.getHolders();
+	}
+	
+	@Override
+	public <T> T get(ConfigKey<T> configKey) {
+		Object value = override(configKey);
+		if (value == NONE) return base.get(configKey);
+		return MapConfiguration.coerceNumber(value, configKey.getType()); // deprecated keys can have a different number type
+	}
+	
+	@Override
+	public boolean getBoolean(ConfigKey<Boolean> configKey) {
+		Object value = overridePrimitive(configKey);
+		return value != NONE ? (Boolean) value : base.getBoolean(configKey);
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey) {
+		Object value = overridePrimitive(configKey);
+		return value != NONE ? (Character) value : base.getChar(configKey);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey) {
+		Object value = overridePrimitive(configKey);
+		return value != NONE ? ((Number) value).byteValue() : base.getByte(configKey);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey) {
+		Object value = overridePrimitive(configKey);
+		return value != NONE ? ((Number) value).shortValue() : base.getShort(configKey);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey) {
+		Object value = overridePrimitive(configKey);
+		return value != NONE ? ((Number) value).intValue() : base.getInt(configKey);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey) {
+		Object value = overridePrimitive(configKey);
+		return value != NONE ? ((Number) value).longValue() : base.getLong(configKey);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey) {
+		Object value = overridePrimitive(configKey);
+		return value != NONE ? ((Number) value).floatValue() : base.getFloat(configKey);
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey) {
+		Object value = overridePrimitive(configKey);
+		return value != NONE ? ((Number) value).doubleValue() : base.getDouble(configKey);
+	}
+	
+	@Override
+	public <T> T get(ConfigKey<T> configKey, long qualifier) {
+		Object value = override(configKey, qualifier);
+		if (value == NONE) return base.get(configKey, qualifier);
+		return MapConfiguration.coerceNumber(value, configKey.getType());
+	}
+	
+	@Override
+	public boolean getBoolean(ConfigKey<Boolean> configKey, long qualifier) {
+		Object value = overridePrimitive(configKey, qualifier);
+		return value != NONE ? (Boolean) value : base.getBoolean(configKey, qualifier);
+	}
+	
+	@Override
+	public char getChar(ConfigKey<Character> configKey, long qualifier) {
+		Object value = overridePrimitive(configKey, qualifier);
+		return value != NONE ? (Character) value : base.getChar(configKey, qualifier);
+	}
+	
+	@Override
+	public byte getByte(ConfigKey<Byte> configKey, long qualifier) {
+		Object value = overridePrimitive(configKey, qualifier);
+		return value != NONE ? ((Number) value).byteValue() : base.getByte(configKey, qualifier);
+	}
+	
+	@Override
+	public short getShort(ConfigKey<Short> configKey, long qualifier) {
+		Object value = overridePrimitive(configKey, qualifier);
+		return value != NONE ? ((Number) value).shortValue() : base.getShort(configKey, qualifier);
+	}
+	
+	@Override
+	public int getInt(ConfigKey<Integer> configKey, long qualifier) {
+		Object value = overridePrimitive(configKey, qualifier);
+		return value != NONE ? ((Number) value).intValue() : base.getInt(configKey, qualifier);
+	}
+	
+	@Override
+	public long getLong(ConfigKey<Long> configKey, long qualifier) {
+		Object value = overridePrimitive(configKey, qualifier);
+		return value != NONE ? ((Number) value).longValue() : base.getLong(configKey, qualifier);
+	}
+	
+	@Override
+	public float getFloat(ConfigKey<Float> configKey, long qualifier) {
+		Object value = overridePrimitive(configKey, qualifier);
+		return value != NONE ? ((Number) value).floatValue() : base.getFloat(configKey, qualifier);
+	}
+	
+	@Override
+	public double getDouble(ConfigKey<Double> configKey, long qualifier) {
+		Object value = overridePrimitive(configKey, qualifier);
+		return value != NONE ? ((Number) value).doubleValue() : base.getDouble(configKey, qualifier);
+	}
+	
+	@Override
+	public boolean has(ConfigKey<?> configKey) {
+		
+		int slot = enforceConfigKey(configKey);
+		
+		checkDeprecated(configKey);
+		
+		return peekHas(configKey, slot);
+	}
+	
+	// for InternalReads, no listeners
+	@Override
+	public Object peek(ConfigKey<?> configKey) {
+		Object value = override(configKey, enforceConfigKey(configKey));
+		if (value == NONE) return InternalReads.get(base, configKey);
+		return MapConfiguration.coerceNumber(value, configKey.getType());
+	}
+	
+	@Override
+	public Object peekOrElse(ConfigKey<?> configKey, Object notFound) {
+		Object value = override(configKey, enforceConfigKey(configKey));
+		if (value == NONE) return InternalReads.getOrElse(base, configKey, notFound);
+		return MapConfiguration.coerceNumber(value, configKey.getType());
+	}
+	
+	@Override
+	public boolean peekHas(ConfigKey<?> configKey) {
+		return peekHas(configKey, enforceConfigKey(configKey));
+	}
+	
+	private boolean peekHas(ConfigKey<?> configKey, int slot) {
+		Deltas v = values;
+		int group = slot - configKey.ordinal;
+		for(int ordinal : configKey.lookup) {
+			if (v.indexOf(group + ordinal) >= 0) return true;
+		}
+		return InternalReads.has(base, configKey);
+	}
+	
+	@Override
+	public boolean peekHasDefault(ConfigKey<?> configKey) {
+		return peekHasDefault(configKey, enforceConfigKey(configKey));
+	}
+	
+	private boolean peekHasDefault(ConfigKey<?> configKey, int slot) {
+		return defaults.get(slot) != NONE || InternalReads.hasOverwrittenDefault(base, configKey);
+	}
+	
+	@Override
+	public Object peekDefault(ConfigKey<?> configKey) {
+		return peekDefault(configKey, enforceConfigKey(configKey));
+	}
+	
+	private Object peekDefault(ConfigKey<?> configKey, int slot) {
+		Object value = defaults.get(slot);
+		return value != NONE ? value : InternalReads.getOverwrittenDefault(base, configKey);
+	}
+	
+	@Override
+	public boolean peekHasQualified(ConfigKey<?> configKey, long qualifier) {
+		enforceConfigKey(configKey);
+		return InternalReads.hasQualified(base, configKey, qualifier); // the overlay has no qualified values of its own
+	}
+	
+	@Override
+	public Object peekQualified(ConfigKey<?> configKey, long qualifier) {
+		Object value = override(configKey, enforceConfigKey(configKey), qualifier);
+		if (value == NONE) return InternalReads.getQualified(base, configKey, qualifier);
+		return MapConfiguration.coerceNumber(value, configKey.getType());
+	}
+	
+	@Override
+	public <T> ConfigConstant<T> constant(ConfigKey<T> configKey) {
+		synchronized(this) {
+			listenToBase();
+		}
+		return constants.of(configKey);
+	}
+	
+	// for LayeredConfiguration, called with the config key that was changed or null if many config keys may have changed
+	@Override
+	public void addChangeHook(Consumer<ConfigKey<?>> hook) {
+		synchronized(this) {
+			changeHooks.add(hook);
+			listenToBase();
+		}
+	}
+	
+	@Override
+	public void removeChangeHook(Consumer<ConfigKey<?>> hook) {
+		synchronized(this) {
+			changeHooks.remove(hook);
+			if (listening && changeHooks.isEmpty() && constants.isEmpty()) {
+				((InternalConfiguration) base).removeChangeHook(baseHook);
+				listening = false;
+			}
+		}
+	}
+	
+	// must hold the lock of this
+	private void listenToBase() {
+		if (!listening && base instanceof InternalConfiguration) {
+			((InternalConfiguration) base).addChangeHook(baseHook);
+			listening = true;
+		}
+	}
+	
+	// called after a change to this overlay or to its base
+	private void changed(ConfigKey<?> configKey) {
+		constants.refresh(configKey);
+		for(Consumer<ConfigKey<?>> changeHook : changeHooks) changeHook.accept(configKey); // a snapshot, hooks can be removed meanwhile
+	}
+	
+	@Override
+	public int size() {
+		return keys().size();
+	}
+	
+	/**
+	 * Returns the epoch of this overlay, which is the epoch of the base plus the number of changes made to this overlay.
+	 * If the base does not track its changes, this returns <code>UNTRACKED_EPOCH</code> too.
+	 * 
+	 * @return the current epoch of this overlay
+	 */
+	@Override
+	public long epoch() {
+		long baseEpoch = base.epoch();
+		return baseEpoch == UNTRACKED_EPOCH ? UNTRACKED_EPOCH : baseEpoch + epoch;
+	}
+	
+	/**
+	 * Returns the epoch of the given holder in the base plus the number of changes made to this overlay, for any holder.
+	 * So it can increase when another holder changes in this overlay, but it never misses a change.
+	 * 
+	 * @param holder one of the holder classes of this configuration
+	 * @return the current epoch of the given holder
+	 */
+	@Override
+	public long epoch(Class<?> holder) {
+		long baseEpoch = base.epoch(holder);
+		return baseEpoch == UNTRACKED_EPOCH ? UNTRACKED_EPOCH : baseEpoch + epoch;
+	}
+	
+	@Override
+	public Set<ConfigKey<?>> keys() {
+		Set<ConfigKey<?>> set = new HashSet<ConfigKey<?>>(base.keys());
+		values.collectKeys(layout, set);
+		return Collections.unmodifiableSet(set);
+	}
+	
+	/*
+	 * An immutable sorted array of slots with a parallel array of values.
+	 */
+	private static final class Deltas {
+		
+		static final Deltas EMPTY = new Deltas(new int[0], new Object[0]);
+		
+		final int[] slots;
+		final Object[] values;
+		
+		Deltas(int[] slots, Object[] values) {
+			this.slots = slots;
+			this.values = values;
+		}
+		
+		int indexOf(int slot) {
+			return slots.length == 0 ? -1 : Arrays.binarySearch(slots, slot);
+		}
+		
+		Object get(int slot) {
+			int index = indexOf(slot);
+			return index >= 0 ? values[index] : NONE;
+		}
+		
+		Deltas with(int slot, Object value) {
+			int index = indexOf(slot);
+			if (index >= 0) {
+				Object[] newValues = values.clone();
+				newValues[index] = value;
+				return new Deltas(slots, newValues);
+			}
+			int insert = -index - 1;
+			int[] newSlots = new int[slots.length + 1];
+			Object[] newValues = new Object[values.length + 1];
+			System.arraycopy(slots, 0, newSlots, 0, insert);
+			System.arraycopy(values, 0, newValues, 0, insert);
+			newSlots[insert] = slot;
+			newValues[insert] = value;
+			System.arraycopy(slots, insert, newSlots, insert + 1, slots.length - insert);
+			System.arraycopy(values, insert, newValues, insert + 1, values.length - insert);
+			return new Deltas(newSlots, newValues);
+		}
+		
+		Deltas without(int slot) {
+			int index = indexOf(slot);
+			if (slots.length == 1) return EMPTY;
+			int[] newSlots = new int[slots.length - 1];
+			Object[] newValues = new Object[values.length - 1];
+			System.arraycopy(slots, 0, newSlots, 0, index);
+			System.arraycopy(values, 0, newValues, 0, index);
+			System.arraycopy(slots, index + 1, newSlots, index, slots.length - index - 1);
+			System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+			return new Deltas(newSlots, newValues);
+		}
+		
+		void collectKeys(ConfigLayout layout, Set<ConfigKey<?>> set) {
+			for(int slot : slots) set.add(layout.keyAt(slot));
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+/**
+ * A single-pass scanner for params like <code>"myInteger1=2 myString=blah myEnum=BALL myFloat3=3.12"</code>.
+ * <br/><br/>
+ * Pairs are separated by whitespace. A value can be quoted with double or single quotes to hold whitespace, and inside quotes a backslash
+ * escapes the next char (<code>\n</code>, <code>\t</code> and <code>\r</code> are also understood). An unquoted value is taken literally,
+ * so it can contain <code>=</code> and backslashes (<code>path=C:\temp\new</code>).
+ * Names are resolved straight from the params through the name index of the layout, without creating a <code>String</code> for them.
+ * The value of the current pair is exposed as a range of chars, which points into the params themselves unless the value had escapes.
+ */
+final class ParamsScanner {
+
+	private final ConfigLayout layout;
+	private final StringBuilder unescaped = new StringBuilder();
+	private CharSequence params;
+	private int pos;
+	private int end;
+	private ConfigKey<?> configKey;
+	private CharSequence value;
+	private int valueStart;
+	private int valueEnd;
+
+	ParamsScanner(ConfigLayout layout) {
+		this.layout = layout;
+	}
+
+	ParamsScanner reset(CharSequence params) {
+		return reset(params, 0, params.length());
+	}
+
+	/**
+	 * Starts scanning the given range of chars.
+	 *
+	 * @param params the chars holding the params
+	 * @param start the index of the first char to scan (inclusive)
+	 * @param end the index of the last char to scan (exclusive)
+	 * @return this scanner
+	 */
+	ParamsScanner reset(CharSequence params, int start, int end) {
+		this.params = params;
+		this.pos = start;
+		this.end = end;
+		this.configKey = null;
+		this.value = null;
+		return this;
+	}
+
+	/**
+	 * Moves to the next pair.
+	 *
+	 * @return false if there are no more pairs
+	 * @throws IllegalArgumentException if the params are malformed
+	 * @throws IllegalStateException if a name does not belong to the layout
+	 */
+	boolean next() {
+
+		CharSequence params = this.params;
+		int length = end;
+
+		while(pos < length && Character.isWhitespace(params.charAt(pos))) pos++;
+
+		if (pos == length) return false;
+
+		int nameStart = pos;
+		while(pos < length) {
+			char c = params.charAt(pos);
+			if (c == '=' || Character.isWhitespace(c)) break;
+			pos++;
+		}
+		int nameEnd = pos;
+
+		if (nameStart == nameEnd || pos == length || params.charAt(pos) != '=') {
+			throw invalid(nameStart);
+		}
+
+		pos++; // skip '='
+
+		if (pos < length && (params.charAt(pos) == '"' || params.charAt(pos) == '\'')) {
+			scanQuoted(nameStart);
+		} else {
+			scanUnquoted(nameStart);
+		}
+
+		ConfigKey<?> configKey = layout.getByName(params, nameStart, nameEnd);
+		if (configKey == null) {
+			throw new IllegalStateException("A config key in params does not belong to this configuration: " + params.subSequence(nameStart, nameEnd));
+		}
+		this.configKey = configKey;
+		return true;
+	}
+
+	private void scanUnquoted(int pairStart) {
+		int start = pos;
+		while(pos < end) {
+			char c = params.charAt(pos);
+			if (Character.isWhitespace(c)) break;
+			pos++;
+		}
+		if (start == pos) throw invalid(pairStart);
+		setValue(params, start, pos);
+	}
+
+	private void scanQuoted(int pairStart) {
+		char quote = params.charAt(pos++);
+		int start = pos;
+		while(pos < end) {
+			char c = params.charAt(pos);
+			if (c == quote) {
+				setValue(params, start, pos);
+				pos++;
+				enforceSeparator(pairStart);
+				return;
+			}
+			if (c == '\\') {
+				unescape(start, pairStart, quote);
+				return;
+			}
+			pos++;
+		}
+		throw invalid(pairStart); // unterminated quote
+	}
+
+	// the slow path, only taken by quoted values with escapes
+	private void unescape(int start, int pairStart, char quote) {
+		StringBuilder sb = unescaped;
+		sb.setLength(0);
+		sb.append(params, start, pos);
+		while(pos < end) {
+			char c = params.charAt(pos);
+			if (c == quote) break;
+			if (c == '\\') {
+				if (++pos == end) throw invalid(pairStart);
+				c = params.charAt(pos);
+				switch(c) {
+					case 'n': c = '\n'; break;
+					case 't': c = '\t'; break;
+					case 'r': c = '\r'; break;
+					default: break; // the char itself
+				}
+			}
+			sb.append(c);
+			pos++;
+		}
+		if (pos == end) throw invalid(pairStart); // unterminated quote
+		pos++;
+		enforceSeparator(pairStart);
+		setValue(sb, 0, sb.length());
+	}
+
+	private void enforceSeparator(int pairStart) {
+		if (pos < end && !Character.isWhitespace(params.charAt(pos))) throw invalid(pairStart);
+	}
+
+	private void setValue(CharSequence value, int start, int end) {
+		this.value = value;
+		this.valueStart = start;
+		this.valueEnd = end;
+	}
+
+	private IllegalArgumentException invalid(int pairStart) {
+		int pairEnd = pos;
+		while(pairEnd < end && !Character.isWhitespace(params.charAt(pairEnd))) pairEnd++;
+		return new IllegalArgumentException("The params argument is invalid: " + params + " (" + params.subSequence(pairStart, pairEnd) + ")");
+	}
+
+	ConfigKey<?> configKey() {
+		return configKey;
+	}
+
+	/**
+	 * The chars holding the value of the current pair, from <code>valueStart()</code> to <code>valueEnd()</code>.
+	 * This is either the params themselves or an internal buffer reused by the next pair.
+	 *
+	 * @return the chars holding the value
+	 */
+	CharSequence valueChars() {
+		return value;
+	}
+
+	int valueStart() {
+		return valueStart;
+	}
+
+	int valueEnd() {
+		return valueEnd;
+	}
+
+	String value() {
+		return value.subSequence(valueStart, valueEnd).toString();
+	}
+}
@@ -0,0 +1,209 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+/**
+ * An open-addressing map from a primitive <code>long</code> qualifier (an instrument id, a venue id, etc.) to a value, used for the qualified
+ * values of a <code>ConfigKey</code>. Primitive values are kept as raw bits (see <code>ConfigValues.resolveBits</code>) and Strings and Enums
+ * as references, so neither the qualifier nor the value is ever boxed.
+ * <br/><br/>
+ * Linear probing over a power-of-two table kept at most half full, with backward-shift deletion. Zero is a valid qualifier, so it is kept
+ * apart from the table, at the index right after it. It is not thread-safe: <code>ConfigValues</code> guards it with its lock.
+ */
+final class QualifierMap {
+	
+	private static final int MIN_CAPACITY = 8;
+	
+	private final boolean reference;
+	private final long[] keys;
+	private final long[] bits; // null for references
+	private final Object[] refs; // null for primitives
+	private int size; // not counting the zero qualifier
+	private boolean hasZero;
+	
+	QualifierMap(boolean reference) {
+		this(reference, MIN_CAPACITY);
+	}
+	
+	/*
+	 * The arrays are final and never resized in place, so a reader racing with a writer (see ConfigValues) always sees arrays of
+	 * matching sizes. Growing creates a new map.
+	 */
+	private QualifierMap(boolean reference, int capacity) {
+		this.reference = reference;
+		this.keys = new long[capacity];
+		this.bits = reference ? null : new long[capacity + 1]; // the last one for the zero qualifier
+		this.refs = reference ? new Object[capacity + 1] : null;
+	}
+	
+	private QualifierMap(QualifierMap source) {
+		this.reference = source.reference;
+		this.keys = source.keys.clone();
+		this.bits = source.bits != null ? source.bits.clone() : null;
+		this.refs = source.refs != null ? source.refs.clone() : null;
+		this.size = source.size;
+		this.hasZero = source.hasZero;
+	}
+	
+	QualifierMap copy() {
+		return new QualifierMap(this);
+	}
+	
+	private static int hash(long qualifier) {
+		long h = qualifier * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+	
+	int size() {
+		return size + (hasZero ? 1 : 0);
+	}
+	
+	/**
+	 * Returns the index of the given qualifier, to be passed to <code>bitsAt</code> or <code>refAt</code>.
+	 * 
+	 * @param qualifier the qualifier to look for
+	 * @return the index or -1 if the qualifier is not present
+	 */
+	int indexOf(long qualifier) {
+		if (qualifier == 0) return hasZero ? keys.length : -1;
+		int mask = keys.length - 1;
+		for(int i = hash(qualifier) & mask; ; i = (i + 1) & mask) {
+			long key = keys[i];
+			if (key == qualifier) return i;
+			if (key == 0) return -1;
+		}
+	}
+	
+	long bitsAt(int index) {
+		return bits[index];
+	}
+	
+	Object refAt(int index) {
+		return refs[index];
+	}
+	
+	/**
+	 * Puts the value of the given qualifier, as raw bits for primitives or as a reference for Strings and Enums.
+	 * 
+	 * @param qualifier the qualifier
+	 * @param bitsValue the raw bits of a primitive value (ignored for references)
+	 * @param refValue the reference value (ignored for primitives)
+	 * @return this map or, if this one was full, a bigger copy of it which must replace it
+	 */
+	QualifierMap put(long qualifier, long bitsValue, Object refValue) {
+		int index;
+		if (qualifier == 0) {
+			index = keys.length;
+			hasZero = true;
+		} else {
+			index = indexOf(qualifier);
+			if (index < 0) {
+				if ((size + 1) * 2 > keys.length) return grow().put(qualifier, bitsValue, refValue);
+				int mask = keys.length - 1;
+				index = hash(qualifier) & mask;
+				while(keys[index] != 0) index = (index + 1) & mask;
+				keys[index] = qualifier;
+				size++;
+			}
+		}
+		if (reference) {
+			refs[index] = refValue;
+		} else {
+			bits[index] = bitsValue;
+		}
+		return this;
+	}
+	
+	boolean remove(long qualifier) {
+		if (qualifier == 0) {
+			if (!hasZero) return false;
+			hasZero = false;
+			if (reference) refs[keys.length] = null;
+			return true;
+		}
+		int index = indexOf(qualifier);
+		if (index < 0) return false;
+		int mask = keys.length - 1;
+		// backward-shift deletion, so that no tombstones are needed
+		int hole = index;
+		for(int i = (hole + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+			int home = hash(keys[i]) & mask;
+			if (((i - home) & mask) >= ((i - hole) & mask)) { // the entry at i can move back to the hole
+				keys[hole] = keys[i];
+				if (reference) {
+					refs[hole] = refs[i];
+				} else {
+					bits[hole] = bits[i];
+				}
+				hole = i;
+			}
+		}
+		keys[hole] = 0;
+		if (reference) refs[hole] = null;
+		size--;
+		return true;
+	}
+	
+	/**
+	 * Returns whether the two maps have the same qualifiers with the same values. A null map is the same as an empty one.
+	 * 
+	 * @param a a map or null
+	 * @param b another map or null
+	 * @return true if they have the same entries
+	 */
+	static boolean same(QualifierMap a, QualifierMap b) {
+		if (a == b) return true;
+		int size = a != null ? a.size() : 0;
+		if (size != (b != null ? b.size() : 0)) return false;
+		if (size == 0) return true;
+		if (a.hasZero && !a.sameAt(a.keys.length, b, b.indexOf(0))) return false;
+		for(int i = 0; i < a.keys.length; i++) {
+			if (a.keys[i] != 0 && !a.sameAt(i, b, b.indexOf(a.keys[i]))) return false;
+		}
+		return true;
+	}
+	
+	private boolean sameAt(int index, QualifierMap other, int otherIndex) {
+		if (otherIndex < 0) return false;
+		return reference ? refs[index].equals(other.refs[otherIndex]) : bits[index] == other.bits[otherIndex];
+	}
+	
+	private QualifierMap grow() {
+		int capacity = keys.length * 2;
+		QualifierMap grown = new QualifierMap(reference, capacity);
+		int mask = capacity - 1;
+		for(int i = 0; i < keys.length; i++) {
+			long key = keys[i];
+			if (key == 0) continue;
+			int index = hash(key) & mask;
+			while(grown.keys[index] != 0) index = (index + 1) & mask;
+			grown.keys[index] = key;
+			if (reference) {
+				grown.refs[index] = refs[i];
+			} else {
+				grown.bits[index] = bits[i];
+			}
+		}
+		if (reference) {
+			grown.refs[capacity] = refs[keys.length];
+		} else {
+			grown.bits[capacity] = bits[keys.length];
+		}
+		grown.size = size;
+		grown.hasZero = hasZero;
+		return grown;
+	}
+}
@@ -0,0 +1,194 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+/**
+ * Parses values straight from a range of chars, without creating a <code>String</code>. Not thread-safe, each thread needs its own instance. The results follow the same rules as
+ * <code>ConfigKey.parseValue(String)</code> (<code>Integer.valueOf</code>, <code>Boolean.valueOf</code>, etc.).
+ * <br/><br/>
+ * Numbers, booleans and chars are returned as the raw bits used by <code>ConfigValues</code>. Decimal numbers take an exact fast path
+ * when they have few enough digits and a small exponent, and fall back to <code>Double.parseDouble</code> otherwise.
+ */
+final class ValueParser {
+
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private static final float[] FLOAT_POWERS_OF_TEN = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+
+	private static final long MAX_EXACT_DOUBLE = (1L << 53);
+	private static final long MAX_EXACT_FLOAT = (1L << 24);
+
+	// the last decimal number parsed, as mantissa * 10^exponent
+	private boolean negative;
+	private long mantissa;
+	private int exponent;
+
+	/**
+	 * Parses the value of a primitive <code>ConfigKey</code>.
+	 *
+	 * @param type the type of the slot, see <code>ConfigValues.typeOf</code>
+	 * @param chars the chars holding the value
+	 * @param start the index of the first char of the value (inclusive)
+	 * @param end the index of the last char of the value (exclusive)
+	 * @return the raw bits of the value
+	 * @throws IllegalArgumentException if the value cannot be parsed
+	 */
+	long parseBits(byte type, CharSequence chars, int start, int end) {
+		switch(type) {
+			case ConfigValues.BOOLEAN: return parseBoolean(chars, start, end) ? 1 : 0;
+			case ConfigValues.CHAR:
+				if (end - start != 1) throw new IllegalArgumentException("Invalid char value: " + chars.subSequence(start, end));
+				return chars.charAt(start);
+			case ConfigValues.BYTE: return parseLong(chars, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE);
+			case ConfigValues.SHORT: return parseLong(chars, start, end, Short.MIN_VALUE, Short.MAX_VALUE);
+			case ConfigValues.INT: return parseLong(chars, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+			case ConfigValues.LONG: return parseLong(chars, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+			case ConfigValues.FLOAT: return Double.doubleToRawLongBits(parseFloat(chars, start, end));
+			case ConfigValues.DOUBLE: return Double.doubleToRawLongBits(parseDouble(chars, start, end));
+			default: throw new IllegalStateException("Not a primitive type: " + type);
+		}
+	}
+
+	// Same as Boolean.valueOf: true ignoring case, anything else is false
+	static boolean parseBoolean(CharSequence chars, int start, int end) {
+		if (end - start != 4) return false;
+		return Character.toLowerCase(chars.charAt(start)) == 't' && Character.toLowerCase(chars.charAt(start + 1)) == 'r' &&
+			   Character.toLowerCase(chars.charAt(start + 2)) == 'u' && Character.toLowerCase(chars.charAt(start + 3)) == 'e';
+	}
+
+	// Same rules as Long.parseLong, plus a range check
+	static long parseLong(CharSequence chars, int start, int end, long min, long max) {
+		if (start == end) throw numberFormat(chars, start, end);
+		int i = start;
+		boolean negative = false;
+		char first = chars.charAt(i);
+		if (first == '-' || first == '+') {
+			negative = first == '-';
+			if (++i == end) throw numberFormat(chars, start, end);
+		}
+		long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		long multMin = limit / 10;
+		long result = 0; // accumulated negatively, like Long.parseLong, to reach Long.MIN_VALUE
+		for(; i < end; i++) {
+			int digit = chars.charAt(i) - '0';
+			if (digit < 0 || digit > 9 || result < multMin) throw numberFormat(chars, start, end);
+			result *= 10;
+			if (result < limit + digit) throw numberFormat(chars, start, end);
+			result -= digit;
+		}
+		result = negative ? result : -result;
+		if (result < min || result > max) {
+			throw new NumberFormatException("Value out of range. Value:\"" + chars.subSequence(start, end) + "\"");
+		}
+		return result;
+	}
+
+	double parseDouble(CharSequence chars, int start, int end) {
+		if (parseDecimal(chars, start, end) && mantissa <= MAX_EXACT_DOUBLE) {
+			double value = mantissa; // exact
+			if (exponent == 0) {
+				return negative ? -value : value;
+			} else if (exponent > 0 && exponent < DOUBLE_POWERS_OF_TEN.length) {
+				value *= DOUBLE_POWERS_OF_TEN[exponent]; // both exact, so a single rounding
+				return negative ? -value : value;
+			} else if (exponent < 0 && -exponent < DOUBLE_POWERS_OF_TEN.length) {
+				value /= DOUBLE_POWERS_OF_TEN[-exponent]; // both exact, so a single rounding
+				return negative ? -value : value;
+			}
+		}
+		return Double.parseDouble(chars.subSequence(start, end).toString()); // slow path
+	}
+
+	float parseFloat(CharSequence chars, int start, int end) {
+		if (parseDecimal(chars, start, end) && mantissa <= MAX_EXACT_FLOAT) {
+			float value = mantissa; // exact
+			if (exponent == 0) {
+				return negative ? -value : value;
+			} else if (exponent > 0 && exponent < FLOAT_POWERS_OF_TEN.length) {
+				value *= FLOAT_POWERS_OF_TEN[exponent];
+				return negative ? -value : value;
+			} else if (exponent < 0 && -exponent < FLOAT_POWERS_OF_TEN.length) {
+				value /= FLOAT_POWERS_OF_TEN[-exponent];
+				return negative ? -value : value;
+			}
+		}
+		return Float.parseFloat(chars.subSequence(start, end).toString()); // slow path
+	}
+
+	private static NumberFormatException numberFormat(CharSequence chars, int start, int end) {
+		return new NumberFormatException("For input string: \"" + chars.subSequence(start, end) + "\"");
+	}
+
+	/*
+	 * A plain decimal number ([+-]digits[.digits][(e|E)[+-]digits]) into mantissa * 10^exponent.
+	 * Anything else (NaN, Infinity, hex, suffixes, too many digits) returns false and is left to the slow path.
+	 */
+	private boolean parseDecimal(CharSequence chars, int start, int end) {
+		int i = start;
+		if (i == end) return false;
+		char c = chars.charAt(i);
+		boolean negative = c == '-';
+		if (c == '-' || c == '+') i++;
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean any = false;
+		for(; i < end; i++) {
+			c = chars.charAt(i);
+			if (c < '0' || c > '9') break;
+			any = true;
+			if (mantissa == 0 && c == '0') continue; // leading zeros
+			if (++digits > 18) return false; // would overflow
+			mantissa = mantissa * 10 + (c - '0');
+		}
+		if (i < end && chars.charAt(i) == '.') {
+			for(i++; i < end; i++) {
+				c = chars.charAt(i);
+				if (c < '0' || c > '9') break;
+				any = true;
+				exponent--;
+				if (mantissa == 0 && c == '0') continue;
+				if (++digits > 18) return false;
+				mantissa = mantissa * 10 + (c - '0');
+			}
+		}
+		if (!any) return false;
+		if (i < end && (chars.charAt(i) == 'e' || chars.charAt(i) == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if (i < end && (chars.charAt(i) == '-' || chars.charAt(i) == '+')) {
+				negativeExponent = chars.charAt(i) == '-';
+				i++;
+			}
+			if (i == end) return false;
+			int exp = 0;
+			for(; i < end; i++) {
+				c = chars.charAt(i);
+				if (c < '0' || c > '9' || exp > 1000) return false;
+				exp = exp * 10 + (c - '0');
+			}
+			exponent += negativeExponent ? -exp : exp;
+		}
+		if (i != end) return false;
+		this.negative = negative;
+		this.mantissa = mantissa;
+		this.exponent = exponent;
+		return true;
+	}
+}
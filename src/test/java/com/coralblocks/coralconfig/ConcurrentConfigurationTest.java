@@ -0,0 +1,112 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import static org.junit.Assert.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentConfigurationTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<Double> OLD_TIMEOUT = ConfigKey.doubleKey().deprecated(TIMEOUT);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey();
+	}
+	
+	@Test
+	public void testBasics() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration("name=foo", Holder.class);
+		
+		Assert.assertEquals("foo", cc.get(Holder.NAME));
+		Assert.assertEquals(3, cc.getInt(Holder.TIMEOUT));
+		
+		FrozenConfiguration before = cc.snapshot();
+		
+		Assert.assertEquals(null, cc.add(Holder.TIMEOUT, 5));
+		Assert.assertEquals(5, cc.add(Holder.TIMEOUT, 6).intValue());
+		Assert.assertEquals(6, cc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(6.0, cc.getDouble(Holder.OLD_TIMEOUT), 0);
+		Assert.assertEquals(2, cc.size());
+		
+		Assert.assertEquals(3, before.getInt(Holder.TIMEOUT)); // old snapshot does not change
+		
+		Assert.assertEquals(6, cc.remove(Holder.TIMEOUT).intValue());
+		Assert.assertEquals(false, cc.overwriteDefault(Holder.TIMEOUT, 9));
+		Assert.assertEquals(9, cc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(true, cc.hasOverwrittenDefault(Holder.TIMEOUT));
+		
+		cc.removeAllOverwrittenDefaults();
+		Assert.assertEquals(3, cc.getInt(Holder.TIMEOUT));
+		
+		try {
+			cc.add(Holder.NAME, null);
+			fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+		Assert.assertEquals("foo", cc.get(Holder.NAME));
+	}
+	
+	@Test
+	public void testDeprecatedListener() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class);
+		final int[] count = new int[1];
+		cc.addListener(new DeprecatedListener() {
+			@Override
+			public void deprecatedConfig(ConfigKey<?> deprecatedKey, ConfigKey<?> primaryKey) {
+				count[0]++;
+			}
+		});
+		
+		cc.add(Holder.OLD_TIMEOUT, 2.0);
+		cc.getDouble(Holder.OLD_TIMEOUT);
+		cc.get(Holder.TIMEOUT);
+		Assert.assertEquals(2, count[0]);
+	}
+	
+	@Test
+	public void testConcurrentReads() throws InterruptedException {
+		
+		final ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class);
+		final boolean[] failed = new boolean[1];
+		
+		Thread[] readers = new Thread[4];
+		for(int i = 0; i < readers.length; i++) {
+			readers[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for(int j = 0; j < 100000; j++) {
+						int value = cc.getInt(Holder.TIMEOUT);
+						if (value < 3) failed[0] = true;
+					}
+				}
+			});
+			readers[i].start();
+		}
+		
+		for(int i = 3; i < 1000; i++) cc.add(Holder.TIMEOUT, i);
+		
+		for(Thread t : readers) t.join();
+		
+		Assert.assertEquals(false, failed[0]);
+		Assert.assertEquals(999, cc.getInt(Holder.TIMEOUT));
+	}
+}
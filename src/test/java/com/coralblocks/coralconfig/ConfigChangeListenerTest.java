@@ -0,0 +1,234 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigChangeListenerTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<Double> OLD_TIMEOUT = ConfigKey.doubleKey().deprecated(TIMEOUT);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey();
+		public static final ConfigKey<Boolean> VERBOSE = ConfigKey.boolKey(false);
+	}
+	
+	public static class Other {
+		
+		public static final ConfigKey<Long> MAX_SIZE = ConfigKey.longKey(100L);
+	}
+	
+	@Test
+	public void testKeys() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class, Other.class);
+		final List<ConfigChangeSet> received = new ArrayList<ConfigChangeSet>();
+		ConfigChangeListener listener = changes -> received.add(changes);
+		cc.addChangeListener(listener, Holder.TIMEOUT);
+		
+		cc.add(Holder.NAME, "foo");
+		Assert.assertEquals(0, received.size());
+		
+		cc.add(Holder.TIMEOUT, 5);
+		Assert.assertEquals(1, received.size());
+		ConfigChangeSet changes = received.get(0);
+		Assert.assertEquals(1, changes.changedKeys().size());
+		Assert.assertTrue(changes.contains(Holder.TIMEOUT));
+		Assert.assertFalse(changes.contains(Holder.OLD_TIMEOUT)); // not subscribed
+		Assert.assertEquals(3, changes.previous().getInt(Holder.TIMEOUT));
+		Assert.assertEquals(5, changes.current().getInt(Holder.TIMEOUT));
+		
+		cc.add(Holder.TIMEOUT, 5); // same value
+		Assert.assertEquals(1, received.size());
+		
+		cc.overwriteDefault(Holder.TIMEOUT, 9); // the configured value still wins
+		Assert.assertEquals(1, received.size());
+		
+		cc.remove(Holder.TIMEOUT);
+		Assert.assertEquals(2, received.size());
+		Assert.assertEquals(9, received.get(1).current().getInt(Holder.TIMEOUT));
+		
+		cc.removeChangeListener(listener);
+		cc.add(Holder.TIMEOUT, 7);
+		Assert.assertEquals(2, received.size());
+	}
+	
+	@Test
+	public void testHolder() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class, Other.class);
+		final List<ConfigChangeSet> received = new ArrayList<ConfigChangeSet>();
+		cc.addChangeListener(changes -> received.add(changes), Holder.class);
+		
+		cc.add(Other.MAX_SIZE, 200L);
+		Assert.assertEquals(0, received.size());
+		
+		cc.add(Holder.OLD_TIMEOUT, 2.0); // the primary changes too
+		Assert.assertEquals(1, received.size());
+		Assert.assertEquals(2, received.get(0).changedKeys().size());
+		Assert.assertTrue(received.get(0).contains(Holder.TIMEOUT));
+		Assert.assertTrue(received.get(0).contains(Holder.OLD_TIMEOUT));
+		
+		try {
+			cc.addChangeListener(changes -> received.add(changes), String.class);
+			Assert.fail();
+		} catch(IllegalArgumentException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testCoalesced() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class, Other.class);
+		final List<ConfigChangeSet> received = new ArrayList<ConfigChangeSet>();
+		cc.addChangeListener(changes -> received.add(changes), Holder.TIMEOUT, Holder.NAME, Other.MAX_SIZE);
+		
+		cc.update(config -> {
+			config.add(Holder.TIMEOUT, 4);
+			config.add(Holder.TIMEOUT, 5);
+			config.add(Holder.NAME, "foo");
+			config.add(Holder.VERBOSE, true);
+			config.add(Other.MAX_SIZE, 100L); // same as the default
+		});
+		
+		Assert.assertEquals(1, received.size());
+		ConfigChangeSet changes = received.get(0);
+		Assert.assertEquals(2, changes.changedKeys().size());
+		Assert.assertTrue(changes.contains(Holder.TIMEOUT));
+		Assert.assertTrue(changes.contains(Holder.NAME));
+		Assert.assertEquals(5, changes.current().getInt(Holder.TIMEOUT));
+		Assert.assertEquals(false, changes.previous().has(Holder.NAME));
+		Assert.assertEquals("foo", changes.current().get(Holder.NAME));
+	}
+	
+	@Test
+	public void testOrdered() throws InterruptedException {
+		
+		final ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class, Other.class);
+		final List<ConfigChangeSet> received = new ArrayList<ConfigChangeSet>();
+		cc.addChangeListener(changes -> { synchronized(received) { received.add(changes); } }, Holder.class);
+		
+		Thread[] threads = new Thread[4];
+		for(int i = 0; i < threads.length; i++) {
+			final int id = i;
+			threads[i] = new Thread(() -> {
+				for(int j = 0; j < 1000; j++) cc.add(Holder.TIMEOUT, id * 1000 + j);
+			});
+			threads[i].start();
+		}
+		for(Thread thread : threads) thread.join();
+		
+		// each change set starts where the previous one ended
+		FrozenConfiguration current = received.get(0).previous();
+		for(ConfigChangeSet changes : received) {
+			Assert.assertSame(current, changes.previous());
+			current = changes.current();
+		}
+		Assert.assertSame(cc.snapshot(), current);
+	}
+	
+	@Test
+	public void testWriteFromListener() {
+		
+		final ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class, Other.class);
+		final List<ConfigChangeSet> received = new ArrayList<ConfigChangeSet>();
+		cc.addChangeListener(changes -> {
+			received.add(changes);
+			if (changes.contains(Holder.TIMEOUT)) cc.add(Holder.NAME, "changed"); // delivered after this call returns
+		}, Holder.class);
+		
+		cc.add(Holder.TIMEOUT, 5);
+		Assert.assertEquals(2, received.size());
+		Assert.assertTrue(received.get(0).contains(Holder.TIMEOUT));
+		Assert.assertFalse(received.get(0).contains(Holder.NAME));
+		Assert.assertTrue(received.get(1).contains(Holder.NAME));
+		Assert.assertSame(received.get(0).current(), received.get(1).previous());
+	}
+	
+	@Test
+	public void testExecutor() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class);
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		Executor executor = task -> tasks.add(task);
+		final List<ConfigChangeSet> received = new ArrayList<ConfigChangeSet>();
+		cc.addChangeListener(changes -> received.add(changes), executor, Holder.class);
+		
+		cc.add(Holder.VERBOSE, true);
+		cc.add(Holder.NAME, "foo");
+		Assert.assertEquals(2, tasks.size());
+		Assert.assertEquals(0, received.size());
+		
+		for(Runnable task : tasks) task.run();
+		Assert.assertEquals(2, received.size());
+		Assert.assertTrue(received.get(0).contains(Holder.VERBOSE));
+		Assert.assertTrue(received.get(1).contains(Holder.NAME));
+	}
+	
+	@Test
+	public void testQualified() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class);
+		final List<ConfigChangeSet> received = new ArrayList<ConfigChangeSet>();
+		cc.addChangeListener(changes -> received.add(changes), Holder.OLD_TIMEOUT);
+		
+		cc.addQualified(Holder.TIMEOUT, 42L, 5); // qualified values are kept per group
+		Assert.assertEquals(1, received.size());
+		Assert.assertTrue(received.get(0).contains(Holder.OLD_TIMEOUT));
+		Assert.assertEquals(5.0, received.get(0).current().getDouble(Holder.OLD_TIMEOUT, 42L), 0);
+		
+		cc.addQualified(Holder.TIMEOUT, 42L, 5); // same value
+		Assert.assertEquals(1, received.size());
+		
+		cc.removeQualified(Holder.TIMEOUT, 42L);
+		Assert.assertEquals(2, received.size());
+		
+		cc.update(config -> config.addQualified(Holder.TIMEOUT, 7L, 1));
+		Assert.assertEquals(3, received.size());
+	}
+	
+	@Test
+	public void testDeprecatedBeforeWrite() {
+		
+		final ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class);
+		final List<Double> seen = new ArrayList<Double>();
+		cc.addListener(new DeprecatedListener() {
+			@Override
+			public void deprecatedConfig(ConfigKey<?> deprecatedKey, ConfigKey<?> primaryKey) {
+				seen.add(cc.snapshot().getDouble(Holder.OLD_TIMEOUT));
+			}
+		});
+		
+		cc.add(Holder.OLD_TIMEOUT, 7.0);
+		Assert.assertEquals(1, seen.size());
+		Assert.assertEquals(3.0, seen.get(0), 0); // called before the write, like a MapConfiguration
+		
+		try {
+			cc.add(Holder.OLD_TIMEOUT, null);
+			Assert.fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+		Assert.assertEquals(1, seen.size()); // invalid writes are rejected first
+	}
+}
@@ -0,0 +1,187 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigConstantTest {
+	
+	private static enum Mode { FAST, SAFE }
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Boolean> FEATURE = ConfigKey.boolKey(false);
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<Double> OLD_TIMEOUT = ConfigKey.doubleKey().deprecated(TIMEOUT);
+		public static final ConfigKey<Mode> MODE = ConfigKey.enumKey(Mode.class, Mode.SAFE);
+		public static final ConfigKey<Long> REQUIRED = ConfigKey.longKey();
+	}
+	
+	public static class Other {
+		
+		public static final ConfigKey<Integer> OTHER = ConfigKey.intKey(1);
+	}
+	
+	@Test
+	public void testMapConfiguration() throws Throwable {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		ConfigConstant<Boolean> feature = Holder.FEATURE.asConstant(mc);
+		ConfigConstant<Integer> timeout = Holder.TIMEOUT.asConstant(mc);
+		ConfigConstant<Mode> mode = Holder.MODE.asConstant(mc);
+		
+		Assert.assertSame(feature, Holder.FEATURE.asConstant(mc));
+		Assert.assertEquals(MethodType.methodType(boolean.class), feature.handle().type());
+		Assert.assertEquals(MethodType.methodType(Mode.class), mode.handle().type());
+		
+		Assert.assertEquals(false, feature.getBoolean());
+		Assert.assertEquals(3, timeout.getInt());
+		Assert.assertEquals(Mode.SAFE, mode.get());
+		
+		MethodHandle handle = feature.handle();
+		mc.add(Holder.FEATURE, true);
+		Assert.assertEquals(true, feature.getBoolean());
+		Assert.assertEquals(true, (boolean) handle.invokeExact());
+		
+		mc.add(Holder.OLD_TIMEOUT, 7.0);
+		Assert.assertEquals(7, timeout.getInt());
+		Assert.assertEquals(Integer.valueOf(7), timeout.get());
+		
+		mc.remove(Holder.OLD_TIMEOUT);
+		mc.overwriteDefault(Holder.TIMEOUT, 9);
+		Assert.assertEquals(9, timeout.getInt());
+		mc.removeAllOverwrittenDefaults();
+		Assert.assertEquals(3, timeout.getInt());
+		
+		mc.ingester().ingest("mode=fast");
+		Assert.assertEquals(Mode.FAST, mode.get());
+	}
+	
+	@Test
+	public void testRequired() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		ConfigConstant<Long> required = Holder.REQUIRED.asConstant(mc);
+		
+		try {
+			required.getLong();
+			Assert.fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+		
+		mc.add(Holder.REQUIRED, 10L);
+		Assert.assertEquals(10L, required.getLong());
+		
+		mc.remove(Holder.REQUIRED);
+		try {
+			required.getLong();
+			Assert.fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testRequiredLayered() {
+		
+		MapConfiguration base = new MapConfiguration(Holder.class);
+		LayeredConfiguration lc = new LayeredConfiguration(base);
+		ConfigConstant<Long> required = Holder.REQUIRED.asConstant(lc);
+		ConfigConstant<Integer> timeout = Holder.TIMEOUT.asConstant(lc);
+		
+		try {
+			required.getLong();
+			Assert.fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+		
+		base.add(Holder.TIMEOUT, 4); // another group
+		Assert.assertEquals(4, timeout.getInt());
+		
+		base.add(Holder.REQUIRED, 10L);
+		Assert.assertEquals(10L, required.getLong());
+	}
+	
+	@Test
+	public void testConcurrentAndFrozen() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class);
+		ConfigConstant<Boolean> feature = Holder.FEATURE.asConstant(cc);
+		FrozenConfiguration frozen = cc.snapshot();
+		ConfigConstant<Boolean> frozenFeature = Holder.FEATURE.asConstant(frozen);
+		
+		cc.update(config -> config.add(Holder.FEATURE, true));
+		Assert.assertEquals(true, feature.getBoolean());
+		Assert.assertEquals(false, frozenFeature.getBoolean());
+		
+		cc.remove(Holder.FEATURE);
+		Assert.assertEquals(false, feature.getBoolean());
+	}
+	
+	@Test
+	public void testRefreshDoesNotCallDeprecatedListeners() {
+		
+		final int[] calls = new int[1];
+		DeprecatedListener listener = new DeprecatedListener() {
+			@Override
+			public void deprecatedConfig(ConfigKey<?> deprecatedKey, ConfigKey<?> primaryKey) {
+				calls[0]++;
+			}
+		};
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class);
+		LayeredConfiguration layered = new LayeredConfiguration(mc, cc);
+		mc.addListener(listener);
+		cc.addListener(listener);
+		layered.addListener(listener);
+		
+		ConfigConstant<Double> oldTimeout = Holder.OLD_TIMEOUT.asConstant(mc);
+		ConfigConstant<Double> ccOldTimeout = Holder.OLD_TIMEOUT.asConstant(cc);
+		ConfigConstant<Double> layeredOldTimeout = Holder.OLD_TIMEOUT.asConstant(layered);
+		
+		mc.add(Holder.FEATURE, true); // another key
+		cc.add(Holder.FEATURE, true);
+		mc.add(Holder.TIMEOUT, 5); // the same group
+		cc.add(Holder.TIMEOUT, 6);
+		
+		Assert.assertEquals(5.0, oldTimeout.getDouble(), 0);
+		Assert.assertEquals(6.0, ccOldTimeout.getDouble(), 0);
+		Assert.assertEquals(6.0, layeredOldTimeout.getDouble(), 0);
+		Assert.assertEquals(0, calls[0]);
+		
+		mc.get(Holder.OLD_TIMEOUT); // a real read still calls it
+		Assert.assertEquals(1, calls[0]);
+	}
+	
+	@Test
+	public void testWrongKey() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		try {
+			Other.OTHER.asConstant(mc);
+			Assert.fail();
+		} catch(IllegalStateException e) {
+			// Good!
+		}
+	}
+}
@@ -17,12 +17,51 @@ package com.coralblocks.coralconfig;
 
 import static org.junit.Assert.*;
 
+import java.util.concurrent.CountDownLatch;
+
 import org.junit.Assert;
 import org.junit.Test;
 
 
 public class ConfigContainerTest {
 	
+	public static class Concurrent {
+		
+		public static final ConfigKey<Integer> SIZE = ConfigKey.intKey(1);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey();
+	}
+	
+	@Test
+	public void testConcurrentScan() throws InterruptedException {
+		
+		final ConfigContainer[] containers = new ConfigContainer[8];
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[containers.length];
+		
+		for(int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch(InterruptedException e) {
+						throw new RuntimeException(e);
+					}
+					containers[index] = ConfigContainer.of(Concurrent.class);
+				}
+			});
+			threads[i].start();
+		}
+		
+		start.countDown();
+		for(Thread t : threads) t.join();
+		
+		for(ConfigContainer cc : containers) Assert.assertSame(containers[0], cc);
+		Assert.assertEquals(containers[0].getId(), Concurrent.SIZE.containerId);
+		Assert.assertSame(containers[0], Concurrent.NAME.container);
+	}
+	
 	@Test
 	public void testBasics() {
 		
@@ -48,6 +87,14 @@ public class ConfigContainerTest {
 		Assert.assertEquals("TIMEOUT", Base1.TIMEOUT.getFieldName());
 		Assert.assertEquals("NO_REWIND", Base1.NO_REWIND.getFieldName());
 		Assert.assertEquals(null, Blah.TIMEOUT.getFieldName()); // was not added to any Config
+		Assert.assertEquals(0, Base1.TIMEOUT.ordinal);
+		Assert.assertEquals(1, Base1.NO_REWIND.ordinal);
+		Assert.assertEquals(Base1.NO_REWIND, cc1.get(1));
+		Assert.assertEquals(-1, Blah.TIMEOUT.ordinal);
+		Assert.assertEquals(cc1.getId(), Base1.NO_REWIND.containerId);
+		Assert.assertEquals(-1, Blah.TIMEOUT.containerId);
+		Assert.assertEquals(Base1.NO_REWIND, cc1.getIgnoreCase("NOREWIND"));
+		Assert.assertEquals(null, cc1.getIgnoreCase("rewind"));
 		
 		@SuppressWarnings("unused")
 		class Base2 {
@@ -74,5 +121,36 @@ public class ConfigContainerTest {
 		} catch(IllegalStateException e) {
 			// Good!
 		}
+		
+		@SuppressWarnings("unused")
+		class Base4 {
+			
+			public static final ConfigKey<Integer> TIME_OUT = ConfigKey.intKey();
+			public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(); // same name ignoring case, but same holder
+		}
+		
+		@SuppressWarnings("unused")
+		class Base5 {
+			
+			public static final ConfigKey<Integer> TIMEOUT_2 = ConfigKey.intKey();
+		}
+		
+		@SuppressWarnings("unused")
+		class Base6 {
+			
+			public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey();
+		}
+		
+		ConfigContainer cc4 = ConfigContainer.of(Base4.class);
+		ConfigContainer cc5 = ConfigContainer.of(Base5.class);
+		
+		ConfigContainer.enforceNoDuplicates(cc4, cc5); // no duplicates across holders
+		
+		try {
+			ConfigContainer.enforceNoDuplicates(cc4, cc5, ConfigContainer.of(Base6.class));
+			fail();
+		} catch(IllegalStateException e) {
+			// Good!
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigEpochTest {
+	
+	public static class Holder1 {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey();
+	}
+	
+	public static class Holder2 {
+		
+		public static final ConfigKey<Long> MAX_SIZE = ConfigKey.longKey(100L);
+	}
+	
+	@Test
+	public void testMutations() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder1.class, Holder2.class);
+		Assert.assertEquals(0, mc.epoch());
+		Assert.assertEquals(0, mc.epoch(Holder1.class));
+		Assert.assertEquals(0, mc.epoch(Holder2.class));
+		
+		mc.add(Holder1.TIMEOUT, 5);
+		Assert.assertEquals(1, mc.epoch());
+		Assert.assertEquals(1, mc.epoch(Holder1.class));
+		Assert.assertEquals(0, mc.epoch(Holder2.class));
+		
+		mc.add(Holder2.MAX_SIZE, 200L);
+		Assert.assertEquals(2, mc.epoch());
+		Assert.assertEquals(1, mc.epoch(Holder1.class));
+		Assert.assertEquals(2, mc.epoch(Holder2.class));
+		
+		mc.remove(Holder1.NAME); // nothing to remove
+		Assert.assertEquals(2, mc.epoch());
+		
+		mc.remove(Holder1.TIMEOUT);
+		Assert.assertEquals(3, mc.epoch());
+		Assert.assertEquals(3, mc.epoch(Holder1.class));
+		
+		mc.overwriteDefault(Holder1.TIMEOUT, 7);
+		Assert.assertEquals(4, mc.epoch(Holder1.class));
+		
+		mc.removeOverwrittenDefault(Holder1.TIMEOUT);
+		Assert.assertEquals(5, mc.epoch());
+		mc.removeOverwrittenDefault(Holder1.TIMEOUT); // nothing to remove
+		Assert.assertEquals(5, mc.epoch());
+		
+		mc.overwriteDefault(Holder1.TIMEOUT, 7);
+		mc.removeAllOverwrittenDefaults();
+		Assert.assertEquals(7, mc.epoch());
+		Assert.assertEquals(7, mc.epoch(Holder1.class));
+		Assert.assertEquals(7, mc.epoch(Holder2.class));
+		
+		mc.ingester().ingest("timeout=9");
+		Assert.assertEquals(8, mc.epoch());
+		
+		try {
+			mc.epoch(String.class);
+			Assert.fail();
+		} catch(IllegalArgumentException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testCopies() {
+		
+		MapConfiguration mc = new MapConfiguration("timeout=5 maxSize=200", Holder1.class, Holder2.class);
+		Assert.assertEquals(2, mc.epoch());
+		
+		FrozenConfiguration frozen = mc.freeze();
+		Assert.assertEquals(2, frozen.epoch());
+		Assert.assertEquals(2, frozen.epoch(Holder2.class));
+		
+		MapConfiguration copy = new MapConfiguration(mc);
+		Assert.assertEquals(2, copy.epoch());
+		Assert.assertEquals(1, copy.epoch(Holder1.class));
+		
+		mc.add(Holder1.TIMEOUT, 6);
+		Assert.assertEquals(3, mc.epoch());
+		Assert.assertEquals(2, frozen.epoch()); // snapshot does not change
+		Assert.assertEquals(2, copy.epoch());
+	}
+	
+	@Test
+	public void testConcurrentConfiguration() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder1.class, Holder2.class);
+		long epoch = cc.epoch();
+		
+		cc.add(Holder1.TIMEOUT, 5);
+		Assert.assertEquals(epoch + 1, cc.epoch());
+		
+		cc.update(config -> {
+			config.add(Holder1.NAME, "foo");
+			config.add(Holder2.MAX_SIZE, 200L);
+		});
+		Assert.assertEquals(epoch + 3, cc.epoch());
+		Assert.assertEquals(epoch + 2, cc.epoch(Holder1.class));
+		Assert.assertEquals(epoch + 3, cc.epoch(Holder2.class));
+	}
+	
+	// an implementation written before epochs existed
+	private static class UntrackedConfiguration implements Configuration {
+		
+		private final MapConfiguration mc;
+		
+		UntrackedConfiguration(MapConfiguration mc) {
+			this.mc = mc;
+		}
+		
+		@Override public void addListener(DeprecatedListener listener) { mc.addListener(listener); }
+		@Override public void removeListener(DeprecatedListener listener) { mc.removeListener(listener); }
+		@Override public Class<?>[] getHolders() { return mc.getHolders(); }
+		@Override public List<ConfigKey<?>> allConfigKeys() { return mc.allConfigKeys(); }
+		@Override public int size() { return mc.size(); }
+		@Override public <T> T get(ConfigKey<T> configKey) { return mc.get(configKey); }
+		@Override public boolean has(ConfigKey<?> configKey) { return mc.has(configKey); }
+		@Override public Set<ConfigKey<?>> keys() { return mc.keys(); }
+		@Override public <T> boolean overwriteDefault(ConfigKey<T> configKey, T defaultValue) { return mc.overwriteDefault(configKey, defaultValue); }
+		@Override public <T> T getOverwrittenDefault(ConfigKey<T> configKey) { return mc.getOverwrittenDefault(configKey); }
+		@Override public <T> boolean removeOverwrittenDefault(ConfigKey<T> configKey) { return mc.removeOverwrittenDefault(configKey); }
+		@Override public void removeAllOverwrittenDefaults() { mc.removeAllOverwrittenDefaults(); }
+		@Override public <T> boolean hasOverwrittenDefault(ConfigKey<T> configKey) { return mc.hasOverwrittenDefault(configKey); }
+		@Override public Set<ConfigKey<?>> keysWithOverwrittenDefault() { return mc.keysWithOverwrittenDefault(); }
+	}
+	
+	@Test
+	public void testUntrackedEpochs() {
+		
+		Configuration config = new UntrackedConfiguration(new MapConfiguration("timeout=5", Holder1.class, Holder2.class));
+		
+		// nothing changed, but an implementation that does not track changes must make callers read again
+		Assert.assertEquals(Configuration.UNTRACKED_EPOCH, config.epoch());
+		Assert.assertEquals(Configuration.UNTRACKED_EPOCH, config.epoch(Holder1.class));
+		
+		MapConfiguration copy = new MapConfiguration(config);
+		Assert.assertEquals(5, copy.getInt(Holder1.TIMEOUT));
+		Assert.assertTrue(copy.epoch() > 0);
+		
+		OverlayConfiguration overlay = new OverlayConfiguration(config);
+		Assert.assertEquals(Configuration.UNTRACKED_EPOCH, overlay.epoch());
+		overlay.add(Holder1.TIMEOUT, 6);
+		Assert.assertEquals(Configuration.UNTRACKED_EPOCH, overlay.epoch(Holder1.class));
+	}
+}
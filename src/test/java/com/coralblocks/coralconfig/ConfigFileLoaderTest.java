@@ -0,0 +1,111 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigFileLoaderTest {
+	
+	static enum Venue { NYSE, NASDAQ }
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> MAX_ORDERS = ConfigKey.intKey(0);
+		public static final ConfigKey<Double> PRICE_LIMIT = ConfigKey.doubleKey(0d);
+		public static final ConfigKey<String> DESCRIPTION = ConfigKey.stringKey("");
+		public static final ConfigKey<Venue> VENUE = ConfigKey.enumKey(Venue.class).def(Venue.NYSE);
+		public static final ConfigKey<Boolean> ENABLED = ConfigKey.boolKey(false);
+	}
+	
+	private static final String CONTENT =
+			"# a comment\n" +
+			"   ! another comment\n" +
+			"\n" +
+			"maxOrders = 100\r\n" +
+			"priceLimit:12.5   \n" +
+			"description = a long \\\n" +
+			"     description with\\ttab \\u0041\n" +
+			"venue nasdaq\n" +
+			"unknown1=1\n" +
+			"unknown2 = a \\\n" +
+			"   continued\n" +
+			"enabled=true";
+	
+	@Test
+	public void testFile() throws IOException {
+		
+		Path file = Files.createTempFile("config", ".properties");
+		
+		try {
+			Files.write(file, CONTENT.getBytes(StandardCharsets.ISO_8859_1));
+			
+			MapConfiguration mc = new MapConfiguration(Holder.class);
+			List<String> unknownKeys = new ArrayList<String>();
+			
+			Assert.assertEquals(5, ConfigFileLoader.load(file, mc, unknownKeys));
+			Assert.assertEquals(Arrays.asList("unknown1", "unknown2"), unknownKeys);
+			
+			Assert.assertEquals(100, mc.getInt(Holder.MAX_ORDERS));
+			Assert.assertEquals(12.5, mc.getDouble(Holder.PRICE_LIMIT), 0);
+			Assert.assertEquals("a long description with\ttab A", mc.get(Holder.DESCRIPTION));
+			Assert.assertEquals(Venue.NASDAQ, mc.get(Holder.VENUE));
+			Assert.assertEquals(true, mc.getBoolean(Holder.ENABLED));
+			
+			try {
+				ConfigFileLoader.load(file, Holder.class);
+				fail();
+			} catch(IllegalStateException e) {
+				Assert.assertTrue(e.getMessage().contains("[unknown1, unknown2]"));
+			}
+			
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void testInvalidValue() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		try {
+			ConfigFileLoader.load("maxOrders=1\n\nmaxOrders=abc\n", mc, new ArrayList<String>());
+			fail();
+		} catch(IllegalArgumentException e) {
+			Assert.assertTrue(e.getMessage().contains("line 3"));
+		}
+	}
+	
+	@Test
+	public void testEmpty() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		Assert.assertEquals(0, ConfigFileLoader.load("", mc, new ArrayList<String>()));
+		Assert.assertEquals(0, ConfigFileLoader.load("\n\r\n  # only comments", mc, new ArrayList<String>()));
+	}
+}
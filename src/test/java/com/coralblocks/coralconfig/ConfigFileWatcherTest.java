@@ -0,0 +1,225 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigFileWatcherTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> THROTTLE = ConfigKey.intKey(1);
+		public static final ConfigKey<Integer> MAX_ORDERS = ConfigKey.intKey(10);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey("none");
+	}
+	
+	private static void write(Path file, String content) throws IOException {
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private static void await(ConcurrentConfiguration config, int expectedThrottle) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 20000;
+		while(config.getInt(Holder.THROTTLE) != expectedThrottle && System.currentTimeMillis() < deadline) Thread.sleep(20);
+		Assert.assertEquals(expectedThrottle, config.getInt(Holder.THROTTLE));
+	}
+	
+	@Test
+	public void testReload() throws IOException, InterruptedException {
+		
+		Path dir = Files.createTempDirectory("config");
+		Path base = dir.resolve("base.properties");
+		Path override = dir.resolve("override.json");
+		
+		write(base, "throttle=5\nmaxOrders=20\nname=base\n");
+		write(override, "{\"name\": \"override\"}");
+		
+		ConcurrentConfiguration config = new ConcurrentConfiguration(Holder.class);
+		List<Exception> errors = new CopyOnWriteArrayList<Exception>();
+		
+		try (ConfigFileWatcher watcher = new ConfigFileWatcher(config, errors::add, 50, base, override)) {
+			
+			// loaded right away
+			Assert.assertEquals(5, config.getInt(Holder.THROTTLE));
+			Assert.assertEquals(20, config.getInt(Holder.MAX_ORDERS));
+			Assert.assertEquals("override", config.get(Holder.NAME)); // the later file wins
+			
+			watcher.start();
+			
+			write(base, "throttle=7\nname=base\n"); // maxOrders was removed
+			await(config, 7);
+			Assert.assertEquals(10, config.getInt(Holder.MAX_ORDERS)); // back to the default
+			Assert.assertEquals("override", config.get(Holder.NAME));
+			
+			write(base, "throttle=abc\n"); // invalid, keeps the previous values
+			write(override, "{\"name\": \"again\", \"throttle\": 9}");
+			await(config, 9);
+			Assert.assertEquals("again", config.get(Holder.NAME));
+			Assert.assertFalse(errors.isEmpty());
+			
+		} finally {
+			Files.deleteIfExists(base);
+			Files.deleteIfExists(override);
+			Files.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testSteadyWrites() throws IOException, InterruptedException {
+		
+		Path dir = Files.createTempDirectory("config");
+		Path file = dir.resolve("config.properties");
+		Path other = dir.resolve("other.log");
+		
+		write(file, "throttle=5\n");
+		
+		ConcurrentConfiguration config = new ConcurrentConfiguration(Holder.class);
+		
+		try (ConfigFileWatcher watcher = new ConfigFileWatcher(config, e -> {}, 200, file)) {
+			
+			watcher.start();
+			
+			// another file of the directory keeps changing, which must not delay the reload
+			Thread writer = new Thread(() -> {
+				try {
+					for(int i = 0; i < 1000 && config.getInt(Holder.THROTTLE) != 9; i++) {
+						write(i < 100 ? other : file, i < 100 ? "line " + i : "throttle=9\n"); // then the watched file itself
+						Thread.sleep(20);
+					}
+				} catch(IOException | InterruptedException e) {
+					// done
+				}
+			});
+			
+			write(file, "throttle=7\n");
+			writer.start();
+			await(config, 7);
+			await(config, 9); // still written every 20 millis, but the wait is capped
+			writer.join();
+			
+		} finally {
+			Files.deleteIfExists(file);
+			Files.deleteIfExists(other);
+			Files.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testFirstLoadThrows() throws IOException {
+		
+		Path dir = Files.createTempDirectory("config");
+		Path file = dir.resolve("config.json");
+		
+		ConcurrentConfiguration config = new ConcurrentConfiguration(Holder.class);
+		
+		try {
+			try {
+				new ConfigFileWatcher(config, e -> {}, 50, file).close(); // missing
+				Assert.fail();
+			} catch(IOException e) {
+				// Good!
+			}
+			
+			write(file, "{\"throttle\": ");
+			
+			try {
+				new ConfigFileWatcher(config, e -> {}, 50, file).close(); // malformed
+				Assert.fail();
+			} catch(IllegalArgumentException e) {
+				// Good!
+			}
+			
+			Assert.assertEquals(1, config.getInt(Holder.THROTTLE));
+			
+		} finally {
+			Files.deleteIfExists(file);
+			Files.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testFailingHandlerDoesNotStopTheWatch() throws IOException, InterruptedException {
+		
+		Path dir = Files.createTempDirectory("config");
+		Path file = dir.resolve("config.properties");
+		
+		write(file, "throttle=2\n");
+		
+		ConcurrentConfiguration config = new ConcurrentConfiguration(Holder.class);
+		List<Exception> errors = new CopyOnWriteArrayList<Exception>();
+		
+		Consumer<Exception> handler = e -> {
+			errors.add(e);
+			throw new Error("handler failed");
+		};
+		
+		Thread.UncaughtExceptionHandler previous = Thread.getDefaultUncaughtExceptionHandler();
+		Thread.setDefaultUncaughtExceptionHandler((t, e) -> {}); // keeps the output clean
+		
+		try (ConfigFileWatcher watcher = new ConfigFileWatcher(config, handler, 50, file)) {
+			
+			watcher.start();
+			
+			write(file, "throttle=abc\n");
+			long deadline = System.currentTimeMillis() + 20000;
+			while(errors.isEmpty() && System.currentTimeMillis() < deadline) Thread.sleep(20);
+			Assert.assertFalse(errors.isEmpty());
+			Assert.assertEquals(2, config.getInt(Holder.THROTTLE));
+			
+			write(file, "throttle=3\n"); // still watching
+			await(config, 3);
+			
+		} finally {
+			Thread.setDefaultUncaughtExceptionHandler(previous);
+			Files.deleteIfExists(file);
+			Files.delete(dir);
+		}
+	}
+	
+	@Test
+	public void testUpdateIsAtomic() {
+		
+		ConcurrentConfiguration config = new ConcurrentConfiguration(Holder.class);
+		
+		try {
+			config.update(master -> {
+				master.add(Holder.THROTTLE, 3);
+				throw new IllegalStateException("boom");
+			});
+			Assert.fail();
+		} catch(IllegalStateException e) {
+			// Good!
+		}
+		
+		Assert.assertEquals(1, config.getInt(Holder.THROTTLE)); // nothing was changed
+		
+		config.update(master -> {
+			master.add(Holder.THROTTLE, 3);
+			master.add(Holder.MAX_ORDERS, 30);
+		});
+		
+		Assert.assertEquals(3, config.getInt(Holder.THROTTLE));
+		Assert.assertEquals(30, config.getInt(Holder.MAX_ORDERS));
+	}
+}
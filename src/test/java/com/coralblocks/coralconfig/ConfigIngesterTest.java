@@ -0,0 +1,138 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigIngesterTest {
+	
+	static enum Side { BUY, SELL }
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> MY_INT = ConfigKey.intKey(0);
+		public static final ConfigKey<Long> MY_LONG = ConfigKey.longKey(0L);
+		public static final ConfigKey<Byte> MY_BYTE = ConfigKey.byteKey((byte) 0);
+		public static final ConfigKey<Short> MY_SHORT = ConfigKey.shortKey((short) 0);
+		public static final ConfigKey<Double> MY_DOUBLE = ConfigKey.doubleKey(0d);
+		public static final ConfigKey<Float> MY_FLOAT = ConfigKey.floatKey(0f);
+		public static final ConfigKey<Boolean> MY_BOOLEAN = ConfigKey.boolKey(false);
+		public static final ConfigKey<Character> MY_CHAR = ConfigKey.charKey('a');
+		public static final ConfigKey<String> MY_STRING = ConfigKey.stringKey("");
+		public static final ConfigKey<Side> MY_SIDE = ConfigKey.enumKey(Side.class).def(Side.BUY);
+		public static final ConfigKey<Float> MY_OLD_INT = ConfigKey.floatKey().deprecated(MY_INT);
+	}
+	
+	@Test
+	public void testCharSequence() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		ConfigIngester ingester = mc.ingester();
+		
+		StringBuilder sb = new StringBuilder("myInt=-42 myLong=9223372036854775807 myByte=-128 myShort=+300 myDouble=3.14159 myFloat=1.1");
+		sb.append(" myBoolean=TRUE myChar=x myString=\"hello world\" mySide=sell");
+		
+		Assert.assertEquals(10, ingester.ingest(sb));
+		
+		Assert.assertEquals(-42, mc.getInt(Holder.MY_INT));
+		Assert.assertEquals(Long.MAX_VALUE, mc.getLong(Holder.MY_LONG));
+		Assert.assertEquals(-128, mc.getByte(Holder.MY_BYTE));
+		Assert.assertEquals(300, mc.getShort(Holder.MY_SHORT));
+		Assert.assertEquals(3.14159, mc.getDouble(Holder.MY_DOUBLE), 0);
+		Assert.assertEquals(1.1f, mc.getFloat(Holder.MY_FLOAT), 0);
+		Assert.assertEquals(true, mc.getBoolean(Holder.MY_BOOLEAN));
+		Assert.assertEquals('x', mc.getChar(Holder.MY_CHAR));
+		Assert.assertEquals("hello world", mc.get(Holder.MY_STRING));
+		Assert.assertEquals(Side.SELL, mc.get(Holder.MY_SIDE));
+		Assert.assertEquals(-42f, mc.getFloat(Holder.MY_OLD_INT), 0);
+		
+		Assert.assertEquals(1, ingester.ingest("xxx myInt=7 yyy", 4, 11)); // a range
+		Assert.assertEquals(7, mc.getInt(Holder.MY_INT));
+		
+		mc.remove(Holder.MY_INT);
+		Assert.assertEquals(1, ingester.ingest("myOldInt=2.9"));
+		Assert.assertEquals(2, mc.getInt(Holder.MY_INT)); // through the deprecated key
+	}
+	
+	@Test
+	public void testByteBuffer() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		ConfigIngester ingester = mc.ingester();
+		
+		ByteBuffer bb = ByteBuffer.allocateDirect(128);
+		bb.put("junk myInt=12 myDouble=-0.5e-3 mySide=Buy".getBytes(StandardCharsets.US_ASCII));
+		bb.flip();
+		bb.position(5);
+		
+		Assert.assertEquals(3, ingester.ingest(bb));
+		Assert.assertEquals(5, bb.position()); // not changed
+		
+		Assert.assertEquals(12, mc.getInt(Holder.MY_INT));
+		Assert.assertEquals(-0.5e-3, mc.getDouble(Holder.MY_DOUBLE), 0);
+		Assert.assertEquals(Side.BUY, mc.get(Holder.MY_SIDE));
+	}
+	
+	@Test
+	public void testInvalid() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		ConfigIngester ingester = mc.ingester();
+		
+		String[] invalid = { "myInt=2147483648", "myByte=128", "myLong=9223372036854775808", "myInt=1.0", "myInt=-", "myChar=ab", "mySide=HOLD", "myDouble=abc" };
+		
+		for(String pairs : invalid) {
+			try {
+				ingester.ingest(pairs);
+				fail(pairs);
+			} catch(IllegalArgumentException e) {
+				// Good!
+			}
+		}
+		
+		Assert.assertEquals(0, mc.size());
+	}
+	
+	@Test
+	public void testNumbersMatchTheJdk() {
+		
+		ValueParser parser = new ValueParser();
+		Random random = new Random(42);
+		
+		String[] fixed = { "0", "-0", "0.0", "1e22", "1e23", "123456789012345678", "1234567890123456789012", "9007199254740993",
+						   "0.1", ".5", "5.", "1E-5", "NaN", "-Infinity", "4.9e-324", "1.7976931348623157e308", "0x1p3", "1.5d", "16777217" };
+		
+		for(String s : fixed) {
+			Assert.assertEquals(s, Double.parseDouble(s), parser.parseDouble(s, 0, s.length()), 0);
+			Assert.assertEquals(s, Float.parseFloat(s), parser.parseFloat(s, 0, s.length()), 0);
+		}
+		
+		for(int i = 0; i < 100000; i++) {
+			long mantissa = random.nextLong() % 100000000000L;
+			int scale = random.nextInt(20) - 10;
+			String s = java.math.BigDecimal.valueOf(mantissa, scale).toString();
+			Assert.assertEquals(s, Double.parseDouble(s), parser.parseDouble(s, 0, s.length()), 0);
+			Assert.assertEquals(s, Float.parseFloat(s), parser.parseFloat(s, 0, s.length()), 0);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigJsonReaderTest {
+	
+	static enum Venue { NYSE, NASDAQ }
+	
+	public static class Orders {
+		
+		public static final ConfigKey<Integer> MAX_ORDERS = ConfigKey.intKey(0);
+		public static final ConfigKey<Double> PRICE_LIMIT = ConfigKey.doubleKey(0d);
+		public static final ConfigKey<Venue> VENUE = ConfigKey.enumKey(Venue.class).def(Venue.NYSE);
+	}
+	
+	public static class Session {
+		
+		public static final ConfigKey<String> DESCRIPTION = ConfigKey.stringKey("");
+		public static final ConfigKey<Boolean> ENABLED = ConfigKey.boolKey(false);
+		public static final ConfigKey<Long> TIMEOUT = ConfigKey.longKey(0L);
+	}
+	
+	private static final String JSON = 
+			"{\n" +
+			"  \"maxOrders\": 100,\n" +
+			"  \"Session\": { \"description\": \"caf\\u00e9 \\\"quoted\\\"\", \"enabled\": true, \"timeout\": null },\n" +
+			"  \"priceLimit\": -1.25e2,\n" +
+			"  \"venue\": \"nasdaq\",\n" +
+			"  \"unknown\": { \"a\": [1, 2, {\"b\": \"}\"}] },\n" +
+			"  \"Orders\": { \"description\": \"wrong holder\" }\n" +
+			"}";
+	
+	@Test
+	public void testRead() {
+		
+		MapConfiguration mc = new MapConfiguration(Orders.class, Session.class);
+		List<String> unknownKeys = new ArrayList<String>();
+		
+		Assert.assertEquals(5, ConfigJsonReader.read(JSON, mc, unknownKeys));
+		Assert.assertEquals(Arrays.asList("unknown", "Orders.description"), unknownKeys);
+		
+		Assert.assertEquals(100, mc.getInt(Orders.MAX_ORDERS));
+		Assert.assertEquals(-125.0, mc.getDouble(Orders.PRICE_LIMIT), 0);
+		Assert.assertEquals(Venue.NASDAQ, mc.get(Orders.VENUE));
+		Assert.assertEquals("café \"quoted\"", mc.get(Session.DESCRIPTION));
+		Assert.assertEquals(true, mc.getBoolean(Session.ENABLED));
+		Assert.assertEquals(false, mc.has(Session.TIMEOUT)); // null leaves it unset
+		
+		try {
+			ConfigJsonReader.read(JSON, Orders.class, Session.class);
+			fail();
+		} catch(IllegalStateException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testFile() throws IOException {
+		
+		Path file = Files.createTempFile("config", ".json");
+		
+		try {
+			Files.write(file, "{\"Session\":{\"description\":\"über €\"},\"maxOrders\":7}".getBytes(StandardCharsets.UTF_8));
+			
+			MapConfiguration mc = ConfigJsonReader.read(file, Orders.class, Session.class);
+			
+			Assert.assertEquals("über €", mc.get(Session.DESCRIPTION));
+			Assert.assertEquals(7, mc.getInt(Orders.MAX_ORDERS));
+			
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void testInvalid() {
+		
+		String[] invalid = { "", "[]", "{", "{\"maxOrders\" 1}", "{\"maxOrders\": 1,}", "{\"maxOrders\": 1} x", "{\"maxOrders\": \"abc}",
+							 "{\"maxOrders\": [1]}", "{\"maxOrders\": 1.5}", "{\"venue\": \"HOLD\"}" };
+		
+		for(String json : invalid) {
+			try {
+				ConfigJsonReader.read(json, new MapConfiguration(Orders.class, Session.class), new ArrayList<String>());
+				fail(json);
+			} catch(IllegalArgumentException e) {
+				// Good!
+			}
+		}
+		
+		Assert.assertEquals(0, ConfigJsonReader.read(" { } ", new MapConfiguration(Orders.class), new ArrayList<String>()));
+	}
+	
+	@Test
+	public void testTypeMismatch() {
+		
+		String[] mismatched = { "{\"enabled\": 1}", "{\"enabled\": \"true\"}", "{\"enabled\": truth}", "{\"maxOrders\": \"100\"}",
+								"{\"maxOrders\": true}", "{\"priceLimit\": \"\"}", "{\"description\": 5}", "{\"venue\": false}" };
+		
+		for(String json : mismatched) {
+			try {
+				ConfigJsonReader.read(json, new MapConfiguration(Orders.class, Session.class), new ArrayList<String>());
+				fail(json);
+			} catch(IllegalArgumentException e) {
+				Assert.assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid JSON at position " + (json.indexOf(':') + 2) + ": Expected "));
+			}
+		}
+		
+		try {
+			ConfigJsonReader.read("{\"Session\": {\"enabled\": 0}}", Orders.class, Session.class);
+			fail();
+		} catch(IllegalArgumentException e) {
+			Assert.assertEquals("Invalid JSON at position 24: Expected true or false for " + Session.ENABLED + " but found 0", e.getMessage());
+		}
+	}
+}
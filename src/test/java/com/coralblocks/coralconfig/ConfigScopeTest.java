@@ -0,0 +1,246 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigScopeTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<Double> OLD_TIMEOUT = ConfigKey.doubleKey().deprecated(TIMEOUT);
+		public static final ConfigKey<Integer> TIME_OUT = ConfigKey.intKey().alias(TIMEOUT);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey();
+		public static final ConfigKey<Float> RATIO = ConfigKey.floatKey(1.5f);
+	}
+	
+	public static class OtherHolder {
+		
+		public static final ConfigKey<Integer> OTHER = ConfigKey.intKey(1);
+	}
+	
+	@Test
+	public void testOverrides() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		mc.add(Holder.TIMEOUT, 5);
+		long epoch = mc.epoch();
+		
+		ConfigOverrides overrides = ConfigOverrides.of(Holder.TIMEOUT, 10).and(Holder.NAME, "scoped").and(Holder.RATIO, 2.5f);
+		Assert.assertEquals(3, overrides.size());
+		
+		Assert.assertFalse(mc.has(Holder.NAME));
+		
+		try (ConfigScope scope = mc.withOverrides(overrides)) {
+			Assert.assertEquals(1, scope.depth());
+			Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT));
+			Assert.assertEquals(10, mc.get(Holder.TIMEOUT).intValue());
+			Assert.assertEquals(10.0, mc.getDouble(Holder.OLD_TIMEOUT), 0);
+			Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT, 42L));
+			Assert.assertEquals(2.5f, mc.getFloat(Holder.RATIO), 0);
+			Assert.assertEquals("scoped", mc.get(Holder.NAME));
+			Assert.assertTrue(mc.has(Holder.NAME));
+		}
+		
+		Assert.assertEquals(5, mc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(1.5f, mc.getFloat(Holder.RATIO), 0);
+		Assert.assertFalse(mc.has(Holder.NAME));
+		Assert.assertEquals(epoch, mc.epoch()); // the configuration was never changed
+	}
+	
+	@Test
+	public void testNested() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		try (ConfigScope outer = mc.withOverrides(ConfigOverrides.of(Holder.TIMEOUT, 10).and(Holder.NAME, "outer"))) {
+			try (ConfigScope inner = mc.withOverrides(ConfigOverrides.of(Holder.TIMEOUT, 20))) {
+				Assert.assertNotSame(outer, inner);
+				Assert.assertEquals(1, outer.depth());
+				Assert.assertEquals(2, inner.depth());
+				Assert.assertEquals(20, mc.getInt(Holder.TIMEOUT));
+				Assert.assertEquals("outer", mc.get(Holder.NAME));
+			}
+			Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT));
+		}
+		
+		Assert.assertEquals(3, mc.getInt(Holder.TIMEOUT));
+		
+		ConfigScope scope = mc.withOverrides(ConfigOverrides.of(Holder.TIMEOUT, 10));
+		scope.close();
+		
+		try {
+			scope.close();
+			Assert.fail();
+		} catch(IllegalStateException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testWrongClose() throws InterruptedException {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		ConfigScope outer = mc.withOverrides(ConfigOverrides.of(Holder.TIMEOUT, 10));
+		ConfigScope inner = mc.withOverrides(ConfigOverrides.of(Holder.TIMEOUT, 20));
+		
+		try {
+			outer.close(); // out of order
+			Assert.fail();
+		} catch(IllegalStateException e) {
+			// Good!
+		}
+		Assert.assertEquals(20, mc.getInt(Holder.TIMEOUT)); // nothing was popped
+		
+		final ConfigScope scope = inner;
+		final AtomicInteger failures = new AtomicInteger();
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					scope.close(); // from another thread
+				} catch(IllegalStateException e) {
+					failures.incrementAndGet();
+				}
+			}
+		});
+		thread.start();
+		thread.join();
+		Assert.assertEquals(1, failures.get());
+		Assert.assertEquals(20, mc.getInt(Holder.TIMEOUT));
+		
+		inner.close();
+		Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT));
+		
+		try {
+			inner.close(); // twice
+			Assert.fail();
+		} catch(IllegalStateException e) {
+			// Good!
+		}
+		Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT)); // the outer scope is still open
+		
+		outer.close();
+		Assert.assertEquals(3, mc.getInt(Holder.TIMEOUT));
+	}
+	
+	@Test
+	public void testNestedGroupOverride() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		try (ConfigScope outer = mc.withOverrides(ConfigOverrides.of(Holder.TIMEOUT, 10))) {
+			try (ConfigScope inner = mc.withOverrides(ConfigOverrides.of(Holder.TIME_OUT, 20))) {
+				Assert.assertEquals(20, mc.getInt(Holder.TIMEOUT)); // the inner scope wins, even through another member of the group
+				Assert.assertEquals(20, mc.getInt(Holder.TIME_OUT));
+				Assert.assertEquals(20.0, mc.getDouble(Holder.OLD_TIMEOUT), 0);
+				try (ConfigScope innermost = mc.withOverrides(ConfigOverrides.of(Holder.OLD_TIMEOUT, 30.0))) {
+					Assert.assertEquals(30, mc.getInt(Holder.TIMEOUT));
+					Assert.assertEquals(30, mc.getInt(Holder.TIME_OUT));
+				}
+			}
+			Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT));
+			Assert.assertEquals(10, mc.getInt(Holder.TIME_OUT));
+		}
+	}
+	
+	@Test
+	public void testDeprecatedOverride() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		try (ConfigScope scope = mc.withOverrides(ConfigOverrides.of(Holder.OLD_TIMEOUT, 7.0))) {
+			Assert.assertEquals(1, scope.depth());
+			Assert.assertEquals(7, mc.getInt(Holder.TIMEOUT));
+			Assert.assertEquals(7, mc.get(Holder.TIMEOUT).intValue());
+			Assert.assertEquals(7.0, mc.getDouble(Holder.OLD_TIMEOUT), 0);
+		}
+	}
+	
+	@Test
+	public void testOtherThreads() throws InterruptedException {
+		
+		final MapConfiguration mc = new MapConfiguration(Holder.class);
+		final AtomicInteger seen = new AtomicInteger();
+		
+		try (ConfigScope scope = mc.withOverrides(ConfigOverrides.of(Holder.TIMEOUT, 10))) {
+			
+			Assert.assertEquals(1, scope.depth());
+			
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					seen.set(mc.getInt(Holder.TIMEOUT));
+				}
+			});
+			
+			thread.start();
+			thread.join();
+			
+			Assert.assertEquals(3, seen.get());
+			Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT));
+		}
+	}
+	
+	@Test
+	public void testChangesInsideScope() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		LayeredConfiguration layered = new LayeredConfiguration(mc);
+		ConfigConstant<Integer> timeout = Holder.TIMEOUT.asConstant(mc);
+		ConfigConstant<Integer> layeredTimeout = Holder.TIMEOUT.asConstant(layered);
+		
+		try (ConfigScope scope = mc.withOverrides(ConfigOverrides.of(Holder.TIMEOUT, 10))) {
+			
+			Assert.assertEquals(1, scope.depth());
+			
+			mc.add(Holder.TIMEOUT, 5); // the writer thread has a scope open
+			Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT));
+			
+			// the overrides of this thread do not leak into the values of the other threads
+			Assert.assertEquals(5, timeout.getInt());
+			Assert.assertEquals(5, layeredTimeout.getInt());
+			Assert.assertEquals(5, layered.getInt(Holder.TIMEOUT));
+		}
+		
+		Assert.assertEquals(5, mc.getInt(Holder.TIMEOUT));
+	}
+	
+	@Test
+	public void testWrongKey() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		try {
+			mc.withOverrides(ConfigOverrides.of(OtherHolder.OTHER, 2));
+			Assert.fail();
+		} catch(IllegalStateException e) {
+			// Good!
+		}
+		
+		try {
+			ConfigOverrides.of(Holder.NAME, null);
+			Assert.fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+	}
+}
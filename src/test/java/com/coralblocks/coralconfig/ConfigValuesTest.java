@@ -0,0 +1,300 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigValuesTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey();
+		public static final ConfigKey<Integer> TIMEOUT_1 = ConfigKey.intKey().alias(TIMEOUT);
+		public static final ConfigKey<Integer> TIMEOUT_2 = ConfigKey.intKey().alias(TIMEOUT);
+		public static final ConfigKey<Double> OLD_TIMEOUT = ConfigKey.doubleKey().deprecated(TIMEOUT);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey();
+		public static final ConfigKey<String> LABEL = ConfigKey.stringKey("blah");
+	}
+	
+	public static class Other {
+		
+		public static final ConfigKey<Integer> RETRIES = ConfigKey.intKey(2);
+	}
+	
+	public static class Unused {
+		
+		public static final ConfigKey<Integer> UNUSED = ConfigKey.intKey(2);
+	}
+	
+	private static class IsolatedLoader extends ClassLoader {
+		
+		IsolatedLoader() {
+			super(ConfigValuesTest.class.getClassLoader());
+		}
+		
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.equals(IsolatedHolder.class.getName())) return super.loadClass(name, resolve);
+			synchronized(getClassLoadingLock(name)) {
+				Class<?> c = findLoadedClass(name);
+				if (c != null) return c;
+				String resource = name.replace('.', '/') + ".class";
+				try (InputStream in = getParent().getResourceAsStream(resource)) {
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					byte[] buffer = new byte[4096];
+					int n;
+					while((n = in.read(buffer)) != -1) out.write(buffer, 0, n);
+					byte[] bytes = out.toByteArray();
+					return defineClass(name, bytes, 0, bytes.length);
+				} catch(IOException e) {
+					throw new ClassNotFoundException(name, e);
+				}
+			}
+		}
+	}
+	
+	private static Class<?> loadIsolated() throws ClassNotFoundException {
+		return Class.forName(IsolatedHolder.class.getName(), true, new IsolatedLoader());
+	}
+	
+	@Test
+	public void testSlotOf() {
+		
+		new ConfigLayout(Unused.class); // scanned, but not part of the layout below
+		
+		ConfigLayout layout = new ConfigLayout(Holder.class, Other.class);
+		
+		Assert.assertEquals(0, layout.slotOf(Holder.TIMEOUT));
+		Assert.assertEquals(5, layout.slotOf(Holder.LABEL));
+		Assert.assertEquals(6, layout.slotOf(Other.RETRIES));
+		Assert.assertEquals(Other.RETRIES, layout.keyAt(6));
+		Assert.assertEquals(-1, layout.slotOf(Unused.UNUSED));
+		Assert.assertEquals(-1, layout.slotOf(ConfigKey.intKey())); // never scanned
+	}
+	
+	@Test
+	public void testSpreadContainerIds() throws Exception {
+		
+		ConfigContainer.of(Holder.class); // an early container
+		
+		Class<?>[] late = new Class<?>[100];
+		for(int i = 0; i < late.length; i++) {
+			late[i] = loadIsolated();
+			ConfigContainer.of(late[i]); // a new container id for each copy
+		}
+		
+		ConfigLayout layout = new ConfigLayout(Holder.class, late[99], Other.class);
+		Assert.assertEquals(9, layout.size());
+		
+		for(int slot = 0; slot < layout.size(); slot++) {
+			Assert.assertEquals(slot, layout.slotOf(layout.keyAt(slot)));
+		}
+		
+		ConfigKey<?> tag99 = ConfigContainer.of(late[99]).get(1);
+		ConfigKey<?> size50 = ConfigContainer.of(late[50]).get(0);
+		
+		Assert.assertEquals(7, layout.slotOf(tag99));
+		Assert.assertEquals(1, layout.holderIndexAt(7));
+		Assert.assertEquals(2, layout.holderIndexAt(layout.slotOf(Other.RETRIES)));
+		Assert.assertEquals(-1, layout.slotOf(size50)); // a container between the others, not in the layout
+		Assert.assertEquals(-1, layout.slotOf(Unused.UNUSED));
+	}
+	
+	@Test
+	public void testLayoutCache() {
+		
+		Class<?>[] holders = { Holder.class, Other.class };
+		ConfigLayout layout = ConfigLayout.of(holders);
+		
+		Assert.assertSame(layout, ConfigLayout.of(Holder.class, Other.class));
+		Assert.assertNotSame(layout, ConfigLayout.of(Other.class, Holder.class)); // the order matters
+		Assert.assertNotSame(layout, ConfigLayout.of(Holder.class));
+		
+		holders[1] = Unused.class; // the layout keeps its own copy
+		Assert.assertSame(layout, ConfigLayout.of(Holder.class, Other.class));
+		Assert.assertEquals(Other.class, layout.getHolders()[1]);
+		
+		Assert.assertEquals(Other.RETRIES, layout.getByName("retries"));
+		Assert.assertEquals(null, layout.getByName("RETRIES"));
+	}
+	
+	@Test
+	public void testLayoutCacheDoesNotPinChildLoaders() throws Exception {
+		
+		WeakReference<ClassLoader> loader = layoutWithIsolated();
+		
+		for(int i = 0; i < 100 && loader.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		
+		Assert.assertNull(loader.get()); // the layout was not cached in the container of Holder
+	}
+	
+	private static WeakReference<ClassLoader> layoutWithIsolated() throws Exception {
+		
+		Class<?> isolated = loadIsolated();
+		
+		ConfigLayout layout = ConfigLayout.of(Holder.class, isolated);
+		Assert.assertSame(layout, ConfigLayout.of(Holder.class, isolated)); // cached in the container of the isolated holder
+		
+		MapConfiguration mc = new MapConfiguration("size=5", Holder.class, isolated);
+		Assert.assertEquals(5, mc.get(ConfigContainer.of(isolated).get(0)));
+		
+		return new WeakReference<ClassLoader>(isolated.getClassLoader());
+	}
+	
+	@Test
+	public void testBasics() {
+		
+		ConfigLayout layout = new ConfigLayout(Holder.class);
+		ConfigValues values = new ConfigValues(layout);
+		
+		int name = layout.slotOf(Holder.NAME);
+		int timeout = layout.slotOf(Holder.TIMEOUT);
+		
+		Assert.assertEquals(0, values.size());
+		Assert.assertEquals(false, values.hasValue(name));
+		
+		Assert.assertEquals(ConfigValues.NONE, values.put(name, "a"));
+		Assert.assertEquals("a", values.put(name, "b"));
+		Assert.assertEquals(ConfigValues.NONE, values.put(timeout, 4));
+		
+		Assert.assertEquals(2, values.size());
+		Assert.assertEquals(true, values.hasValue(timeout));
+		Assert.assertEquals("b", values.resolve(name));
+		Assert.assertEquals(4, values.resolve(timeout));
+		Assert.assertEquals(4L, values.resolveBits(timeout));
+		
+		Assert.assertEquals("b", values.remove(name));
+		Assert.assertEquals(ConfigValues.NONE, values.remove(name));
+		Assert.assertEquals(false, values.hasValue(name));
+		Assert.assertEquals(1, values.size());
+		
+		try {
+			values.resolve(name); // required
+			fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+		
+		Assert.assertEquals(false, values.hasDefault(timeout));
+		Assert.assertEquals(false, values.putDefault(timeout, 5));
+		Assert.assertEquals(true, values.putDefault(timeout, 6));
+		Assert.assertEquals(6, values.getDefault(timeout));
+		Assert.assertEquals(4, values.resolve(timeout)); // configured value wins
+		
+		values.clearDefaults();
+		Assert.assertEquals(false, values.hasDefault(timeout));
+	}
+	
+	@Test
+	public void testGroups() {
+		
+		ConfigLayout layout = new ConfigLayout(Holder.class);
+		ConfigValues values = new ConfigValues(layout);
+		
+		int timeout = layout.slotOf(Holder.TIMEOUT);
+		int timeout1 = layout.slotOf(Holder.TIMEOUT_1);
+		int timeout2 = layout.slotOf(Holder.TIMEOUT_2);
+		int oldTimeout = layout.slotOf(Holder.OLD_TIMEOUT);
+		
+		values.put(oldTimeout, 4.9d);
+		Assert.assertEquals(4, values.resolve(timeout)); // converted to the type of the reader
+		Assert.assertEquals(4, values.resolve(timeout1));
+		Assert.assertEquals(4.9d, values.resolve(oldTimeout));
+		Assert.assertEquals(4.9d, Double.longBitsToDouble(values.resolveBits(oldTimeout)), 0);
+		
+		values.put(timeout2, 3);
+		Assert.assertEquals(3, values.resolve(timeout)); // alias comes before deprecated
+		Assert.assertEquals(3, values.resolve(timeout1));
+		Assert.assertEquals(4.9d, values.resolve(oldTimeout)); // own value comes first
+		
+		values.remove(timeout2);
+		values.remove(oldTimeout);
+		Assert.assertEquals(false, values.hasValue(timeout1));
+	}
+	
+	@Test
+	public void testNullDefaults() {
+		
+		ConfigLayout layout = new ConfigLayout(Holder.class);
+		ConfigValues values = new ConfigValues(layout);
+		
+		int name = layout.slotOf(Holder.NAME);
+		int label = layout.slotOf(Holder.LABEL);
+		
+		Assert.assertEquals("blah", values.resolve(label));
+		
+		values.putDefault(label, null); // present but null
+		Assert.assertEquals(true, values.hasDefault(label));
+		Assert.assertEquals(null, values.resolve(label));
+		
+		values.removeDefault(label);
+		Assert.assertEquals("blah", values.resolve(label));
+		
+		values.put(name, "a");
+		Assert.assertEquals("a", values.resolve(name));
+	}
+	
+	@Test
+	public void testBoxesAreCached() {
+		
+		ConfigLayout layout = new ConfigLayout(Holder.class, Other.class);
+		ConfigValues values = new ConfigValues(layout);
+		
+		int timeout = layout.slotOf(Holder.TIMEOUT);
+		int oldTimeout = layout.slotOf(Holder.OLD_TIMEOUT);
+		int retries = layout.slotOf(Other.RETRIES);
+		
+		values.put(timeout, 1234567); // outside of the Integer cache
+		
+		Object boxed = values.resolve(timeout);
+		Object oldBoxed = values.resolve(oldTimeout);
+		Assert.assertEquals(1234567, boxed);
+		Assert.assertEquals(1234567.0, oldBoxed);
+		Assert.assertSame(boxed, values.resolve(timeout));
+		Assert.assertSame(oldBoxed, values.resolve(oldTimeout));
+		Assert.assertSame(values.resolve(retries), values.resolve(retries));
+		
+		values.put(layout.slotOf(Holder.NAME), "a"); // another group
+		Assert.assertSame(boxed, values.resolve(timeout));
+		
+		values.put(timeout, 1234567); // same value
+		Assert.assertSame(boxed, values.resolve(timeout));
+		
+		values.put(timeout, 7654321);
+		Assert.assertEquals(7654321, values.resolve(timeout));
+		Assert.assertEquals(7654321.0, values.resolve(oldTimeout));
+		
+		ConfigValues frozen = new ConfigValues(values);
+		Assert.assertSame(values.resolve(timeout), frozen.resolve(timeout));
+	}
+}
+
+class IsolatedHolder { // loaded again by each IsolatedLoader
+	
+	public static final ConfigKey<Integer> SIZE = ConfigKey.intKey(1);
+	public static final ConfigKey<String> TAG = ConfigKey.stringKey("a");
+}
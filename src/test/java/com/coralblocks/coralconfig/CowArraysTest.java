@@ -0,0 +1,66 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CowArraysTest {
+	
+	@Test
+	public void testLongs() {
+		
+		CowLongs a = new CowLongs(200); // four chunks, the last one partial
+		for(int i = 0; i < 200; i++) a.set(i, i);
+		
+		CowLongs b = a.fork();
+		CowLongs c = b.fork();
+		b.set(70, -1);
+		a.set(199, -2);
+		
+		Assert.assertEquals(70, a.get(70));
+		Assert.assertEquals(-1, b.get(70));
+		Assert.assertEquals(70, c.get(70));
+		Assert.assertEquals(-2, a.get(199));
+		Assert.assertEquals(199, b.get(199));
+		Assert.assertEquals(199, c.get(199));
+		
+		for(int i = 0; i < 200; i++) {
+			if (i != 70 && i != 199) {
+				Assert.assertEquals(i, a.get(i));
+				Assert.assertEquals(i, b.get(i));
+				Assert.assertEquals(i, c.get(i));
+			}
+		}
+		
+		Assert.assertEquals(0, new CowLongs(0).fork().length());
+	}
+	
+	@Test
+	public void testObjects() {
+		
+		CowObjects a = new CowObjects(65);
+		a.set(64, "a");
+		CowObjects b = a.fork();
+		b.set(64, "b");
+		b.set(0, "b0");
+		
+		Assert.assertEquals("a", a.get(64));
+		Assert.assertEquals(null, a.get(0));
+		Assert.assertEquals("b", b.get(64));
+		Assert.assertEquals("b0", b.get(0));
+	}
+}
@@ -948,4 +948,36 @@ public class DefaultsTest {
 		Assert.assertEquals(6, mc1.get(Holder.MY_INTEGER_2).intValue());
 		Assert.assertEquals(5, mc1.get(Holder.MY_INTEGER_3).intValue());
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testResolvedDefaults() {
+		
+		class Holder {
+			
+			public static final ConfigKey<Integer> MY_INTEGER_1 = intKey();
+			public static final ConfigKey<Integer> MY_INTEGER_2 = intKey().def(20).alias(MY_INTEGER_1);
+			public static final ConfigKey<Double> MY_DOUBLE_1 = doubleKey();
+			public static final ConfigKey<Integer> MY_DOUBLE_2 = intKey().def(2).deprecated(MY_DOUBLE_1);
+			public static final ConfigKey<Double> MY_DOUBLE_3 = doubleKey().def(3d).deprecated(MY_DOUBLE_1);
+		}
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		Assert.assertEquals(true, Holder.MY_INTEGER_1.willReturnDefault);
+		Assert.assertEquals(20, Holder.MY_INTEGER_1.effectiveDefault);
+		Assert.assertEquals(20, mc.get(Holder.MY_INTEGER_1).intValue());
+		
+		Assert.assertEquals(false, Holder.MY_DOUBLE_1.willReturnDefault);
+		Assert.assertEquals(2, Holder.MY_DOUBLE_1.numberOfDefaults);
+		
+		try {
+			mc.get(Holder.MY_DOUBLE_1); // two different defaults
+			fail();
+		} catch(RuntimeException e) {
+			Assert.assertTrue(e.getMessage().startsWith("More than one default value found!"));
+		}
+		
+		Assert.assertEquals(2, mc.get(Holder.MY_DOUBLE_2).intValue());
+		Assert.assertTrue(3d == mc.get(Holder.MY_DOUBLE_3));
+	}
+}
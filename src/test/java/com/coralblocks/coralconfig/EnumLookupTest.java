@@ -0,0 +1,66 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import static org.junit.Assert.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EnumLookupTest {
+	
+	static enum OrderType { MARKET, LIMIT, STOP_LIMIT, Iceberg }
+	
+	@Test
+	public void testLookup() {
+		
+		EnumLookup<OrderType> lookup = EnumLookup.of(OrderType.class);
+		
+		Assert.assertSame(lookup, EnumLookup.of(OrderType.class));
+		
+		Assert.assertEquals(OrderType.MARKET, lookup.parse("MARKET"));
+		Assert.assertEquals(OrderType.LIMIT, lookup.parse("limit"));
+		Assert.assertEquals(OrderType.STOP_LIMIT, lookup.tryParse("Stop_Limit"));
+		Assert.assertEquals(OrderType.Iceberg, lookup.tryParse("ICEBERG"));
+		Assert.assertEquals(OrderType.LIMIT, lookup.tryParse("type=limit!", 5, 10));
+		
+		Assert.assertEquals(null, lookup.tryParse("HOLD"));
+		Assert.assertEquals(null, lookup.tryParse(""));
+		Assert.assertEquals(null, lookup.tryParse("LIMITS"));
+		
+		try {
+			lookup.parse("HOLD");
+			fail();
+		} catch(IllegalArgumentException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testConfigKey() {
+		
+		ConfigKey<OrderType> key = ConfigKey.enumKey(OrderType.class);
+		
+		Assert.assertEquals(OrderType.STOP_LIMIT, key.parseValue("stop_limit"));
+		
+		try {
+			key.parseValue("blah");
+			fail();
+		} catch(IllegalArgumentException e) {
+			// Good!
+		}
+	}
+}
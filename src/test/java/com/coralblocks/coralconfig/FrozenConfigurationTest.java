@@ -0,0 +1,131 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import static org.junit.Assert.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FrozenConfigurationTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<Integer> TIMEOUT_1 = ConfigKey.intKey().alias(TIMEOUT);
+		public static final ConfigKey<Double> OLD_TIMEOUT = ConfigKey.doubleKey().deprecated(TIMEOUT);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey();
+		public static final ConfigKey<String> LABEL = ConfigKey.stringKey("blah");
+	}
+	
+	@Test
+	public void testSnapshot() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		mc.add(Holder.TIMEOUT_1, 5);
+		mc.add(Holder.NAME, "foo");
+		mc.overwriteDefault(Holder.LABEL, "bar");
+		
+		FrozenConfiguration fc = mc.freeze();
+		
+		// changes after the snapshot are not seen
+		mc.add(Holder.TIMEOUT_1, 6);
+		mc.remove(Holder.NAME);
+		mc.removeAllOverwrittenDefaults();
+		
+		Assert.assertEquals(5, fc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(5, fc.get(Holder.TIMEOUT_1).intValue());
+		Assert.assertEquals(5.0, fc.getDouble(Holder.OLD_TIMEOUT), 0);
+		Assert.assertEquals("foo", fc.get(Holder.NAME));
+		Assert.assertEquals("bar", fc.get(Holder.LABEL));
+		Assert.assertEquals("bar", fc.getOverwrittenDefault(Holder.LABEL));
+		Assert.assertEquals(true, fc.hasOverwrittenDefault(Holder.LABEL));
+		Assert.assertEquals(true, fc.has(Holder.TIMEOUT));
+		Assert.assertEquals(2, fc.size());
+		Assert.assertEquals(true, fc.keys().contains(Holder.NAME));
+		Assert.assertEquals(1, fc.keysWithOverwrittenDefault().size());
+		
+		Assert.assertEquals(6, mc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals("blah", mc.get(Holder.LABEL));
+		
+		// a copy of a frozen configuration can be changed again
+		MapConfiguration copy = new MapConfiguration(fc);
+		Assert.assertEquals(5, copy.getInt(Holder.TIMEOUT));
+		Assert.assertEquals("bar", copy.get(Holder.LABEL));
+	}
+	
+	@Test
+	public void testDefaultsAndRequired() {
+		
+		FrozenConfiguration fc = new MapConfiguration(Holder.class).freeze();
+		
+		Assert.assertEquals(3, fc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(3.0, fc.getDouble(Holder.OLD_TIMEOUT), 0);
+		Assert.assertEquals("blah", fc.get(Holder.LABEL));
+		Assert.assertEquals(0, fc.size());
+		
+		try {
+			fc.get(Holder.NAME); // required
+			fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testImmutable() {
+		
+		FrozenConfiguration fc = new MapConfiguration(Holder.class).freeze();
+		
+		try {
+			fc.overwriteDefault(Holder.TIMEOUT, 4);
+			fail();
+		} catch(UnsupportedOperationException e) {
+			// Good!
+		}
+		
+		try {
+			fc.removeAllOverwrittenDefaults();
+			fail();
+		} catch(UnsupportedOperationException e) {
+			// Good!
+		}
+		
+		try {
+			fc.keys().add(Holder.NAME);
+			fail();
+		} catch(UnsupportedOperationException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testDeprecatedListener() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		final int[] count = new int[1];
+		mc.addListener(new DeprecatedListener() {
+			@Override
+			public void deprecatedConfig(ConfigKey<?> deprecatedKey, ConfigKey<?> primaryKey) {
+				count[0]++;
+			}
+		});
+		
+		FrozenConfiguration fc = mc.freeze();
+		fc.getDouble(Holder.OLD_TIMEOUT);
+		Assert.assertEquals(1, count[0]);
+	}
+}
@@ -0,0 +1,221 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import java.lang.ref.WeakReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LayeredConfigurationTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<Double> OLD_TIMEOUT = ConfigKey.doubleKey().deprecated(TIMEOUT);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey();
+		public static final ConfigKey<Boolean> VERBOSE = ConfigKey.boolKey(false);
+	}
+	
+	public static class Fluent {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey().def(1);
+		public static final ConfigKey<Integer> TIMEOUT_222 = ConfigKey.intKey().deprecated(TIMEOUT).def(22); // leaves intermediate keys in the group of TIMEOUT
+		public static final ConfigKey<Integer> TIMEOUT_333 = ConfigKey.intKey().def(22).alias(TIMEOUT);
+	}
+	
+	public static class Other {
+		
+		public static final ConfigKey<Long> MAX_SIZE = ConfigKey.longKey(100L);
+	}
+	
+	@Test
+	public void testPriority() {
+		
+		MapConfiguration site = new MapConfiguration("timeout=5 name=site", Holder.class, Other.class);
+		FrozenConfiguration env = new MapConfiguration("name=env", Other.class, Holder.class).freeze();
+		MapConfiguration admin = new MapConfiguration(Holder.class, Other.class);
+		
+		LayeredConfiguration lc = new LayeredConfiguration(site, env, admin);
+		
+		Assert.assertEquals(5, lc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(5.0, lc.getDouble(Holder.OLD_TIMEOUT), 0);
+		Assert.assertEquals("env", lc.get(Holder.NAME));
+		Assert.assertEquals(false, lc.getBoolean(Holder.VERBOSE));
+		Assert.assertEquals(100L, lc.getLong(Other.MAX_SIZE));
+		Assert.assertEquals(true, lc.has(Holder.TIMEOUT));
+		Assert.assertEquals(false, lc.has(Holder.VERBOSE));
+		Assert.assertEquals(2, lc.size());
+		
+		admin.add(Holder.OLD_TIMEOUT, 7.0); // the whole group is invalidated
+		Assert.assertEquals(7, lc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(7.0, lc.getDouble(Holder.OLD_TIMEOUT), 0);
+		
+		admin.add(Holder.TIMEOUT, 3); // same as the default, but still wins over the site
+		Assert.assertEquals(3, lc.getInt(Holder.TIMEOUT));
+		
+		admin.remove(Holder.TIMEOUT);
+		admin.remove(Holder.OLD_TIMEOUT);
+		Assert.assertEquals(5, lc.getInt(Holder.TIMEOUT));
+		
+		site.remove(Holder.TIMEOUT);
+		Assert.assertEquals(3, lc.getInt(Holder.TIMEOUT));
+		
+		site.overwriteDefault(Holder.TIMEOUT, 8); // no layer has a value, the overwritten default of the site wins
+		Assert.assertEquals(8, lc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(8, lc.getOverwrittenDefault(Holder.TIMEOUT).intValue());
+		
+		site.removeAllOverwrittenDefaults();
+		Assert.assertEquals(3, lc.getInt(Holder.TIMEOUT));
+		
+		try {
+			lc.overwriteDefault(Holder.TIMEOUT, 1);
+			Assert.fail();
+		} catch(UnsupportedOperationException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testRequired() {
+		
+		MapConfiguration base = new MapConfiguration(Holder.class);
+		MapConfiguration top = new MapConfiguration(Holder.class);
+		LayeredConfiguration lc = new LayeredConfiguration(base, top);
+		
+		try {
+			lc.get(Holder.NAME);
+			Assert.fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+		
+		base.add(Holder.NAME, "foo");
+		Assert.assertEquals("foo", lc.get(Holder.NAME));
+	}
+	
+	@Test
+	public void testConcurrentAndNestedLayers() {
+		
+		ConcurrentConfiguration runtime = new ConcurrentConfiguration(Holder.class);
+		LayeredConfiguration inner = new LayeredConfiguration(new MapConfiguration("verbose=true", Holder.class), runtime);
+		LayeredConfiguration outer = new LayeredConfiguration(inner, new MapConfiguration(Holder.class));
+		ConfigConstant<Integer> timeout = Holder.TIMEOUT.asConstant(outer);
+		
+		Assert.assertEquals(true, outer.getBoolean(Holder.VERBOSE));
+		Assert.assertEquals(3, timeout.getInt());
+		
+		long epoch = outer.epoch();
+		runtime.update(config -> config.add(Holder.TIMEOUT, 4));
+		Assert.assertEquals(4, outer.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(4, timeout.getInt());
+		Assert.assertTrue(outer.epoch() > epoch);
+	}
+	
+	@Test
+	public void testClose() {
+		
+		MapConfiguration base = new MapConfiguration(Holder.class);
+		ConcurrentConfiguration runtime = new ConcurrentConfiguration(Holder.class);
+		LayeredConfiguration inner = new LayeredConfiguration(base, runtime);
+		LayeredConfiguration lc = new LayeredConfiguration(inner);
+		ConfigConstant<Integer> timeout = Holder.TIMEOUT.asConstant(lc);
+		
+		Assert.assertEquals(3, lc.getInt(Holder.TIMEOUT));
+		
+		lc.close();
+		lc.close(); // does nothing
+		
+		long epoch = lc.epoch();
+		base.add(Holder.TIMEOUT, 4);
+		Assert.assertEquals(4, lc.getInt(Holder.TIMEOUT)); // still read from the layers
+		runtime.add(Holder.TIMEOUT, 5);
+		Assert.assertEquals(5, lc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(epoch, lc.epoch()); // no longer invalidated
+		Assert.assertEquals(3, timeout.getInt());
+		Assert.assertEquals(5, inner.getInt(Holder.TIMEOUT)); // the layers are not affected
+	}
+	
+	@Test
+	public void testClosedIsCollected() throws InterruptedException {
+		
+		MapConfiguration base = new MapConfiguration(Holder.class);
+		WeakReference<LayeredConfiguration> lc = closedView(base);
+		
+		for(int i = 0; i < 100 && lc.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		
+		Assert.assertNull(lc.get()); // the layer no longer keeps it
+		base.add(Holder.TIMEOUT, 4);
+	}
+	
+	private static WeakReference<LayeredConfiguration> closedView(MapConfiguration base) {
+		
+		LayeredConfiguration lc = new LayeredConfiguration(base);
+		Assert.assertEquals(3, lc.getInt(Holder.TIMEOUT));
+		lc.close();
+		
+		return new WeakReference<LayeredConfiguration>(lc);
+	}
+	
+	@Test
+	public void testFluentGroup() {
+		
+		MapConfiguration base = new MapConfiguration(Fluent.class);
+		MapConfiguration top = new MapConfiguration(Fluent.class);
+		LayeredConfiguration lc = new LayeredConfiguration(base, top);
+		
+		Assert.assertEquals(1, lc.getInt(Fluent.TIMEOUT));
+		
+		top.add(Fluent.TIMEOUT, 4); // invalidates the group after a read
+		Assert.assertEquals(4, lc.getInt(Fluent.TIMEOUT));
+		Assert.assertEquals(4, lc.getInt(Fluent.TIMEOUT_222));
+		Assert.assertEquals(4, lc.getInt(Fluent.TIMEOUT_333));
+		
+		top.remove(Fluent.TIMEOUT);
+		base.overwriteDefault(Fluent.TIMEOUT_333, 5);
+		Assert.assertEquals(5, lc.getInt(Fluent.TIMEOUT_333));
+		Assert.assertEquals(5, lc.getInt(Fluent.TIMEOUT_222)); // through the group, like a MapConfiguration
+		Assert.assertEquals(5, lc.getOverwrittenDefault(Fluent.TIMEOUT_333).intValue());
+	}
+	
+	@Test
+	public void testNoListenersOnInternalReads() {
+		
+		MapConfiguration base = new MapConfiguration("oldTimeout=5", Holder.class);
+		DeprecatedListenerTest.TestListener listener = new DeprecatedListenerTest.TestListener();
+		base.addListener(listener);
+		LayeredConfiguration lc = new LayeredConfiguration(base);
+		
+		Assert.assertEquals(true, lc.has(Holder.OLD_TIMEOUT));
+		Assert.assertEquals(5, lc.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(null, lc.getOverwrittenDefault(Holder.OLD_TIMEOUT));
+		Assert.assertEquals(0, listener.calls); // only the listeners of lc are called
+	}
+	
+	@Test
+	public void testDifferentHolders() {
+		
+		try {
+			new LayeredConfiguration(new MapConfiguration(Holder.class), new MapConfiguration(Holder.class, Other.class));
+			Assert.fail();
+		} catch(IllegalArgumentException e) {
+			// Good!
+		}
+	}
+}
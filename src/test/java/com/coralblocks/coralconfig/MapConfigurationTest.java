@@ -252,4 +252,89 @@ public class MapConfigurationTest {
 		MapConfiguration mc = new MapConfiguration(Base1.class, Base2.class);
 		Assert.assertEquals(10, mc.allConfigKeys().size());
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testPrimitiveGetters() {
+		
+		class Base {
+			
+			public static final ConfigKey<Integer> RETRIES = ConfigKey.intKey(3);
+			public static final ConfigKey<Long> TIMEOUT = ConfigKey.longKey();
+			public static final ConfigKey<Double> PRICE = ConfigKey.doubleKey(1.5d);
+			public static final ConfigKey<Integer> OLD_PRICE = ConfigKey.intKey().deprecated(PRICE);
+			public static final ConfigKey<Float> RATIO = ConfigKey.floatKey(0.5f);
+			public static final ConfigKey<Short> PORT = ConfigKey.shortKey((short) 80);
+			public static final ConfigKey<Byte> LEVEL = ConfigKey.byteKey((byte) 2);
+			public static final ConfigKey<Character> SEP = ConfigKey.charKey('|');
+			public static final ConfigKey<Boolean> ENABLED = ConfigKey.boolKey();
+		}
+		
+		MapConfiguration mc = new MapConfiguration("timeout=1000 enabled=true", Base.class);
+		
+		Assert.assertEquals(3, mc.getInt(Base.RETRIES));
+		Assert.assertEquals(1000L, mc.getLong(Base.TIMEOUT));
+		Assert.assertTrue(1.5d == mc.getDouble(Base.PRICE));
+		Assert.assertTrue(0.5f == mc.getFloat(Base.RATIO));
+		Assert.assertEquals(80, mc.getShort(Base.PORT));
+		Assert.assertEquals(2, mc.getByte(Base.LEVEL));
+		Assert.assertEquals('|', mc.getChar(Base.SEP));
+		Assert.assertEquals(true, mc.getBoolean(Base.ENABLED));
+		
+		mc.add(Base.OLD_PRICE, 7);
+		Assert.assertTrue(7d == mc.getDouble(Base.PRICE));
+		
+		mc.add(Base.PRICE, 8.9d);
+		Assert.assertEquals(7, mc.getInt(Base.OLD_PRICE));
+		
+		mc.remove(Base.OLD_PRICE);
+		Assert.assertEquals(8, mc.getInt(Base.OLD_PRICE));
+		
+		mc.remove(Base.ENABLED);
+		
+		try {
+			mc.getBoolean(Base.ENABLED); // required
+			fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testFork() {
+		
+		MapConfiguration mapConfig = new MapConfiguration("myEnum=BALL noRewind=false", MapConfigurationTest.class);
+		mapConfig.overwriteDefault(TIMEOUT, 5);
+		final int[] count = new int[1];
+		mapConfig.addListener(new DeprecatedListener() {
+			@Override
+			public void deprecatedConfig(ConfigKey<?> deprecatedKey, ConfigKey<?> primaryKey) {
+				count[0]++;
+			}
+		});
+		mapConfig.add(TIMEOUT_222, 7);
+		Assert.assertEquals(1, count[0]);
+		
+		MapConfiguration fork = mapConfig.fork();
+		Assert.assertEquals(1, count[0]); // nothing is read
+		Assert.assertEquals(mapConfig.epoch(), fork.epoch());
+		Assert.assertEquals(mapConfig.keys(), fork.keys());
+		Assert.assertEquals(TestEnum.BALL, fork.get(MY_ENUM));
+		Assert.assertEquals(7, fork.getInt(TIMEOUT));
+		Assert.assertEquals(5, fork.getOverwrittenDefault(TIMEOUT).intValue());
+		
+		fork.remove(TIMEOUT_222);
+		fork.add(MY_ENUM, TestEnum.BOB);
+		Assert.assertEquals(5, fork.getInt(TIMEOUT));
+		Assert.assertEquals(TestEnum.BOB, fork.get(MY_ENUM));
+		Assert.assertEquals(7, mapConfig.getInt(TIMEOUT)); // the source does not change
+		Assert.assertEquals(TestEnum.BALL, mapConfig.get(MY_ENUM));
+		
+		mapConfig.removeAllOverwrittenDefaults();
+		mapConfig.add(NO_REWIND, true);
+		Assert.assertEquals(5, fork.getOverwrittenDefault(TIMEOUT).intValue()); // and the fork does not see the source
+		Assert.assertEquals(false, fork.getBoolean(NO_REWIND));
+		
+		fork.getInt(TIMEOUT_222);
+		Assert.assertEquals(3, count[0]); // listeners are carried over (remove and get)
+	}
+}
@@ -0,0 +1,170 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OverlayConfigurationTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<Double> OLD_TIMEOUT = ConfigKey.doubleKey().deprecated(TIMEOUT);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey();
+		public static final ConfigKey<String> HOST = ConfigKey.stringKey("localhost");
+		public static final ConfigKey<Boolean> VERBOSE = ConfigKey.boolKey(false);
+	}
+	
+	@Test
+	public void testDeltas() {
+		
+		MapConfiguration base = new MapConfiguration("timeout=5 name=base", Holder.class);
+		OverlayConfiguration overlay = new OverlayConfiguration(base);
+		
+		Assert.assertEquals(0, overlay.deltaCount());
+		Assert.assertEquals(5, overlay.getInt(Holder.TIMEOUT));
+		Assert.assertEquals("base", overlay.get(Holder.NAME));
+		Assert.assertEquals(2, overlay.size());
+		
+		Assert.assertEquals(null, overlay.add(Holder.VERBOSE, true));
+		Assert.assertEquals(null, overlay.add(Holder.NAME, "account"));
+		Assert.assertEquals("account", overlay.add(Holder.NAME, "account1"));
+		Assert.assertEquals(2, overlay.deltaCount());
+		Assert.assertEquals(true, overlay.getBoolean(Holder.VERBOSE));
+		Assert.assertEquals("account1", overlay.get(Holder.NAME));
+		Assert.assertEquals("base", base.get(Holder.NAME));
+		Assert.assertEquals(3, overlay.size());
+		Assert.assertTrue(overlay.has(Holder.VERBOSE));
+		
+		overlay.add(Holder.OLD_TIMEOUT, 7.9); // the deprecated key of the overlay wins over the primary of the base
+		Assert.assertEquals(7, overlay.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(Integer.valueOf(7), overlay.get(Holder.TIMEOUT));
+		Assert.assertEquals(7.9, overlay.getDouble(Holder.OLD_TIMEOUT), 0);
+		
+		Assert.assertEquals(7.9, overlay.remove(Holder.OLD_TIMEOUT), 0);
+		Assert.assertEquals(5, overlay.getInt(Holder.TIMEOUT)); // the base shows through again
+		Assert.assertEquals(null, overlay.remove(Holder.OLD_TIMEOUT));
+		
+		base.add(Holder.HOST, "example.com"); // changes to the base are seen
+		Assert.assertEquals("example.com", overlay.get(Holder.HOST));
+		
+		try {
+			overlay.add(Holder.NAME, null);
+			Assert.fail();
+		} catch(RuntimeException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testDefaults() {
+		
+		MapConfiguration base = new MapConfiguration(Holder.class);
+		base.overwriteDefault(Holder.TIMEOUT, 4);
+		OverlayConfiguration overlay = new OverlayConfiguration(base);
+		
+		Assert.assertEquals(4, overlay.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(false, overlay.overwriteDefault(Holder.TIMEOUT, 6));
+		Assert.assertEquals(true, overlay.overwriteDefault(Holder.TIMEOUT, 8));
+		Assert.assertEquals(8, overlay.getInt(Holder.TIMEOUT));
+		Assert.assertEquals(8, overlay.getOverwrittenDefault(Holder.TIMEOUT).intValue());
+		Assert.assertEquals(4, base.getInt(Holder.TIMEOUT));
+		
+		base.add(Holder.TIMEOUT, 5); // a configured value of the base wins over a default of the overlay
+		Assert.assertEquals(5, overlay.getInt(Holder.TIMEOUT));
+		base.remove(Holder.TIMEOUT);
+		
+		overlay.overwriteDefault(Holder.HOST, null);
+		Assert.assertEquals(null, overlay.get(Holder.HOST));
+		
+		overlay.removeAllOverwrittenDefaults();
+		Assert.assertEquals(4, overlay.getInt(Holder.TIMEOUT));
+		Assert.assertEquals("localhost", overlay.get(Holder.HOST));
+		Assert.assertEquals(0, overlay.deltaCount());
+	}
+	
+	@Test
+	public void testEpochAndListeners() {
+		
+		MapConfiguration base = new MapConfiguration(Holder.class);
+		OverlayConfiguration overlay = new OverlayConfiguration(base);
+		final int[] count = new int[1];
+		overlay.addListener(new DeprecatedListener() {
+			@Override
+			public void deprecatedConfig(ConfigKey<?> deprecatedKey, ConfigKey<?> primaryKey) {
+				count[0]++;
+			}
+		});
+		
+		long epoch = overlay.epoch();
+		overlay.add(Holder.OLD_TIMEOUT, 2.0);
+		Assert.assertEquals(1, count[0]);
+		Assert.assertEquals(epoch + 1, overlay.epoch());
+		base.add(Holder.VERBOSE, true);
+		Assert.assertEquals(epoch + 2, overlay.epoch());
+		Assert.assertTrue(overlay.epoch(Holder.class) > epoch);
+	}
+	
+	@Test
+	public void testNoBaseListenersOnDefaults() {
+		
+		MapConfiguration base = new MapConfiguration(Holder.class);
+		OverlayConfiguration overlay = new OverlayConfiguration(base);
+		final int[] count = new int[1];
+		base.addListener(new DeprecatedListener() {
+			@Override
+			public void deprecatedConfig(ConfigKey<?> deprecatedKey, ConfigKey<?> primaryKey) {
+				count[0]++;
+			}
+		});
+		
+		overlay.overwriteDefault(Holder.TIMEOUT, 8);
+		Assert.assertEquals(8.0, overlay.getDouble(Holder.OLD_TIMEOUT), 0);
+		Assert.assertFalse(overlay.hasOverwrittenDefault(Holder.OLD_TIMEOUT)); // overwritten for TIMEOUT only
+		Assert.assertNull(overlay.getOverwrittenDefault(Holder.OLD_TIMEOUT));
+		Assert.assertEquals(0, count[0]); // the overlay only checked the base
+	}
+	
+	@Test
+	public void testConstantsAndLayers() {
+		
+		MapConfiguration base = new MapConfiguration("timeout=5", Holder.class);
+		OverlayConfiguration overlay = new OverlayConfiguration(base);
+		ConfigConstant<Integer> timeout = Holder.TIMEOUT.asConstant(overlay);
+		Assert.assertEquals(5, timeout.getInt());
+		
+		MapConfiguration top = new MapConfiguration(Holder.class);
+		LayeredConfiguration layered = new LayeredConfiguration(overlay, top);
+		Assert.assertEquals(5, layered.getInt(Holder.TIMEOUT));
+		
+		overlay.add(Holder.TIMEOUT, 6);
+		Assert.assertEquals(6, timeout.getInt());
+		Assert.assertEquals(6, layered.getInt(Holder.TIMEOUT));
+		
+		overlay.remove(Holder.TIMEOUT);
+		base.add(Holder.TIMEOUT, 7); // a change to the base is seen through the overlay
+		Assert.assertEquals(7, timeout.getInt());
+		Assert.assertEquals(7, layered.getInt(Holder.TIMEOUT));
+		
+		overlay.overwriteDefault(Holder.HOST, "remote");
+		Assert.assertEquals("remote", layered.get(Holder.HOST));
+		overlay.removeAllOverwrittenDefaults();
+		Assert.assertEquals("localhost", layered.get(Holder.HOST));
+		
+		layered.close();
+	}
+}
@@ -0,0 +1,107 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import static org.junit.Assert.*;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParamsScannerTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> MY_INT = ConfigKey.intKey();
+		public static final ConfigKey<String> MY_STRING = ConfigKey.stringKey();
+		public static final ConfigKey<String> MY_OTHER_STRING = ConfigKey.stringKey("blah");
+	}
+	
+	@Test
+	public void testScanner() {
+		
+		ParamsScanner scanner = new ParamsScanner(ConfigLayout.of(Holder.class));
+		
+		scanner.reset("  myInt=3\tmyString=a=b  ");
+		Assert.assertEquals(true, scanner.next());
+		Assert.assertEquals(Holder.MY_INT, scanner.configKey());
+		Assert.assertEquals("3", scanner.value());
+		Assert.assertEquals(true, scanner.next());
+		Assert.assertEquals(Holder.MY_STRING, scanner.configKey());
+		Assert.assertEquals("a=b", scanner.value());
+		Assert.assertEquals(false, scanner.next());
+		
+		scanner.reset("myString=\"hello world\" myOtherString='it\\'s' myInt=\"\\4\\2\"");
+		Assert.assertEquals(true, scanner.next());
+		Assert.assertEquals("hello world", scanner.value());
+		Assert.assertEquals(true, scanner.next());
+		Assert.assertEquals(Holder.MY_OTHER_STRING, scanner.configKey());
+		Assert.assertEquals("it's", scanner.value());
+		Assert.assertEquals(true, scanner.next());
+		Assert.assertEquals("42", scanner.value());
+		Assert.assertEquals(false, scanner.next());
+		
+		scanner.reset("myString=\"\" myOtherString='a\\ b\\n'");
+		Assert.assertEquals(true, scanner.next());
+		Assert.assertEquals("", scanner.value());
+		Assert.assertEquals(true, scanner.next());
+		Assert.assertEquals("a b\n", scanner.value());
+		Assert.assertEquals(false, scanner.next());
+		
+		scanner.reset("myString=C:\\temp\\new myOtherString=abc\\"); // unquoted values are taken literally
+		Assert.assertEquals(true, scanner.next());
+		Assert.assertEquals("C:\\temp\\new", scanner.value());
+		Assert.assertEquals(true, scanner.next());
+		Assert.assertEquals("abc\\", scanner.value());
+		Assert.assertEquals(false, scanner.next());
+		
+		scanner.reset("");
+		Assert.assertEquals(false, scanner.next());
+	}
+	
+	@Test
+	public void testInvalid() {
+		
+		ParamsScanner scanner = new ParamsScanner(ConfigLayout.of(Holder.class));
+		
+		String[] invalid = { "myInt", "myInt=", "=3", "myInt =3", "myString=\"abc", "myString=\"a\"b", "myString=\"abc\\" };
+		
+		for(String params : invalid) {
+			try {
+				scanner.reset(params).next();
+				fail(params);
+			} catch(IllegalArgumentException e) {
+				// Good!
+			}
+		}
+		
+		try {
+			scanner.reset("myInteger=3").next();
+			fail();
+		} catch(IllegalStateException e) {
+			// Good!
+		}
+	}
+	
+	@Test
+	public void testMapConfiguration() {
+		
+		MapConfiguration mc = new MapConfiguration("myInt=5 myString=\"hello world\" myOtherString=x=y", Holder.class);
+		
+		Assert.assertEquals(5, mc.getInt(Holder.MY_INT));
+		Assert.assertEquals("hello world", mc.get(Holder.MY_STRING));
+		Assert.assertEquals("x=y", mc.get(Holder.MY_OTHER_STRING));
+	}
+}
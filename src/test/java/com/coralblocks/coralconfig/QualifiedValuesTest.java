@@ -0,0 +1,210 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QualifiedValuesTest {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<Double> OLD_TIMEOUT = ConfigKey.doubleKey().deprecated(TIMEOUT);
+		public static final ConfigKey<String> VENUE = ConfigKey.stringKey("NYSE");
+		public static final ConfigKey<Float> RATIO = ConfigKey.floatKey(1.5f);
+	}
+	
+	@Test
+	public void testFallback() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		Assert.assertEquals(3, mc.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals("NYSE", mc.get(Holder.VENUE, 42L));
+		
+		Assert.assertNull(mc.addQualified(Holder.TIMEOUT, 42L, 10));
+		Assert.assertNull(mc.addQualified(Holder.VENUE, 42L, "ARCA"));
+		Assert.assertNull(mc.addQualified(Holder.RATIO, 42L, 2.5f));
+		
+		Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(10, mc.get(Holder.TIMEOUT, 42L).intValue());
+		Assert.assertEquals("ARCA", mc.get(Holder.VENUE, 42L));
+		Assert.assertEquals(2.5f, mc.getFloat(Holder.RATIO, 42L), 0);
+		Assert.assertEquals(3, mc.getInt(Holder.TIMEOUT, 43L));
+		Assert.assertEquals(3, mc.getInt(Holder.TIMEOUT));
+		
+		mc.add(Holder.TIMEOUT, 5);
+		Assert.assertEquals(10, mc.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(5, mc.getInt(Holder.TIMEOUT, 43L));
+		
+		Assert.assertEquals(10, mc.addQualified(Holder.TIMEOUT, 42L, 11).intValue());
+		Assert.assertEquals(11, mc.removeQualified(Holder.TIMEOUT, 42L).intValue());
+		Assert.assertNull(mc.removeQualified(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(5, mc.getInt(Holder.TIMEOUT, 42L));
+	}
+	
+	@Test
+	public void testConfigurationInterface() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		mc.addQualified(Holder.TIMEOUT, 42L, 10);
+		
+		Configuration config = mc;
+		Assert.assertEquals(10, config.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(10, config.get(Holder.TIMEOUT, 42L).intValue());
+		
+		Configuration layered = new LayeredConfiguration(mc); // reads the qualified values of its layers
+		Assert.assertEquals(10, layered.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(3, layered.getInt(Holder.TIMEOUT, 43L));
+		Assert.assertEquals("NYSE", layered.get(Holder.VENUE, 42L));
+		Assert.assertEquals(1.5f, layered.getFloat(Holder.RATIO, 42L), 0);
+		
+		Configuration overlay = new OverlayConfiguration(mc); // reads the qualified values of its base
+		Assert.assertEquals(10, overlay.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(10, overlay.get(Holder.TIMEOUT, 42L).intValue());
+		Assert.assertEquals(3, overlay.getInt(Holder.TIMEOUT, 43L));
+	}
+	
+	@Test
+	public void testLayersAndOverlays() {
+		
+		MapConfiguration bottom = new MapConfiguration(Holder.class);
+		MapConfiguration top = new MapConfiguration(Holder.class);
+		LayeredConfiguration layered = new LayeredConfiguration(bottom, top);
+		
+		bottom.addQualified(Holder.TIMEOUT, 42L, 10);
+		Assert.assertEquals(10, layered.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(10.0, layered.getDouble(Holder.OLD_TIMEOUT, 42L), 0);
+		
+		top.addQualified(Holder.TIMEOUT, 42L, 11); // the highest layer wins
+		Assert.assertEquals(11, layered.getInt(Holder.TIMEOUT, 42L));
+		top.removeQualified(Holder.TIMEOUT, 42L);
+		Assert.assertEquals(10, layered.getInt(Holder.TIMEOUT, 42L));
+		
+		top.add(Holder.TIMEOUT, 5); // a configured value of a higher layer wins too
+		Assert.assertEquals(5, layered.getInt(Holder.TIMEOUT, 42L));
+		top.remove(Holder.TIMEOUT);
+		
+		OverlayConfiguration overlay = new OverlayConfiguration(bottom);
+		overlay.overwriteDefault(Holder.TIMEOUT, 20);
+		Assert.assertEquals(10, overlay.getInt(Holder.TIMEOUT, 42L)); // the qualified value of the base wins over the default of the overlay
+		Assert.assertEquals(20, overlay.getInt(Holder.TIMEOUT, 43L));
+		overlay.add(Holder.TIMEOUT, 30);
+		Assert.assertEquals(30, overlay.getInt(Holder.TIMEOUT, 42L)); // a value of the overlay wins over the base
+		
+		ConfigConstant<Integer> timeout = Holder.TIMEOUT.asConstant(bottom);
+		long epoch = layered.epoch();
+		bottom.addQualified(Holder.TIMEOUT, 43L, 12); // qualified writes are changes too
+		Assert.assertTrue(layered.epoch() > epoch);
+		Assert.assertEquals(12, layered.getInt(Holder.TIMEOUT, 43L));
+		Assert.assertEquals(3, timeout.getInt());
+		
+		layered.close();
+	}
+	
+	@Test
+	public void testZeroAndNegativeQualifiers() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		mc.addQualified(Holder.TIMEOUT, 0L, 7);
+		mc.addQualified(Holder.TIMEOUT, -1L, 8);
+		mc.addQualified(Holder.TIMEOUT, Long.MIN_VALUE, 9);
+		
+		Assert.assertEquals(7, mc.getInt(Holder.TIMEOUT, 0L));
+		Assert.assertEquals(8, mc.getInt(Holder.TIMEOUT, -1L));
+		Assert.assertEquals(9, mc.getInt(Holder.TIMEOUT, Long.MIN_VALUE));
+		
+		Assert.assertEquals(7, mc.removeQualified(Holder.TIMEOUT, 0L).intValue());
+		Assert.assertEquals(3, mc.getInt(Holder.TIMEOUT, 0L));
+		Assert.assertEquals(8, mc.getInt(Holder.TIMEOUT, -1L));
+	}
+	
+	@Test
+	public void testManyQualifiers() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		final int n = 1000;
+		
+		for(int i = 0; i < n; i++) {
+			mc.addQualified(Holder.TIMEOUT, i * 31L, i);
+		}
+		
+		for(int i = 0; i < n; i++) {
+			Assert.assertEquals(i, mc.getInt(Holder.TIMEOUT, i * 31L));
+		}
+		
+		for(int i = 0; i < n; i += 2) { // backward shift deletion must keep the others reachable
+			Assert.assertEquals(i, mc.removeQualified(Holder.TIMEOUT, i * 31L).intValue());
+		}
+		
+		for(int i = 0; i < n; i++) {
+			Assert.assertEquals(i % 2 == 0 ? 3 : i, mc.getInt(Holder.TIMEOUT, i * 31L));
+		}
+	}
+	
+	@Test
+	public void testDeprecatedKey() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		
+		mc.addQualified(Holder.OLD_TIMEOUT, 42L, 12.0);
+		
+		Assert.assertEquals(12, mc.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(12.0, mc.getDouble(Holder.OLD_TIMEOUT, 42L), 0);
+		Assert.assertEquals(12, mc.removeQualified(Holder.TIMEOUT, 42L).intValue());
+		Assert.assertEquals(3.0, mc.getDouble(Holder.OLD_TIMEOUT, 42L), 0);
+	}
+	
+	@Test
+	public void testForkAndFreeze() {
+		
+		MapConfiguration mc = new MapConfiguration(Holder.class);
+		mc.addQualified(Holder.TIMEOUT, 42L, 10);
+		
+		MapConfiguration fork = mc.fork();
+		FrozenConfiguration frozen = mc.freeze();
+		
+		mc.addQualified(Holder.TIMEOUT, 42L, 20);
+		fork.addQualified(Holder.TIMEOUT, 43L, 30);
+		
+		Assert.assertEquals(20, mc.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(3, mc.getInt(Holder.TIMEOUT, 43L));
+		Assert.assertEquals(10, fork.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(30, fork.getInt(Holder.TIMEOUT, 43L));
+		Assert.assertEquals(10, frozen.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(3, frozen.getInt(Holder.TIMEOUT, 43L));
+	}
+	
+	@Test
+	public void testConcurrentConfiguration() {
+		
+		ConcurrentConfiguration cc = new ConcurrentConfiguration(Holder.class);
+		
+		long epoch = cc.epoch();
+		
+		cc.addQualified(Holder.TIMEOUT, 42L, 10);
+		
+		Assert.assertTrue(cc.epoch() > epoch);
+		Assert.assertEquals(10, cc.getInt(Holder.TIMEOUT, 42L));
+		Assert.assertEquals(3, cc.getInt(Holder.TIMEOUT, 43L));
+		
+		Assert.assertEquals(10, cc.removeQualified(Holder.TIMEOUT, 42L).intValue());
+		Assert.assertEquals(3, cc.getInt(Holder.TIMEOUT, 42L));
+	}
+}
@@ -0,0 +1,90 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig.bench;
+
+import java.util.concurrent.CountDownLatch;
+
+import com.coralblocks.coralconfig.ConcurrentConfiguration;
+import com.coralblocks.coralconfig.ConfigKey;
+import com.coralblocks.coralconfig.Configuration;
+import com.coralblocks.coralconfig.MapConfiguration;
+
+/**
+ * Measures the read throughput of <code>MapConfiguration</code> and <code>ConcurrentConfiguration</code> from 1 to 64 threads.
+ * Run it with: <code>java -cp target/classes:target/test-classes com.coralblocks.coralconfig.bench.ConcurrentReadBench [readsPerThread]</code>
+ */
+public class ConcurrentReadBench {
+	
+	public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+	public static final ConfigKey<Integer> TIMEOUT_ALIAS = ConfigKey.intKey().alias(TIMEOUT);
+	public static final ConfigKey<String> NAME = ConfigKey.stringKey("blah");
+	
+	private static volatile long sink;
+	
+	private static long run(final Configuration config, int threads, final int reads) throws InterruptedException {
+		
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threads);
+		
+		for(int i = 0; i < threads; i++) {
+			Thread t = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+					} catch(InterruptedException e) {
+						throw new RuntimeException(e);
+					}
+					long sum = 0;
+					for(int j = 0; j < reads; j++) {
+						sum += config.getInt(TIMEOUT_ALIAS);
+						sum += config.get(NAME).length();
+					}
+					sink += sum;
+					done.countDown();
+				}
+			});
+			t.setDaemon(true);
+			t.start();
+		}
+		
+		long startTime = System.nanoTime();
+		start.countDown();
+		done.await();
+		return System.nanoTime() - startTime;
+	}
+	
+	public static void main(String[] args) throws InterruptedException {
+		
+		int reads = args.length > 0 ? Integer.parseInt(args[0]) : 2000000;
+		
+		MapConfiguration map = new MapConfiguration(ConcurrentReadBench.class);
+		map.add(TIMEOUT_ALIAS, 5);
+		ConcurrentConfiguration concurrent = new ConcurrentConfiguration(map);
+		
+		Configuration[] configs = { map, concurrent };
+		
+		for(Configuration config : configs) run(config, 4, reads); // warmup
+		
+		for(int threads = 1; threads <= 64; threads *= 2) {
+			for(Configuration config : configs) {
+				long time = run(config, threads, reads);
+				double opsPerSec = 2.0 * reads * threads / (time / 1_000_000_000.0);
+				System.out.printf("%-24s threads=%2d reads/sec=%,.0f%n", config.getClass().getSimpleName(), threads, opsPerSec);
+			}
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig.bench;
+
+import java.lang.invoke.MethodHandle;
+
+import com.coralblocks.coralconfig.ConfigKey;
+import com.coralblocks.coralconfig.MapConfiguration;
+
+/**
+ * Compares a branch on a boolean <code>ConfigKey</code> read with <code>getBoolean</code> against the same branch read through the
+ * <code>MethodHandle</code> of a <code>ConfigConstant</code> kept in a <code>static final</code> field, which the JIT can fold.
+ * Run it with: <code>java -cp target/classes:target/test-classes com.coralblocks.coralconfig.bench.ConstantBench [iterations]</code>
+ */
+public class ConstantBench {
+	
+	public static final ConfigKey<Boolean> FEATURE = ConfigKey.boolKey(false);
+	
+	private static final MapConfiguration CONFIG = new MapConfiguration(ConstantBench.class);
+	private static final MethodHandle FEATURE_HANDLE = FEATURE.asConstant(CONFIG).handle();
+	
+	private static volatile long sink;
+	
+	private static long withGet(int iterations) {
+		long sum = 0;
+		for(int i = 0; i < iterations; i++) {
+			if (CONFIG.getBoolean(FEATURE)) {
+				sum += i * 31;
+			} else {
+				sum += i;
+			}
+		}
+		return sum;
+	}
+	
+	private static long withConstant(int iterations) throws Throwable {
+		long sum = 0;
+		for(int i = 0; i < iterations; i++) {
+			if ((boolean) FEATURE_HANDLE.invokeExact()) {
+				sum += i * 31;
+			} else {
+				sum += i;
+			}
+		}
+		return sum;
+	}
+	
+	public static void main(String[] args) throws Throwable {
+		
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 50000000;
+		
+		for(int round = 0; round < 5; round++) {
+			
+			if (round == 3) CONFIG.add(FEATURE, true); // deoptimizes the constant path once
+			
+			long start = System.nanoTime();
+			sink += withGet(iterations);
+			long getTime = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			sink += withConstant(iterations);
+			long constantTime = System.nanoTime() - start;
+			
+			System.out.printf("round=%d feature=%-5b getBoolean=%.2f ns/op constant=%.2f ns/op%n", round, CONFIG.getBoolean(FEATURE),
+								(double) getTime / iterations, (double) constantTime / iterations);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig.bench;
+
+import com.coralblocks.coralconfig.ConfigKey;
+import com.coralblocks.coralconfig.MapConfiguration;
+
+/**
+ * Compares <code>MapConfiguration.fork()</code> followed by one write (a per-session override) against the copy constructor.
+ * Run it with: <code>java -cp target/classes:target/test-classes com.coralblocks.coralconfig.bench.ForkBench [copies]</code>
+ */
+public class ForkBench {
+	
+	public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+	public static final ConfigKey<Integer> TIMEOUT_ALIAS = ConfigKey.intKey().alias(TIMEOUT);
+	public static final ConfigKey<Long> MAX_SIZE = ConfigKey.longKey(100L);
+	public static final ConfigKey<Double> RATIO = ConfigKey.doubleKey(0.5);
+	public static final ConfigKey<Boolean> VERBOSE = ConfigKey.boolKey(false);
+	public static final ConfigKey<String> NAME = ConfigKey.stringKey("blah");
+	public static final ConfigKey<String> HOST = ConfigKey.stringKey("localhost");
+	public static final ConfigKey<Integer> PORT = ConfigKey.intKey(8080);
+	public static final ConfigKey<Integer> RETRIES = ConfigKey.intKey(3);
+	public static final ConfigKey<Long> BACKOFF = ConfigKey.longKey(1000L);
+	
+	private static volatile long sink;
+	
+	public static void main(String[] args) {
+		
+		int copies = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+		
+		MapConfiguration base = new MapConfiguration("timeoutAlias=5 maxSize=200 ratio=0.7 verbose=true name=foo host=example.com port=9090 retries=5 backoff=250", ForkBench.class);
+		
+		for(int round = 0; round < 5; round++) {
+			
+			long start = System.nanoTime();
+			for(int i = 0; i < copies; i++) {
+				MapConfiguration copy = new MapConfiguration(base);
+				copy.add(PORT, i);
+				sink += copy.size();
+			}
+			long copyTime = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for(int i = 0; i < copies; i++) {
+				MapConfiguration fork = base.fork();
+				fork.add(PORT, i);
+				sink += fork.size();
+			}
+			long forkTime = System.nanoTime() - start;
+			
+			System.out.printf("round=%d copyConstructor=%,.0f ns/copy fork=%,.0f ns/copy%n", round, (double) copyTime / copies, (double) forkTime / copies);
+		}
+	}
+}
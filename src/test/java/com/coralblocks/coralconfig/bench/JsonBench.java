@@ -0,0 +1,84 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig.bench;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import com.coralblocks.coralconfig.ConfigJsonReader;
+import com.coralblocks.coralconfig.ConfigKey;
+import com.coralblocks.coralconfig.MapConfiguration;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares <code>ConfigJsonReader</code> against loading with Jackson: a DOM parse, then a params string built from the tree
+ * and passed to the <code>MapConfiguration</code> constructor.
+ * Run it with: <code>java -cp target/classes:target/test-classes:&lt;jackson jars&gt; com.coralblocks.coralconfig.bench.JsonBench [iterations]</code>
+ */
+public class JsonBench {
+	
+	public static final ConfigKey<Integer> MAX_ORDERS = ConfigKey.intKey(0);
+	public static final ConfigKey<Integer> MAX_RETRIES = ConfigKey.intKey(0);
+	public static final ConfigKey<Long> TIMEOUT = ConfigKey.longKey(0L);
+	public static final ConfigKey<Long> HEARTBEAT = ConfigKey.longKey(0L);
+	public static final ConfigKey<Double> PRICE_LIMIT = ConfigKey.doubleKey(0d);
+	public static final ConfigKey<Double> SPREAD = ConfigKey.doubleKey(0d);
+	public static final ConfigKey<Boolean> ENABLED = ConfigKey.boolKey(false);
+	public static final ConfigKey<Boolean> VERBOSE = ConfigKey.boolKey(false);
+	public static final ConfigKey<String> DESCRIPTION = ConfigKey.stringKey("");
+	public static final ConfigKey<String> ACCOUNT = ConfigKey.stringKey("");
+	
+	private static final String JSON = "{\"maxOrders\": 100, \"maxRetries\": 3, \"timeout\": 30000, \"heartbeat\": 5000, " +
+			"\"priceLimit\": 123.45, \"spread\": 0.0025, \"enabled\": true, \"verbose\": false, " +
+			"\"description\": \"momentum\", \"account\": \"ACC1234\"}";
+	
+	private static volatile Object sink;
+	
+	private static MapConfiguration jackson(ObjectMapper mapper) throws Exception {
+		JsonNode root = mapper.readTree(JSON);
+		StringBuilder params = new StringBuilder();
+		Iterator<Map.Entry<String, JsonNode>> iter = root.fields();
+		while(iter.hasNext()) {
+			Map.Entry<String, JsonNode> entry = iter.next();
+			if (params.length() > 0) params.append(' ');
+			params.append(entry.getKey()).append('=').append(entry.getValue().asText());
+		}
+		return new MapConfiguration(params.toString(), JsonBench.class);
+	}
+	
+	public static void main(String[] args) throws Exception {
+		
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		
+		ObjectMapper mapper = new ObjectMapper();
+		
+		for(int round = 0; round < 3; round++) {
+			
+			long start = System.nanoTime();
+			for(int i = 0; i < iterations; i++) sink = jackson(mapper);
+			long jacksonTime = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for(int i = 0; i < iterations; i++) sink = ConfigJsonReader.read(JSON, JsonBench.class);
+			long readerTime = System.nanoTime() - start;
+			
+			if (round == 0) continue; // warmup
+			
+			System.out.printf("jackson: %,6d ns/config  reader: %,6d ns/config%n", jacksonTime / iterations, readerTime / iterations);
+		}
+	}
+}
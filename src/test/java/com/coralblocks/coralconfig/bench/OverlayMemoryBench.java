@@ -0,0 +1,111 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig.bench;
+
+import com.coralblocks.coralconfig.ConfigKey;
+import com.coralblocks.coralconfig.Configuration;
+import com.coralblocks.coralconfig.MapConfiguration;
+import com.coralblocks.coralconfig.OverlayConfiguration;
+
+/**
+ * Measures the heap used per tenant when many tenants differ from a common base in only three <code>ConfigKey</code>s, with
+ * a full <code>MapConfiguration</code> copy, a <code>MapConfiguration.fork()</code> and an <code>OverlayConfiguration</code>.
+ * Run it with: <code>java -cp target/classes:target/test-classes com.coralblocks.coralconfig.bench.OverlayMemoryBench [tenants]</code>
+ */
+public class OverlayMemoryBench {
+	
+	public static class Holder {
+		
+		public static final ConfigKey<Integer> TIMEOUT = ConfigKey.intKey(3);
+		public static final ConfigKey<Integer> TIMEOUT_ALIAS = ConfigKey.intKey().alias(TIMEOUT);
+		public static final ConfigKey<Long> MAX_SIZE = ConfigKey.longKey(100L);
+		public static final ConfigKey<Double> RATIO = ConfigKey.doubleKey(0.5);
+		public static final ConfigKey<Boolean> VERBOSE = ConfigKey.boolKey(false);
+		public static final ConfigKey<String> NAME = ConfigKey.stringKey("blah");
+		public static final ConfigKey<String> HOST = ConfigKey.stringKey("localhost");
+		public static final ConfigKey<Integer> PORT = ConfigKey.intKey(8080);
+		public static final ConfigKey<Integer> RETRIES = ConfigKey.intKey(3);
+		public static final ConfigKey<Long> BACKOFF = ConfigKey.longKey(1000L);
+		public static final ConfigKey<Integer> QUOTA = ConfigKey.intKey(10);
+		public static final ConfigKey<Boolean> PREMIUM = ConfigKey.boolKey(false);
+		public static final ConfigKey<String> REGION = ConfigKey.stringKey("us");
+		public static final ConfigKey<Integer> MAX_SESSIONS = ConfigKey.intKey(5);
+		public static final ConfigKey<Long> MAX_BYTES = ConfigKey.longKey(1L << 20);
+		public static final ConfigKey<Double> RATE = ConfigKey.doubleKey(1.0);
+	}
+	
+	private static interface Factory {
+		Configuration create(MapConfiguration base, int tenant);
+	}
+	
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for(int i = 0; i < 5; i++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch(InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	private static double bytesPerTenant(MapConfiguration base, int tenants, Factory factory) {
+		Configuration[] configs = new Configuration[tenants];
+		long before = usedMemory();
+		for(int i = 0; i < tenants; i++) configs[i] = factory.create(base, i);
+		long after = usedMemory();
+		if (configs[tenants - 1].getInt(Holder.QUOTA) < 0) throw new IllegalStateException(); // keep them alive
+		return (double) (after - before) / tenants;
+	}
+	
+	public static void main(String[] args) {
+		
+		int tenants = args.length > 0 ? Integer.parseInt(args[0]) : 50000;
+		
+		MapConfiguration base = new MapConfiguration("timeout=5 maxSize=200 ratio=0.7 host=example.com port=9090 retries=5", Holder.class);
+		
+		double copy = bytesPerTenant(base, tenants, (b, i) -> {
+			MapConfiguration c = new MapConfiguration(b);
+			c.add(Holder.QUOTA, 1000 + i);
+			c.add(Holder.PREMIUM, true);
+			c.add(Holder.REGION, "eu");
+			return c;
+		});
+		
+		double fork = bytesPerTenant(base, tenants, (b, i) -> {
+			MapConfiguration c = b.fork();
+			c.add(Holder.QUOTA, 1000 + i);
+			c.add(Holder.PREMIUM, true);
+			c.add(Holder.REGION, "eu");
+			return c;
+		});
+		
+		double overlay = bytesPerTenant(base, tenants, (b, i) -> {
+			OverlayConfiguration c = new OverlayConfiguration(b);
+			c.add(Holder.QUOTA, 1000 + i);
+			c.add(Holder.PREMIUM, true);
+			c.add(Holder.REGION, "eu");
+			return c;
+		});
+		
+		System.out.printf("tenants=%,d keys=%d deltas=3%n", tenants, base.allConfigKeys().size());
+		System.out.printf("MapConfiguration copy: %,.0f bytes/tenant%n", copy);
+		System.out.printf("MapConfiguration fork: %,.0f bytes/tenant%n", fork);
+		System.out.printf("OverlayConfiguration:  %,.0f bytes/tenant%n", overlay);
+	}
+}
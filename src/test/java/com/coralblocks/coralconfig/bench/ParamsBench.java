@@ -0,0 +1,107 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.coralblocks.coralconfig.ConfigKey;
+import com.coralblocks.coralconfig.MapConfiguration;
+
+/**
+ * Compares the params constructor of <code>MapConfiguration</code> against the old way of tokenizing params, with
+ * <code>String.split</code> for whitespace and then for <code>=</code>.
+ * Run it with: <code>java -cp target/classes:target/test-classes com.coralblocks.coralconfig.bench.ParamsBench [iterations]</code>
+ */
+public class ParamsBench {
+	
+	public static final ConfigKey<Integer> MY_INT_0 = ConfigKey.intKey(0);
+	public static final ConfigKey<Integer> MY_INT_1 = ConfigKey.intKey(0);
+	public static final ConfigKey<Integer> MY_INT_2 = ConfigKey.intKey(0);
+	public static final ConfigKey<Integer> MY_INT_3 = ConfigKey.intKey(0);
+	public static final ConfigKey<Long> MY_LONG_0 = ConfigKey.longKey(0L);
+	public static final ConfigKey<Long> MY_LONG_1 = ConfigKey.longKey(0L);
+	public static final ConfigKey<Double> MY_DOUBLE_0 = ConfigKey.doubleKey(0d);
+	public static final ConfigKey<Double> MY_DOUBLE_1 = ConfigKey.doubleKey(0d);
+	public static final ConfigKey<Boolean> MY_BOOLEAN_0 = ConfigKey.boolKey(false);
+	public static final ConfigKey<Boolean> MY_BOOLEAN_1 = ConfigKey.boolKey(false);
+	public static final ConfigKey<String> MY_STRING_0 = ConfigKey.stringKey("");
+	public static final ConfigKey<String> MY_STRING_1 = ConfigKey.stringKey("");
+	
+	private static volatile Object sink;
+	
+	private static String buildParams(int repeat) {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < repeat; i++) {
+			sb.append("myInt0=").append(i).append(" myInt1=42 myInt2=-7 myInt3=1000000 ");
+			sb.append("myLong0=123456789012 myLong1=-1 myDouble0=3.14159 myDouble1=-0.5 ");
+			sb.append("myBoolean0=true myBoolean1=false myString0=hello myString1=world ");
+		}
+		return sb.toString().trim();
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static MapConfiguration legacy(String params, Map<String, ConfigKey<?>> byName) {
+		MapConfiguration config = new MapConfiguration(ParamsBench.class);
+		for(String keyValue : params.split("\\s+")) {
+			String[] temp = keyValue.split("=");
+			if (temp.length != 2) throw new IllegalArgumentException("The params argument is invalid: " + params + " (" + keyValue + ")");
+			ConfigKey configKey = byName.get(temp[0]);
+			if (configKey == null) throw new IllegalStateException("A config key in params does not belong to this configuration: " + temp[0]);
+			config.add(configKey, parse(configKey.getType(), temp[1]));
+		}
+		return config;
+	}
+	
+	private static Object parse(Class<?> type, String value) {
+		if (type == Integer.class) return Integer.valueOf(value);
+		if (type == Long.class) return Long.valueOf(value);
+		if (type == Double.class) return Double.valueOf(value);
+		if (type == Boolean.class) return Boolean.valueOf(value);
+		return value;
+	}
+	
+	public static void main(String[] args) {
+		
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+		
+		Map<String, ConfigKey<?>> byName = new HashMap<String, ConfigKey<?>>();
+		for(ConfigKey<?> configKey : new MapConfiguration(ParamsBench.class).allConfigKeys()) {
+			byName.put(configKey.getParamName(), configKey);
+		}
+		
+		for(int repeat : new int[] { 1, 10, 100 }) {
+			
+			String params = buildParams(repeat);
+			
+			for(int warmup = 0; warmup < 2; warmup++) {
+				
+				long start = System.nanoTime();
+				for(int i = 0; i < iterations; i++) sink = legacy(params, byName);
+				long legacyTime = System.nanoTime() - start;
+				
+				start = System.nanoTime();
+				for(int i = 0; i < iterations; i++) sink = new MapConfiguration(params, ParamsBench.class);
+				long scannerTime = System.nanoTime() - start;
+				
+				if (warmup == 0) continue;
+				
+				System.out.printf("params length=%,6d  split: %,8d ns/config  scanner: %,8d ns/config%n",
+						params.length(), legacyTime / iterations, scannerTime / iterations);
+			}
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/* 
+ * Copyright 2015-2025 (c) CoralBlocks LLC - http://www.coralblocks.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package com.coralblocks.coralconfig.bench;
+
+import com.coralblocks.coralconfig.ConfigKey;
+import com.coralblocks.coralconfig.MapConfiguration;
+
+/**
+ * Compares a plain <code>getInt</code> against a qualified <code>getInt</code> over a set of instrument ids, half of which have a
+ * qualified value and half of which fall back to the plain value.
+ * Run it with: <code>java -cp target/classes:target/test-classes com.coralblocks.coralconfig.bench.QualifiedBench [iterations]</code>
+ */
+public class QualifiedBench {
+	
+	public static final ConfigKey<Integer> MAX_QTY = ConfigKey.intKey(100);
+	
+	private static final int INSTRUMENTS = 1024;
+	
+	private static volatile long sink;
+	
+	private static long withGet(MapConfiguration config, int iterations) {
+		long sum = 0;
+		for(int i = 0; i < iterations; i++) {
+			sum += config.getInt(MAX_QTY);
+		}
+		return sum;
+	}
+	
+	private static long withQualifier(MapConfiguration config, long[] instruments, int iterations) {
+		long sum = 0;
+		for(int i = 0; i < iterations; i++) {
+			sum += config.getInt(MAX_QTY, instruments[i & (INSTRUMENTS - 1)]);
+		}
+		return sum;
+	}
+	
+	public static void main(String[] args) {
+		
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 50000000;
+		
+		MapConfiguration config = new MapConfiguration(QualifiedBench.class);
+		
+		long[] instruments = new long[INSTRUMENTS];
+		for(int i = 0; i < INSTRUMENTS; i++) {
+			instruments[i] = 1000000L + i * 7919L;
+			if (i % 2 == 0) config.addQualified(MAX_QTY, instruments[i], i);
+		}
+		
+		for(int round = 0; round < 5; round++) {
+			
+			long start = System.nanoTime();
+			sink += withGet(config, iterations);
+			long getTime = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			sink += withQualifier(config, instruments, iterations);
+			long qualifiedTime = System.nanoTime() - start;
+			
+			System.out.printf("round=%d getInt=%.2f ns/op qualified=%.2f ns/op%n", round,
+								(double) getTime / iterations, (double) qualifiedTime / iterations);
+		}
+	}
+}